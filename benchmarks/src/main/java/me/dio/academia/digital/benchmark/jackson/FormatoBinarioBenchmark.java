@@ -0,0 +1,116 @@
+package me.dio.academia.digital.benchmark.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import me.dio.academia.digital.infra.jackson.deser.LocalDateDeserializer;
+import me.dio.academia.digital.infra.jackson.deser.LocalDateTimeDeserializer;
+import me.dio.academia.digital.infra.jackson.ser.LocalDateSerializer;
+import me.dio.academia.digital.infra.jackson.ser.LocalDateTimeSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o JSON com os formatos binários negociados pela API (Smile e CBOR), com os mesmos
+ * (de)serializadores de datas registrados no ObjectMapperConfig.
+ *
+ * Cada operação (de)serializa uma lista de {@link #QUANTIDADE} registros, o tamanho máximo de uma
+ * página das listagens. O tamanho da lista serializada em cada formato é reportado pelo JMH junto
+ * com os resultados, na métrica secundária <code>bytes</code>:
+ * <pre>
+ * java -jar target/benchmarks.jar FormatoBinarioBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatoBinarioBenchmark {
+
+    static final int QUANTIDADE = 500;
+
+    @Param({"json", "smile", "cbor"})
+    public String formato;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private Registro[] registros;
+
+    private byte[] serializados;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory;
+        if ("smile".equals(formato)) {
+            factory = new SmileFactory();
+        } else if ("cbor".equals(formato)) {
+            factory = new CBORFactory();
+        } else {
+            factory = new JsonFactory();
+        }
+        ObjectMapper mapper = new ObjectMapper(factory).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.registerModule(new SimpleModule()
+                .addSerializer(LocalDate.class, new LocalDateSerializer())
+                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer())
+                .addDeserializer(LocalDate.class, new LocalDateDeserializer())
+                .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer()));
+        writer = mapper.writerFor(Registro[].class);
+        reader = mapper.readerFor(Registro[].class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        registros = new Registro[QUANTIDADE];
+        for (int i = 0; i < QUANTIDADE; i++) {
+            registros[i] = new Registro(i,
+                    LocalDate.of(1960, 1, 1).plusDays(random.nextInt(365 * 45)),
+                    base.plusSeconds(random.nextInt(365 * 24 * 3600)),
+                    50 + random.nextDouble() * 60);
+        }
+        serializados = writer.writeValueAsBytes(registros);
+    }
+
+    @Benchmark
+    public void serializar(Tamanho tamanho) throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), registros);
+    }
+
+    @Benchmark
+    public Registro[] deserializar(Tamanho tamanho) throws IOException {
+        return reader.readValue(serializados);
+    }
+
+    /**
+     * Tamanho da lista serializada no formato medido, reportado como contador auxiliar. O JMH soma
+     * os contadores das threads; execute com uma thread (o padrão) para ler o tamanho diretamente.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanho {
+
+        private long bytes;
+
+        @Setup
+        public void setup(FormatoBinarioBenchmark benchmark) {
+            bytes = benchmark.serializados.length;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+    }
+}
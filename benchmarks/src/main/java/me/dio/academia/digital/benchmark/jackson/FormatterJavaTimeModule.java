@@ -0,0 +1,50 @@
+package me.dio.academia.digital.benchmark.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import me.dio.academia.digital.infra.utils.JavaTimeUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Implementação anterior dos (de)serializadores de datas, baseada em {@link java.time.format.DateTimeFormatter}
+ * e em Strings intermediárias. Mantida apenas como referência de comparação nos benchmarks.
+ */
+public class FormatterJavaTimeModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public FormatterJavaTimeModule() {
+        addSerializer(LocalDate.class, new StdSerializer<LocalDate>(LocalDate.class) {
+            @Override
+            public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_FORMATTER));
+            }
+        });
+        addSerializer(LocalDateTime.class, new StdSerializer<LocalDateTime>(LocalDateTime.class) {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER));
+            }
+        });
+        addDeserializer(LocalDate.class, new StdDeserializer<LocalDate>(LocalDate.class) {
+            @Override
+            public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return LocalDate.parse(parser.readValueAs(String.class), JavaTimeUtils.LOCAL_DATE_FORMATTER);
+            }
+        });
+        addDeserializer(LocalDateTime.class, new StdDeserializer<LocalDateTime>(LocalDateTime.class) {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return LocalDateTime.parse(parser.readValueAs(String.class), JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER);
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package me.dio.academia.digital.benchmark.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import me.dio.academia.digital.infra.jackson.deser.LocalDateDeserializer;
+import me.dio.academia.digital.infra.jackson.deser.LocalDateTimeDeserializer;
+import me.dio.academia.digital.infra.jackson.ser.LocalDateSerializer;
+import me.dio.academia.digital.infra.jackson.ser.LocalDateTimeSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara os (de)serializadores de datas registrados no ObjectMapperConfig com a implementação
+ * anterior, baseada em DateTimeFormatter ({@link FormatterJavaTimeModule}).
+ *
+ * Cada operação (de)serializa uma lista de {@link #QUANTIDADE} registros. Para medir a alocação
+ * por operação, execute com o profiler de GC e observe a métrica <code>gc.alloc.rate.norm</code>:
+ * <pre>
+ * java -jar target/benchmarks.jar JavaTimeCodecBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaTimeCodecBenchmark {
+
+    static final int QUANTIDADE = 1000;
+
+    @Param({"formatter", "buffer"})
+    public String implementacao;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private Registro[] registros;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("formatter".equals(implementacao)) {
+            mapper.registerModule(new FormatterJavaTimeModule());
+        } else {
+            mapper.registerModule(new SimpleModule()
+                    .addSerializer(LocalDate.class, new LocalDateSerializer())
+                    .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer())
+                    .addDeserializer(LocalDate.class, new LocalDateDeserializer())
+                    .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer()));
+        }
+        writer = mapper.writerFor(Registro[].class);
+        reader = mapper.readerFor(Registro[].class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        registros = new Registro[QUANTIDADE];
+        for (int i = 0; i < QUANTIDADE; i++) {
+            registros[i] = new Registro(i,
+                    LocalDate.of(1960, 1, 1).plusDays(random.nextInt(365 * 45)),
+                    base.plusSeconds(random.nextInt(365 * 24 * 3600)),
+                    50 + random.nextDouble() * 60);
+        }
+        json = writer.writeValueAsBytes(registros);
+    }
+
+    @Benchmark
+    public void serializar() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), registros);
+    }
+
+    @Benchmark
+    public Registro[] deserializar() throws IOException {
+        return reader.readValue(json);
+    }
+}
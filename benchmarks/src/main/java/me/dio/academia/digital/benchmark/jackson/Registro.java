@@ -0,0 +1,28 @@
+package me.dio.academia.digital.benchmark.jackson;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Registro com o mesmo formato de datas das respostas da API (data de nascimento do aluno e data da avaliação).
+ */
+public class Registro {
+
+    public long id;
+
+    public LocalDate dataDeNascimento;
+
+    public LocalDateTime dataDaAvaliacao;
+
+    public double peso;
+
+    public Registro() {
+    }
+
+    public Registro(long id, LocalDate dataDeNascimento, LocalDateTime dataDaAvaliacao, double peso) {
+        this.id = id;
+        this.dataDeNascimento = dataDeNascimento;
+        this.dataDaAvaliacao = dataDaAvaliacao;
+        this.peso = peso;
+    }
+}
@@ -1,11 +1,23 @@
 package me.dio.academia.digital.controller;
 
-import me.dio.academia.digital.entity.Aluno;
-import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.entity.dto.AlunoLoteResultado;
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
 import me.dio.academia.digital.entity.form.AlunoForm;
 import me.dio.academia.digital.entity.form.AlunoUpdateForm;
+import me.dio.academia.digital.infra.csv.AlunoCsvReader;
+import me.dio.academia.digital.infra.http.Etags;
+import me.dio.academia.digital.infra.pagination.CursorPage;
+import me.dio.academia.digital.infra.query.QueryBudget;
+import me.dio.academia.digital.service.impl.AlunoMetricasServiceImpl;
 import me.dio.academia.digital.service.impl.AlunoServiceImpl;
+import me.dio.academia.digital.service.impl.BuscaAlunosServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -31,47 +43,155 @@ public class AlunoController {
     @Autowired
     private AlunoServiceImpl service;
 
+    @Autowired
+    private AlunoMetricasServiceImpl metricasService;
+
+    @Autowired
+    private BuscaAlunosServiceImpl buscaService;
+
     /**
-     * Retorna uma lista com todos os alunos cadastrados no sistema.
+     * Retorna uma página de alunos cadastrados no sistema, ordenados por nome.
      *
-     * @return Uma lista contendo objetos do tipo Aluno.
+     * @param cursor Token opaco retornado em <code>proximoCursor</code> pela página anterior.
+     * @param tamanho Quantidade de alunos por página.
+     * @return Uma página contendo os alunos e o cursor da próxima página.
      */
     @GetMapping
-    public List<Aluno> getAll() {
-        return service.getAll();
+    @QueryBudget(1)
+    public CursorPage<AlunoDTO> getAll(@RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer tamanho) {
+        return service.getAll(cursor, tamanho);
     }
 
     /**
      * Cria um novo aluno no sistema a partir dos dados fornecidos.
      *
      * @param form Objeto do tipo AlunoForm contendo as informações necessárias para a criação de um novo aluno.
-     * @return O objeto Aluno criado, contendo os dados persistidos.
+     * @return Os dados do aluno criado.
      */
     @PostMapping
-    public Aluno create(@RequestBody AlunoForm form) {
+    public AlunoDTO create(@RequestBody AlunoForm form) {
         return service.create(form);
     }
 
+    /**
+     * Cria vários alunos a partir de uma lista em JSON.
+     *
+     * @param forms Lista de objetos do tipo AlunoForm com os dados dos alunos.
+     * @return O resultado do cadastro de cada aluno, incluindo os rejeitados e o motivo.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public AlunoLoteResultado createBatch(@RequestBody List<AlunoForm> forms) {
+        return service.createBatch(forms);
+    }
+
+    /**
+     * Cria vários alunos a partir de um CSV com as colunas nome, cpf, bairro e dataDeNascimento.
+     *
+     * @param csv Conteúdo do CSV, com ou sem linha de cabeçalho.
+     * @return O resultado do cadastro de cada aluno, incluindo os rejeitados e o motivo.
+     */
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public AlunoLoteResultado createBatchCsv(@RequestBody String csv) {
+        return service.createBatch(AlunoCsvReader.ler(csv));
+    }
+
     /**
      * Método responsável por listar todas as avaliações físicas associadas a um aluno específico.
      *
+     * A resposta traz um <code>ETag</code>. Se o <code>If-None-Match</code> da requisição contiver
+     * o ETag de uma lista já lida e não alterada desde então, a resposta é <code>304</code>, sem
+     * consultar as avaliações. Se o ETag não for conhecido (por exemplo, quando a lista é lida de
+     * uma réplica), as avaliações são consultadas e a resposta é <code>304</code>, sem o corpo, se
+     * o ETag resultante corresponder.
+     *
      * @param id O identificador único do aluno cujas avaliações físicas serão listadas.
+     * @param ifNoneMatch ETags da lista já conhecidos pelo cliente (opcional).
+     * @param accept Formatos aceitos pelo cliente, que compõem o ETag (opcional).
      * @return Uma lista contendo todas as avaliações físicas do aluno identificado pelo parâmetro.
      */
     @GetMapping( "/avaliacoes/{id}")
-    public List<AvaliacaoFisica> getAllAvaliacaoFisica(@PathVariable Long id) {
-        return service.getAllAvaliacaoFisica(id);
+    @QueryBudget(2)
+    public ResponseEntity<List<AvaliacaoFisicaDTO>> getAllAvaliacaoFisica(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String etag = Etags.representacao(service.getEtagAvaliacoes(id), accept);
+        if (Etags.corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        List<AvaliacaoFisicaDTO> avaliacoes = service.getAllAvaliacaoFisica(id);
+        String atual = Etags.representacao(Etags.avaliacoes(id, avaliacoes), accept);
+        if (Etags.corresponde(ifNoneMatch, atual)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(atual).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(atual)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(avaliacoes);
+    }
+
+    /**
+     * Retorna os indicadores de composição corporal de um aluno: IMC atual, variação de peso desde
+     * a primeira avaliação, tendência de peso nos últimos 30 e 90 dias e pesos mínimo e máximo.
+     *
+     * @param id O identificador único do aluno.
+     * @return Os indicadores calculados a partir das avaliações físicas do aluno.
+     */
+    @GetMapping("/{id}/metricas")
+    @QueryBudget(2)
+    public AlunoMetricasDTO getMetricas(@PathVariable Long id) {
+        return metricasService.get(id);
+    }
+
+    /**
+     * Busca alunos pelo nome, por prefixo e por aproximação, sem diferenciar acentos e maiúsculas.
+     *
+     * @param nome Uma ou mais palavras (ou inícios de palavras) do nome, com ao menos 2 letras.
+     * @param bairro Bairro dos alunos (opcional).
+     * @param limite Quantidade máxima de alunos retornados.
+     * @return Os alunos encontrados, dos mais para os menos relevantes.
+     */
+    @GetMapping("/busca")
+    @QueryBudget(1)
+    public List<AlunoDTO> buscar(@RequestParam String nome,
+                                 @RequestParam(required = false) String bairro,
+                                 @RequestParam(required = false) Integer limite) {
+        return buscaService.buscar(nome, bairro, limite);
     }
 
     /**
      * Retorna os dados de um aluno específico com base no identificador fornecido.
      *
+     * A resposta traz um <code>ETag</code> com a versão do aluno, lida do cache de alunos. Se o
+     * <code>If-None-Match</code> da requisição contiver esse ETag, a resposta é <code>304</code>,
+     * sem corpo.
+     *
      * @param id O identificador único do aluno a ser recuperado.
-     * @return O objeto Aluno correspondente ao identificador fornecido.
+     * @param accept Formatos aceitos pelo cliente, que compõem o ETag (opcional).
+     * @return Os dados do aluno correspondente ao identificador fornecido.
      */
     @GetMapping("/{id}")
-    public Aluno get(@PathVariable Long id) {
-        return service.get(id);
+    @QueryBudget(1)
+    public ResponseEntity<AlunoDTO> get(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        AlunoDTO aluno = service.get(id);
+        return ResponseEntity.ok()
+                .eTag(Etags.representacao(Etags.aluno(aluno), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(aluno);
+    }
+
+    /**
+     * Retorna os dados do aluno com o CPF informado, com ou sem pontuação.
+     *
+     * @param cpf O CPF do aluno.
+     * @return Os dados do aluno correspondente ao CPF fornecido.
+     */
+    @GetMapping("/cpf/{cpf}")
+    @QueryBudget(1)
+    public AlunoDTO getByCpf(@PathVariable String cpf) {
+        return service.getByCpf(cpf);
     }
 
     /**
@@ -79,10 +199,10 @@ public class AlunoController {
      *
      * @param id O identificador único do aluno que será atualizado.
      * @param formUpdate Objeto do tipo AlunoUpdateForm contendo os dados que serão atualizados.
-     * @return O objeto Aluno atualizado com os novos dados persistidos.
+     * @return Os dados do aluno atualizado.
      */
     @PostMapping("/{id}")
-    public Aluno update(@PathVariable Long id, @RequestBody AlunoUpdateForm formUpdate) {
+    public AlunoDTO update(@PathVariable Long id, @RequestBody AlunoUpdateForm formUpdate) {
         return service.update(id, formUpdate);
     }
 
@@ -1,13 +1,30 @@
 package me.dio.academia.digital.controller;
 
-import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.ArquivamentoStatus;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.entity.dto.ImportacaoStatus;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaForm;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaUpdateForm;
+import me.dio.academia.digital.infra.query.QueryBudget;
+import me.dio.academia.digital.service.impl.AvaliacaoFisicaArquivamentoServiceImpl;
+import me.dio.academia.digital.service.impl.AvaliacaoFisicaImportacaoServiceImpl;
 import me.dio.academia.digital.service.impl.AvaliacaoFisicaServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 
 /**
  * Controlador responsável por gerenciar as operações relacionadas à entidade Avaliação Física.
@@ -26,6 +43,12 @@ public class AvaliacaoFisicaController {
     @Autowired
     private AvaliacaoFisicaServiceImpl service;
 
+    @Autowired
+    private AvaliacaoFisicaImportacaoServiceImpl importacaoService;
+
+    @Autowired
+    private AvaliacaoFisicaArquivamentoServiceImpl arquivamentoService;
+
     /**
      * Cria uma nova avaliação física para um aluno.
      *
@@ -33,7 +56,7 @@ public class AvaliacaoFisicaController {
      * @return A avaliação física criada.
      */
     @PostMapping
-    public AvaliacaoFisica create(@RequestBody AvaliacaoFisicaForm form) {
+    public AvaliacaoFisicaDTO create(@RequestBody AvaliacaoFisicaForm form) {
         return service.create(form);
 
     }
@@ -45,18 +68,131 @@ public class AvaliacaoFisicaController {
      * @return A avaliação física correspondente ao ID.
      */
     @GetMapping("/{id}")
-    public AvaliacaoFisica get(@PathVariable Long id) {
+    @QueryBudget(1)
+    public AvaliacaoFisicaDTO get(@PathVariable Long id) {
         return service.get(id);
     }
 
     /**
-     * Lista todas as avaliações físicas registradas no sistema.
+     * Lista as avaliações físicas registradas no sistema, das mais recentes para as mais antigas.
      *
-     * @return Lista contendo todas as avaliações físicas.
+     * @param alunoId ID do aluno avaliado (opcional).
+     * @param de Primeiro dia do período, no formato dd/MM/yyyy (opcional).
+     * @param ate Último dia do período, no formato dd/MM/yyyy (opcional).
+     * @param pagina Número da página, a partir de 0.
+     * @param tamanho Quantidade de avaliações por página (opcional).
+     * @return Página contendo as avaliações físicas encontradas.
      */
     @GetMapping
-    public List<AvaliacaoFisica> getAll() {
-        return service.getAll();
+    @QueryBudget(1)
+    public Slice<AvaliacaoFisicaDTO> getAll(@RequestParam(required = false) Long alunoId,
+                                            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate de,
+                                            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate ate,
+                                            @RequestParam(defaultValue = "0") int pagina,
+                                            @RequestParam(required = false) Integer tamanho) {
+        return service.getAll(alunoId, de, ate, pagina, tamanho);
+    }
+
+    /**
+     * Exporta todas as avaliações físicas em NDJSON (um objeto JSON por linha).
+     *
+     * A resposta é escrita à medida que os registros são lidos do banco de dados, permitindo
+     * exportar grandes volumes sem carregá-los em memória.
+     *
+     * @param response Resposta HTTP onde as avaliações físicas serão escritas.
+     * @throws IOException Se ocorrer um erro ao escrever a resposta.
+     */
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public void exportar(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        service.exportar(response.getOutputStream());
+    }
+
+    /**
+     * Agenda a importação de um arquivo CSV de avaliações físicas, como os exportados pelas
+     * balanças inteligentes.
+     *
+     * O arquivo deve conter as colunas alunoId, peso, altura e, opcionalmente, dataDaAvaliacao
+     * (dd/MM/yyyy HH:mm:ss). O processamento ocorre em segundo plano.
+     *
+     * @param arquivo Arquivo CSV enviado como multipart.
+     * @return O progresso da importação, cujo id permite acompanhá-la.
+     * @throws IOException Se o arquivo enviado não puder ser armazenado.
+     */
+    @PostMapping("/importacoes")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportacaoStatus importar(@RequestParam("arquivo") MultipartFile arquivo) throws IOException {
+        Path destino = Files.createTempFile("avaliacoes-", ".csv");
+        arquivo.transferTo(destino);
+        return importacaoService.importar(destino, arquivo.getOriginalFilename());
+    }
+
+    /**
+     * Consulta o progresso de uma importação de avaliações físicas.
+     *
+     * @param id ID da importação.
+     * @return O progresso da importação.
+     */
+    @GetMapping("/importacoes/{id}")
+    public ImportacaoStatus getImportacao(@PathVariable String id) {
+        return importacaoService.get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação " + id + " não encontrada"));
+    }
+
+    /**
+     * Retorna o arquivo com as linhas rejeitadas de uma importação e o motivo de cada rejeição.
+     *
+     * @param id ID da importação.
+     * @return O arquivo de erros em CSV.
+     */
+    @GetMapping(value = "/importacoes/{id}/erros", produces = "text/csv")
+    public Resource getErrosImportacao(@PathVariable String id) {
+        ImportacaoStatus status = getImportacao(id);
+        return new FileSystemResource(status.getArquivoDeErros());
+    }
+
+    /**
+     * Agenda o arquivamento das avaliações físicas antigas, que são movidas para
+     * <code>tb_avaliacoes_arquivo</code> em segundo plano.
+     *
+     * @param anos Período de retenção: são arquivadas as avaliações realizadas há mais de
+     *             <code>anos</code> anos (opcional; padrão em <code>academia.arquivamento.anos</code>).
+     * @return O progresso do arquivamento, cujo id permite acompanhá-lo.
+     */
+    @PostMapping("/arquivamentos")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ArquivamentoStatus arquivar(@RequestParam(required = false) Integer anos) {
+        if (anos != null && anos < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O período de retenção deve ser de ao menos 1 ano");
+        }
+        return arquivamentoService.arquivar(anos);
+    }
+
+    /**
+     * Consulta o progresso de um arquivamento, inclusive as avaliações arquivadas por segundo.
+     *
+     * @param id ID do arquivamento.
+     * @return O progresso do arquivamento.
+     */
+    @GetMapping("/arquivamentos/{id}")
+    public ArquivamentoStatus getArquivamento(@PathVariable String id) {
+        return arquivamentoService.get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Arquivamento " + id + " não encontrado"));
+    }
+
+    /**
+     * Interrompe um arquivamento após o bloco em andamento. As avaliações já movidas permanecem
+     * arquivadas.
+     *
+     * @param id ID do arquivamento.
+     * @return O progresso do arquivamento.
+     */
+    @DeleteMapping("/arquivamentos/{id}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ArquivamentoStatus cancelarArquivamento(@PathVariable String id) {
+        return arquivamentoService.cancelar(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Arquivamento " + id + " não encontrado"));
     }
 
     /**
@@ -67,7 +203,7 @@ public class AvaliacaoFisicaController {
      * @return A avaliação física atualizada.
      */
     @PutMapping("/{id}")
-    public AvaliacaoFisica update(@PathVariable Long id, @RequestBody AvaliacaoFisicaUpdateForm formUpdate) {
+    public AvaliacaoFisicaDTO update(@PathVariable Long id, @RequestBody AvaliacaoFisicaUpdateForm formUpdate) {
         return service.update(id, formUpdate);
     }
 
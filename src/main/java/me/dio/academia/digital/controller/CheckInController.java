@@ -0,0 +1,48 @@
+package me.dio.academia.digital.controller;
+
+import me.dio.academia.digital.entity.dto.PresencaDTO;
+import me.dio.academia.digital.entity.form.CheckInForm;
+import me.dio.academia.digital.infra.query.QueryBudget;
+import me.dio.academia.digital.service.impl.CheckInServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Controlador responsável pelos check-ins registrados pelas catracas da academia.
+ */
+@RestController
+@RequestMapping("/checkins")
+public class CheckInController {
+
+    @Autowired
+    private CheckInServiceImpl service;
+
+    /**
+     * Registra a entrada ou a saída de um aluno. O check-in é aceito imediatamente e gravado no
+     * banco de dados em segundo plano.
+     *
+     * @param form Objeto contendo a matrícula, o sentido da passagem e a catraca.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @QueryBudget(0)
+    public void registrar(@Valid @RequestBody CheckInForm form) {
+        service.registrar(form);
+    }
+
+    /**
+     * Lista os alunos presentes na academia neste momento.
+     *
+     * @return A matrícula, a catraca e o horário de entrada de cada aluno presente.
+     */
+    @GetMapping("/presentes")
+    @QueryBudget(0)
+    public List<PresencaDTO> getPresentes() {
+        return service.getPresentes();
+    }
+
+}
@@ -0,0 +1,54 @@
+package me.dio.academia.digital.controller;
+
+import me.dio.academia.digital.entity.dto.HistoricoDTO;
+import me.dio.academia.digital.entity.dto.TendenciaDTO;
+import me.dio.academia.digital.service.impl.HistoricoAvaliacoesServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controller responsável pelas consultas ao histórico de peso e altura dos alunos mantido em
+ * memória. Disponível apenas quando <code>academia.historico.habilitado=true</code>.
+ */
+@RestController
+@RequestMapping("/alunos/{id}/historico")
+@ConditionalOnProperty(prefix = "academia.historico", name = "habilitado", havingValue = "true")
+public class HistoricoController {
+
+    @Autowired
+    private HistoricoAvaliacoesServiceImpl service;
+
+    /**
+     * Retorna o histórico de peso e altura de um aluno, em formato colunar.
+     *
+     * @param id O identificador único do aluno.
+     * @param de Primeiro dia do período, no formato dd/MM/yyyy (opcional).
+     * @param ate Último dia do período, no formato dd/MM/yyyy (opcional).
+     * @return O histórico do aluno no período.
+     */
+    @GetMapping
+    public HistoricoDTO getHistorico(@PathVariable Long id,
+                                     @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate de,
+                                     @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate ate) {
+        return service.getHistorico(id, de, ate);
+    }
+
+    /**
+     * Retorna a tendência do peso de um aluno no período informado.
+     *
+     * @param id O identificador único do aluno.
+     * @param de Primeiro dia do período, no formato dd/MM/yyyy (opcional).
+     * @param ate Último dia do período, no formato dd/MM/yyyy (opcional).
+     * @return A quantidade de avaliações, o peso médio, a variação e a tendência do peso no período.
+     */
+    @GetMapping("/tendencia")
+    public TendenciaDTO getTendencia(@PathVariable Long id,
+                                     @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate de,
+                                     @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate ate) {
+        return service.getTendencia(id, de, ate);
+    }
+}
@@ -1,9 +1,77 @@
 package me.dio.academia.digital.controller;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import me.dio.academia.digital.entity.dto.MatriculaDTO;
+import me.dio.academia.digital.entity.form.MatriculaForm;
+import me.dio.academia.digital.infra.query.QueryBudget;
+import me.dio.academia.digital.service.impl.MatriculaServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
+
+/**
+ * Controlador responsável pelas matrículas dos alunos.
+ */
 @RestController
 @RequestMapping("/matriculas")
 public class MatriculaController {
+
+    @Autowired
+    private MatriculaServiceImpl service;
+
+    /**
+     * Matricula um aluno.
+     *
+     * Requisições repetidas com o mesmo cabeçalho <code>Idempotency-Key</code> recebem a mesma
+     * resposta da primeira, sem criar outra matrícula. Um aluno inexistente é respondido com
+     * <code>404</code> e um aluno já matriculado, com <code>409</code>.
+     *
+     * @param chaveIdempotencia Chave que identifica as repetições da requisição (opcional).
+     * @param form Objeto contendo o id do aluno.
+     * @return A matrícula criada.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public MatriculaDTO create(@RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+                               @Valid @RequestBody MatriculaForm form) {
+        return service.create(form, chaveIdempotencia);
+    }
+
+    /**
+     * Recupera uma matrícula pelo ID informado.
+     *
+     * @param id ID da matrícula.
+     * @return A matrícula correspondente ao ID.
+     */
+    @GetMapping("/{id}")
+    @QueryBudget(1)
+    public MatriculaDTO get(@PathVariable Long id) {
+        return service.get(id);
+    }
+
+    /**
+     * Recupera a matrícula de um aluno.
+     *
+     * @param alunoId ID do aluno.
+     * @return A matrícula do aluno.
+     */
+    @GetMapping("/aluno/{alunoId}")
+    @QueryBudget(1)
+    public MatriculaDTO getByAluno(@PathVariable Long alunoId) {
+        return service.getByAluno(alunoId);
+    }
+
+    /**
+     * Cancela uma matrícula.
+     *
+     * @param id ID da matrícula.
+     * @param versao Versão da matrícula lida pelo cliente; se informada e a matrícula tiver sido
+     *               alterada desde então, a remoção é recusada.
+     */
+    @DeleteMapping("/{id}")
+    public void delete(@PathVariable Long id, @RequestParam(required = false) Long versao) {
+        service.delete(id, versao);
+    }
+
 }
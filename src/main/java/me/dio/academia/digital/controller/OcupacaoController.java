@@ -0,0 +1,58 @@
+package me.dio.academia.digital.controller;
+
+import me.dio.academia.digital.entity.dto.MapaDeCalorDTO;
+import me.dio.academia.digital.entity.dto.OcupacaoDTO;
+import me.dio.academia.digital.infra.query.QueryBudget;
+import me.dio.academia.digital.service.impl.OcupacaoServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador responsável pelos painéis de ocupação das unidades da academia.
+ */
+@RestController
+@RequestMapping("/ocupacao")
+public class OcupacaoController {
+
+    @Autowired
+    private OcupacaoServiceImpl service;
+
+    /**
+     * Retorna a quantidade de alunos presentes no total e em cada unidade.
+     *
+     * @return A ocupação atual.
+     */
+    @GetMapping
+    @QueryBudget(0)
+    public OcupacaoDTO getOcupacao() {
+        return service.getOcupacao();
+    }
+
+    /**
+     * Envia a ocupação por Server-Sent Events (evento <code>ocupacao</code>) sempre que ela mudar.
+     *
+     * @return O canal de eventos.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return service.inscrever();
+    }
+
+    /**
+     * Retorna o mapa de calor de uma unidade: o total de entradas por dia da semana e hora do dia.
+     *
+     * @param unidade Nome da unidade.
+     * @return O mapa de calor da unidade.
+     */
+    @GetMapping("/{unidade}/mapa")
+    @QueryBudget(0)
+    public MapaDeCalorDTO getMapa(@PathVariable String unidade) {
+        return service.getMapa(unidade);
+    }
+
+}
@@ -1,10 +1,11 @@
 package me.dio.academia.digital.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import me.dio.academia.digital.infra.utils.CpfUtils;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -23,11 +24,14 @@ import java.util.List;
  * Regras:
  * - O CPF deve ser único para cada aluno.
  * - Um aluno pode estar associado a várias avaliações físicas.
+ * - O índice <code>idx_alunos_nome_id</code> sustenta a listagem paginada por (nome, id).
+ * - O índice único <code>idx_alunos_cpf_numero</code> sustenta a busca por CPF.
  *
  * <p>Anotações:
- * - <code>@JsonIgnore</code>: evita a serialização do relacionamento de retornos desnecessários.
- * - <code>@JsonIgnoreProperties</code>: utilizado para ignorar problemas do Hibernate durante
- * operações de serialização.</p>
+ * - <code>@JsonIgnore</code>: evita a serialização do relacionamento de retornos desnecessários.</p>
+ *
+ * <p>A API não serializa esta entidade diretamente: as respostas utilizam
+ * {@link me.dio.academia.digital.entity.dto.AlunoDTO}.</p>
  *
  * @author Mirtilo Mileto Silva de Almeida
  * @since 1.0
@@ -37,18 +41,23 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tb_alunos")
-@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "tb_alunos", indexes = {
+        @Index(name = "idx_alunos_nome_id", columnList = "nome, id"),
+        @Index(name = "idx_alunos_cpf_numero", columnList = "cpf_numero", unique = true)
+})
 public class Aluno {
 
   /**
    * Identificador único do aluno.
    *
-   * <p>Este campo é gerado automaticamente pelo banco de dados utilizando a estratégia
-   * <code>GenerationType.IDENTITY</code>.</p>
+   * <p>Este campo é gerado a partir da sequência <code>tb_alunos_seq</code>, reservando blocos
+   * de 50 ids por consulta (otimizador <i>pooled</i>). Ao contrário de
+   * <code>GenerationType.IDENTITY</code>, isso permite que o Hibernate agrupe os inserts
+   * em lotes JDBC.</p>
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_alunos_seq")
+  @SequenceGenerator(name = "tb_alunos_seq", sequenceName = "tb_alunos_seq", allocationSize = 50)
   private Long id;
 
   /**
@@ -69,6 +78,15 @@ public class Aluno {
   @Column(unique = true)
   private String cpf;
 
+  /**
+   * CPF do aluno normalizado como número (apenas os 11 dígitos).
+   *
+   * <p>Preenchido automaticamente a partir de {@link #cpf} ao gravar o aluno. É a chave das buscas
+   * por CPF e impede que o mesmo CPF seja cadastrado com e sem pontuação.</p>
+   */
+  @Column(name = "cpf_numero")
+  private Long cpfNumero;
+
   /**
    * Bairro onde o aluno reside.
    * Este campo é opcional e não possui restrições na base de dados.
@@ -83,6 +101,17 @@ public class Aluno {
    */
   private LocalDate dataDeNascimento;
 
+  /**
+   * Versão do aluno, incrementada a cada alteração.
+   *
+   * <p>Identifica a representação do aluno no <code>ETag</code> das consultas e impede que uma
+   * alteração concorrente seja sobrescrita (controle de versão otimista).</p>
+   */
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long versao;
+
   /**
    * Lista de Avaliações Físicas associadas ao aluno.
    *
@@ -101,4 +130,10 @@ public class Aluno {
   @JsonIgnore
   private List<AvaliacaoFisica> avaliacoes = new ArrayList<>();
 
+  @PrePersist
+  @PreUpdate
+  private void normalizarCpf() {
+    cpfNumero = CpfUtils.paraNumero(cpf);
+  }
+
 }
@@ -3,6 +3,9 @@ package me.dio.academia.digital.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -15,8 +18,17 @@ import java.time.LocalDateTime;
  *
  * <p>Regras:
  * - Cada Avaliação Física está associada a um Aluno.
- * - As avaliações podem ser excluídas automaticamente ao excluir o aluno,
- * devido ao uso de <code>CascadeType.ALL</code>.</p>
+ * - As avaliações são excluídas pelo banco de dados junto com o aluno
+ * (<code>ON DELETE CASCADE</code>); a exclusão de uma avaliação nunca alcança o aluno.
+ * - As avaliações antigas são movidas para <code>tb_avaliacoes_arquivo</code>
+ * ({@link AvaliacaoFisicaArquivada}) pelo arquivamento.
+ * - As consultas por aluno e/ou período são atendidas pelos índices
+ * <code>idx_avaliacoes_aluno_data</code> e <code>idx_avaliacoes_data</code>. O primeiro contém
+ * também as colunas lidas pelas consultas por aluno, que são respondidas sem acessar a tabela
+ * (no PostgreSQL particionado, como colunas <code>include</code>).
+ * - No PostgreSQL, a tabela é particionada por mês de <code>data_da_avaliacao</code>, com chave
+ * primária <code>(id, data_da_avaliacao)</code>
+ * ({@link me.dio.academia.digital.infra.particionamento.ParticoesDeAvaliacoes}).</p>
  *
  * <p>Esta classe utiliza o framework JPA para persistência e Lombok para
  * geração de código boilerplate como getters, setters e construtores.</p>
@@ -28,16 +40,21 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tb_avaliacoes")
+@Table(name = "tb_avaliacoes", indexes = {
+        @Index(name = "idx_avaliacoes_aluno_data", columnList = "aluno_id, data_da_avaliacao, id, peso_atual, altura_atual, versao"),
+        @Index(name = "idx_avaliacoes_data", columnList = "data_da_avaliacao")
+})
 public class AvaliacaoFisica {
 
   /**
    * Identificador único da avaliação física.
-   * É gerado automaticamente pelo banco de dados através da estratégia
-   * <code>GenerationType.IDENTITY</code>.
+   * É gerado a partir da sequência <code>tb_avaliacoes_seq</code>, que reserva blocos de 50 ids
+   * por consulta e permite que o Hibernate agrupe os inserts em lotes JDBC. Em bancos criados por
+   * versões anteriores, a sequência deve ser posicionada após o maior id existente (ver README).
    */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_avaliacoes_seq")
+  @SequenceGenerator(name = "tb_avaliacoes_seq", sequenceName = "tb_avaliacoes_seq", allocationSize = 50)
   private Long id;
 
   /**
@@ -48,11 +65,15 @@ public class AvaliacaoFisica {
    * - A anotação <code>@JoinColumn</code> define o nome da coluna no banco
    * de dados como <code>aluno_id</code>.</p>
    *
-   * <p>O uso de <code>cascade = CascadeType.ALL</code> garante que, ao excluir
-   * um aluno, todas as avaliações físicas associadas sejam excluídas.</p>
+   * <p>Nenhuma operação é propagada para o aluno. A anotação <code>@OnDelete</code> cria a
+   * chave estrangeira com <code>ON DELETE CASCADE</code>, de modo que, ao excluir um aluno, o
+   * próprio banco de dados exclui as avaliações físicas associadas. A atualização do esquema não
+   * altera uma chave estrangeira existente; em um banco criado por versões anteriores, a cascata é
+   * aplicada pelo script <code>db/cascata-exclusao-alunos.sql</code>.</p>
    */
-  @ManyToOne(cascade = CascadeType.ALL)
+  @ManyToOne
   @JoinColumn(name = "aluno_id")
+  @OnDelete(action = OnDeleteAction.CASCADE)
   private Aluno aluno;
 
   /**
@@ -61,6 +82,7 @@ public class AvaliacaoFisica {
    * <p>Por padrão, o valor é inicializado com a data e hora corrente
    * ao criar a instância através de <code>LocalDateTime.now()</code>.</p>
    */
+  @Column(name = "data_da_avaliacao")
   private LocalDateTime dataDaAvaliacao = LocalDateTime.now();
 
   /**
@@ -81,4 +103,15 @@ public class AvaliacaoFisica {
   @Column(nullable = false, name = "altura_atual")
   private double altura;
 
+  /**
+   * Versão da avaliação, incrementada a cada alteração.
+   *
+   * <p>Compõe o <code>ETag</code> da lista de avaliações do aluno e impede que uma alteração
+   * concorrente seja sobrescrita (controle de versão otimista).</p>
+   */
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long versao;
+
 }
@@ -0,0 +1,53 @@
+package me.dio.academia.digital.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Avaliação Física retirada de <code>tb_avaliacoes</code> pelo arquivamento, por ter sido
+ * realizada há mais tempo do que o período de retenção.
+ *
+ * <p>Regras:
+ * - As linhas são movidas em blocos por
+ * {@link me.dio.academia.digital.service.impl.AvaliacaoFisicaArquivamentoServiceImpl}, diretamente
+ * com SQL; esta classe apenas define a tabela.
+ * - O id é o mesmo da avaliação original.
+ * - O aluno é referenciado somente pelo id, sem chave estrangeira: o arquivo não impede a exclusão
+ * do aluno nem é alterado por ela.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_avaliacoes_arquivo", indexes =
+        @Index(name = "idx_avaliacoes_arquivo_aluno_data", columnList = "aluno_id, data_da_avaliacao"))
+public class AvaliacaoFisicaArquivada {
+
+  @Id
+  private Long id;
+
+  @Column(name = "aluno_id")
+  private Long alunoId;
+
+  @Column(name = "data_da_avaliacao")
+  private LocalDateTime dataDaAvaliacao;
+
+  @Column(nullable = false, name = "peso_atual")
+  private double peso;
+
+  @Column(nullable = false, name = "altura_atual")
+  private double altura;
+
+  @Column(nullable = false)
+  private Long versao;
+
+  /**
+   * Momento em que a avaliação foi arquivada.
+   */
+  @Column(name = "arquivada_em", nullable = false)
+  private LocalDateTime arquivadaEm;
+}
@@ -0,0 +1,86 @@
+package me.dio.academia.digital.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Classe que representa a passagem de um aluno matriculado pela catraca da academia.
+ *
+ * <p>Os check-ins formam um registro somente de inclusão: cada entrada ou saída gera uma nova
+ * linha, que nunca é alterada. A presença atual de cada aluno é derivada do último evento da
+ * sua matrícula.</p>
+ *
+ * <p>Regras:
+ * - Cada check-in está associado a uma Matrícula, e é removido junto com ela.
+ * - As linhas são gravadas em lote por {@link me.dio.academia.digital.service.impl.GravadorDeCheckIns},
+ * diretamente com JDBC; esta classe define a tabela e o índice
+ * <code>idx_checkins_matricula_data</code>, usado nas consultas por matrícula.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_checkins", indexes = {
+        @Index(name = "idx_checkins_matricula_data", columnList = "matricula_id, data_hora"),
+        @Index(name = "idx_checkins_data", columnList = "data_hora")
+})
+public class CheckIn {
+
+  /**
+   * Unidade atribuída aos check-ins enviados sem unidade.
+   */
+  public static final String UNIDADE_PADRAO = "principal";
+
+  /**
+   * Identificador único do check-in, gerado pelo banco de dados.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * Matrícula do aluno que passou pela catraca.
+   */
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "matricula_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Matricula matricula;
+
+  /**
+   * Sentido da passagem.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private Tipo tipo;
+
+  /**
+   * Unidade da academia onde fica a catraca.
+   */
+  @ColumnDefault("'" + UNIDADE_PADRAO + "'")
+  @Column(nullable = false, length = 50)
+  private String unidade;
+
+  /**
+   * Identificação da catraca (entrada da academia) que registrou a passagem.
+   */
+  @Column(nullable = false, length = 50)
+  private String catraca;
+
+  /**
+   * Data e hora em que o check-in foi recebido.
+   */
+  @Column(name = "data_hora", nullable = false)
+  private LocalDateTime dataHora;
+
+  public enum Tipo {
+    ENTRADA,
+    SAIDA
+  }
+}
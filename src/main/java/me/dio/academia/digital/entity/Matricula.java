@@ -4,6 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -14,8 +18,9 @@ import java.time.LocalDateTime;
  * contendo informações sobre o aluno e a data em que a matícula foi criada.
  *
  * Regras:
- * - Cada aluno pode possur apenas uma matrícula.
+ * - Cada aluno pode possur apenas uma matrícula, garantido pela restrição única de <code>aluno_id</code>.
  * - A exclusão de um aluno resulta na exclusão automática da matrícula associada.
+ * - Alterações concorrentes são detectadas pelo controle de versão otimista (<code>versao</code>).
  *
  * Esta classe utiliza o framework JPA para persistência e Lombok para geração de código boilerplate
  * como getters, setters e construtores.
@@ -40,9 +45,14 @@ public class Matricula {
   private Long id;
 
   /**
-   * Relacionamento um-para-um entre Matrícula e ALuno com efeito cascata.
+   * Relacionamento um-para-um entre Matrícula e Aluno.
+   *
+   * <p>A restrição única garante que dois cadastros concorrentes não matriculem o mesmo aluno, e a
+   * chave estrangeira remove a matrícula quando o aluno é removido.</p>
    */
-  @OneToOne(cascade = CascadeType.ALL)
+  @OneToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "aluno_id", nullable = false, unique = true)
+  @OnDelete(action = OnDeleteAction.CASCADE)
   private Aluno aluno;
 
   /**
@@ -52,4 +62,15 @@ public class Matricula {
    * criação da instância através de <code>LocalDateTime.now()</code>.</p>
    */
   private LocalDateTime dataDaMatricula = LocalDateTime.now();
+
+  /**
+   * Versão da matrícula, incrementada a cada alteração.
+   *
+   * <p>Uma alteração ou remoção feita a partir de uma versão desatualizada é rejeitada, em vez de
+   * sobrescrever a alteração concorrente.</p>
+   */
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long versao;
 }
@@ -0,0 +1,46 @@
+package me.dio.academia.digital.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Total de entradas de uma unidade em um dia da semana e hora do dia, usado no mapa de calor de
+ * ocupação.
+ *
+ * <p>Os totais são contados em memória por
+ * {@link me.dio.academia.digital.service.impl.ContadoresDeOcupacao} e gravados periodicamente
+ * nesta tabela, de onde são recarregados na inicialização.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_ocupacao_horaria", uniqueConstraints =
+        @UniqueConstraint(name = "uk_ocupacao_horaria", columnNames = {"unidade", "dia_semana", "hora"}))
+public class OcupacaoHoraria {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 50)
+  private String unidade;
+
+  /**
+   * Dia da semana, de 1 (segunda-feira) a 7 (domingo), como em {@link java.time.DayOfWeek#getValue()}.
+   */
+  @Column(name = "dia_semana", nullable = false)
+  private int diaSemana;
+
+  /**
+   * Hora do dia, de 0 a 23.
+   */
+  @Column(nullable = false)
+  private int hora;
+
+  @Column(nullable = false)
+  private long entradas;
+}
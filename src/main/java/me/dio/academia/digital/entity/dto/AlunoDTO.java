@@ -0,0 +1,38 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.academia.digital.entity.Aluno;
+
+import java.time.LocalDate;
+
+/**
+ * Representação de um Aluno retornada pela API.
+ *
+ * <p>Nas consultas de leitura é montada diretamente pela consulta JPQL (<code>select new ...</code>),
+ * selecionando apenas as colunas do próprio aluno, sem proxies do Hibernate nem relacionamentos
+ * carregados sob demanda.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlunoDTO {
+
+  private Long id;
+
+  private String nome;
+
+  private String cpf;
+
+  private String bairro;
+
+  private LocalDate dataDeNascimento;
+
+  private Long versao;
+
+  public static AlunoDTO of(Aluno aluno) {
+    return new AlunoDTO(aluno.getId(), aluno.getNome(), aluno.getCpf(), aluno.getBairro(),
+            aluno.getDataDeNascimento(), aluno.getVersao());
+  }
+}
@@ -0,0 +1,43 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado do cadastro de um aluno dentro de um lote.
+ *
+ * Contém:
+ * - A posição do aluno no lote enviado (a partir de 1).
+ * - A situação do cadastro.
+ * - O id gerado, quando o aluno foi criado.
+ * - A mensagem de erro, quando o aluno foi rejeitado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlunoLoteItemResultado {
+
+  private int linha;
+
+  private Situacao situacao;
+
+  private Long id;
+
+  private String mensagem;
+
+  public static AlunoLoteItemResultado criado(int linha, Long id) {
+    return new AlunoLoteItemResultado(linha, Situacao.CRIADO, id, null);
+  }
+
+  public static AlunoLoteItemResultado rejeitado(int linha, Situacao situacao, String mensagem) {
+    return new AlunoLoteItemResultado(linha, situacao, null, mensagem);
+  }
+
+  public enum Situacao {
+    CRIADO,
+    INVALIDO,
+    CPF_DUPLICADO,
+    ERRO
+  }
+}
@@ -0,0 +1,31 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado do cadastro de alunos em lote, com o totalizador e a situação de cada linha.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlunoLoteResultado {
+
+  private int total;
+
+  private int criados;
+
+  private int rejeitados;
+
+  private List<AlunoLoteItemResultado> itens;
+
+  public static AlunoLoteResultado of(List<AlunoLoteItemResultado> itens) {
+    int criados = (int) itens.stream()
+            .filter(item -> item.getSituacao() == AlunoLoteItemResultado.Situacao.CRIADO)
+            .count();
+    return new AlunoLoteResultado(itens.size(), criados, itens.size() - criados, itens);
+  }
+}
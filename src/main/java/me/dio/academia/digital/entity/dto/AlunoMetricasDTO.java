@@ -0,0 +1,50 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Indicadores de composição corporal de um Aluno, derivados das suas Avaliações Físicas.
+ *
+ * Contém:
+ * - O IMC calculado a partir da avaliação mais recente (peso / altura², com altura em metros).
+ * - A variação de peso desde a primeira avaliação.
+ * - A tendência de peso, em kg por semana, pela regressão linear das avaliações dos últimos
+ *   30 e 90 dias (contados a partir da avaliação mais recente); nula com menos de duas avaliações
+ *   no período.
+ * - Os pesos mínimo e máximo registrados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlunoMetricasDTO {
+
+  private Long alunoId;
+
+  private int totalAvaliacoes;
+
+  private LocalDateTime ultimaAvaliacao;
+
+  private Double pesoAtual;
+
+  private Double alturaAtual;
+
+  private Double imcAtual;
+
+  private Double variacaoPeso;
+
+  private Double tendenciaPeso30Dias;
+
+  private Double tendenciaPeso90Dias;
+
+  private Double pesoMinimo;
+
+  private Double pesoMaximo;
+
+  public static AlunoMetricasDTO semAvaliacoes(Long alunoId) {
+    return new AlunoMetricasDTO(alunoId, 0, null, null, null, null, null, null, null, null, null);
+  }
+}
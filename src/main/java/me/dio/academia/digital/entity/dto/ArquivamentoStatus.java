@@ -0,0 +1,69 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progresso de um arquivamento de avaliações físicas.
+ *
+ * Os contadores são atualizados pela tarefa de arquivamento a cada bloco movido e podem ser
+ * consultados a qualquer momento. O tempo em pausa soma as esperas impostas para limitar a
+ * carga no banco de dados e o atraso da replicação.
+ */
+@Data
+@NoArgsConstructor
+public class ArquivamentoStatus {
+
+  private String id;
+
+  /**
+   * As avaliações realizadas antes deste momento são arquivadas.
+   */
+  private LocalDateTime corte;
+
+  private volatile Situacao situacao = Situacao.AGUARDANDO;
+
+  private final AtomicLong arquivadas = new AtomicLong();
+
+  private final AtomicLong blocos = new AtomicLong();
+
+  private final AtomicLong pausaMillis = new AtomicLong();
+
+  private volatile LocalDateTime iniciadoEm;
+
+  private volatile LocalDateTime finalizadoEm;
+
+  private volatile String mensagem;
+
+  private volatile boolean cancelamentoSolicitado;
+
+  public ArquivamentoStatus(String id, LocalDateTime corte) {
+    this.id = id;
+    this.corte = corte;
+  }
+
+  /**
+   * Quantidade média de avaliações arquivadas por segundo desde o início do arquivamento,
+   * incluindo as pausas.
+   */
+  public long getLinhasPorSegundo() {
+    if (iniciadoEm == null) {
+      return 0;
+    }
+    LocalDateTime fim = finalizadoEm == null ? LocalDateTime.now() : finalizadoEm;
+    long millis = Math.max(1, Duration.between(iniciadoEm, fim).toMillis());
+    return arquivadas.get() * 1000 / millis;
+  }
+
+  public enum Situacao {
+    AGUARDANDO,
+    EM_ANDAMENTO,
+    CONCLUIDO,
+    CANCELADO,
+    FALHOU
+  }
+}
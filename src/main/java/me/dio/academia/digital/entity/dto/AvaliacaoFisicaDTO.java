@@ -0,0 +1,39 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.academia.digital.entity.AvaliacaoFisica;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representação resumida de uma Avaliação Física, usada nas consultas de leitura.
+ *
+ * <p>Nas consultas de leitura é montada diretamente pela consulta JPQL (<code>select new ...</code>), selecionando apenas
+ * as colunas necessárias e referenciando o aluno somente pelo seu id, sem carregar a entidade
+ * {@link me.dio.academia.digital.entity.Aluno}.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvaliacaoFisicaDTO {
+
+  private Long id;
+
+  private Long alunoId;
+
+  private LocalDateTime dataDaAvaliacao;
+
+  private double peso;
+
+  private double altura;
+
+  private Long versao;
+
+  public static AvaliacaoFisicaDTO of(AvaliacaoFisica avaliacaoFisica) {
+    return new AvaliacaoFisicaDTO(avaliacaoFisica.getId(), avaliacaoFisica.getAluno().getId(),
+            avaliacaoFisica.getDataDaAvaliacao(), avaliacaoFisica.getPeso(), avaliacaoFisica.getAltura(),
+            avaliacaoFisica.getVersao());
+  }
+}
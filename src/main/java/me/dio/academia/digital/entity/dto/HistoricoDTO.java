@@ -0,0 +1,25 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Histórico de peso e altura de um Aluno em formato colunar.
+ *
+ * <p>As posições dos três arrays se correspondem: <code>instantes[i]</code> (epoch millis) é a
+ * data da avaliação em que foram medidos <code>pesos[i]</code> e <code>alturas[i]</code>.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoricoDTO {
+
+  private Long alunoId;
+
+  private long[] instantes;
+
+  private double[] pesos;
+
+  private double[] alturas;
+}
@@ -0,0 +1,66 @@
+package me.dio.academia.digital.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progresso de uma importação de avaliações físicas.
+ *
+ * Os contadores são atualizados pela tarefa de importação enquanto o arquivo é processado e
+ * podem ser consultados a qualquer momento. As linhas rejeitadas são gravadas no arquivo de
+ * erros, junto com o número da linha e o motivo.
+ */
+@Data
+@NoArgsConstructor
+public class ImportacaoStatus {
+
+  private String id;
+
+  private String arquivo;
+
+  private volatile Situacao situacao = Situacao.AGUARDANDO;
+
+  private final AtomicLong linhasLidas = new AtomicLong();
+
+  private final AtomicLong importadas = new AtomicLong();
+
+  private final AtomicLong rejeitadas = new AtomicLong();
+
+  private volatile LocalDateTime iniciadaEm;
+
+  private volatile LocalDateTime finalizadaEm;
+
+  private volatile String mensagem;
+
+  @JsonIgnore
+  private String arquivoDeErros;
+
+  public ImportacaoStatus(String id, String arquivo) {
+    this.id = id;
+    this.arquivo = arquivo;
+  }
+
+  /**
+   * Quantidade média de linhas processadas por segundo desde o início da importação.
+   */
+  public long getLinhasPorSegundo() {
+    if (iniciadaEm == null) {
+      return 0;
+    }
+    LocalDateTime fim = finalizadaEm == null ? LocalDateTime.now() : finalizadaEm;
+    long millis = Math.max(1, Duration.between(iniciadaEm, fim).toMillis());
+    return linhasLidas.get() * 1000 / millis;
+  }
+
+  public enum Situacao {
+    AGUARDANDO,
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHOU
+  }
+}
@@ -0,0 +1,21 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mapa de calor das entradas de uma unidade.
+ *
+ * <p><code>entradas[dia][hora]</code> é o total de entradas no dia da semana (de 0, segunda-feira,
+ * a 6, domingo) e na hora do dia (de 0 a 23).</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapaDeCalorDTO {
+
+  private String unidade;
+
+  private long[][] entradas;
+}
@@ -0,0 +1,34 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.academia.digital.entity.Matricula;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representação de uma Matrícula retornada pela API.
+ *
+ * <p>Nas consultas de leitura é montada diretamente pela consulta JPQL (<code>select new ...</code>),
+ * referenciando o aluno somente pelo seu id, sem carregar a entidade
+ * {@link me.dio.academia.digital.entity.Aluno}.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatriculaDTO {
+
+  private Long id;
+
+  private Long alunoId;
+
+  private LocalDateTime dataDaMatricula;
+
+  private Long versao;
+
+  public static MatriculaDTO of(Matricula matricula) {
+    return new MatriculaDTO(matricula.getId(), matricula.getAluno().getId(), matricula.getDataDaMatricula(),
+            matricula.getVersao());
+  }
+}
@@ -0,0 +1,23 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Ocupação atual da academia: a quantidade de alunos presentes no total e em cada unidade.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacaoDTO {
+
+  private LocalDateTime instante;
+
+  private long total;
+
+  private Map<String, Long> unidades;
+}
@@ -0,0 +1,24 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aluno presente na academia: a matrícula, a unidade e a catraca por onde entrou e o horário da entrada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresencaDTO {
+
+  private Long matriculaId;
+
+  private String unidade;
+
+  private String catraca;
+
+  private LocalDateTime entrada;
+}
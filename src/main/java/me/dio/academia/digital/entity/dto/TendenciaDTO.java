@@ -0,0 +1,27 @@
+package me.dio.academia.digital.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tendência do peso de um Aluno em um período.
+ *
+ * Contém a quantidade de avaliações do período, o peso médio, a variação entre a primeira e a
+ * última avaliação e a inclinação da regressão linear do peso, em kg por semana.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciaDTO {
+
+  private Long alunoId;
+
+  private int quantidade;
+
+  private Double pesoMedio;
+
+  private Double variacaoPeso;
+
+  private Double pesoPorSemana;
+}
@@ -0,0 +1,35 @@
+package me.dio.academia.digital.entity.form;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.academia.digital.entity.CheckIn;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInForm {
+
+  @NotNull(message = "Prencha o campo corretamente.")
+  @Positive
+  private Long matriculaId;
+
+  @NotNull(message = "Informe ENTRADA ou SAIDA.")
+  private CheckIn.Tipo tipo;
+
+  @NotBlank(message = "Prencha o campo corretamente.")
+  @Size(max = 50)
+  private String catraca;
+
+  /**
+   * Unidade da academia; quando omitida, {@link CheckIn#UNIDADE_PADRAO}.
+   */
+  @Size(max = 50)
+  private String unidade;
+
+}
@@ -1,5 +1,8 @@
 package me.dio.academia.digital.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /**
  * Exceção que indica que um determinado aluno não foi encontrado.
  *
@@ -10,6 +13,7 @@ package me.dio.academia.digital.exception;
  *
  * @throws AlunoNotFoundException quando o aluno solicitado não for encontrado
  */
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class AlunoNotFoundException extends RuntimeException {
     public AlunoNotFoundException(String message) {
         super(message);
@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando os termos de uma busca são curtos demais para serem atendidos.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BuscaInvalidaException extends RuntimeException {
+    public BuscaInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando uma chave de idempotência já usada é reenviada com outros dados.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class ChaveIdempotenciaInvalidaException extends RuntimeException {
+    public ChaveIdempotenciaInvalidaException(String message) {
+        super(message);
+    }
+}
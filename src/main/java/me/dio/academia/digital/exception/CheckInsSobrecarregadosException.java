@@ -0,0 +1,16 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de check-ins continua cheia após o tempo máximo de espera,
+ * porque o banco de dados não está absorvendo as gravações. O check-in não é registrado e deve
+ * ser reenviado pela catraca.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CheckInsSobrecarregadosException extends RuntimeException {
+    public CheckInsSobrecarregadosException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o CPF informado em uma busca não tem 11 dígitos.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CpfInvalidoException extends RuntimeException {
+    public CpfInvalidoException(String message) {
+        super(message);
+    }
+}
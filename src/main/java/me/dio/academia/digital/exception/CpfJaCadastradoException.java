@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada ao tentar cadastrar um aluno com um CPF que já pertence a outro aluno.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CpfJaCadastradoException extends RuntimeException {
+    public CpfJaCadastradoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada ao tentar matricular um aluno que já possui uma matrícula.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class MatriculaExistenteException extends RuntimeException {
+    public MatriculaExistenteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package me.dio.academia.digital.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a matrícula informada não é encontrada.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class MatriculaNotFoundException extends RuntimeException {
+    public MatriculaNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package me.dio.academia.digital.infra.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita o cache em memória da camada de serviço.
+ *
+ * Os caches são providos pelo Caffeine e configurados em <code>spring.cache</code> no
+ * <code>application.yml</code> (tamanho máximo, expiração e coleta de estatísticas, expostas
+ * pelo actuator em <code>/actuator/metrics/cache.gets</code>).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String ALUNOS = "alunos";
+
+}
@@ -0,0 +1,51 @@
+package me.dio.academia.digital.infra.csv;
+
+import me.dio.academia.digital.entity.form.AlunoForm;
+import me.dio.academia.digital.infra.utils.JavaTimeUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte um CSV de alunos em formulários de cadastro.
+ *
+ * Colunas esperadas, nesta ordem: <code>nome, cpf, bairro, dataDeNascimento</code>, com a data
+ * no formato <code>dd/MM/yyyy</code>. A linha de cabeçalho é opcional e linhas em branco são
+ * ignoradas. Campos ausentes ou inválidos ficam nulos e são apontados pela validação do
+ * {@link AlunoForm}.
+ */
+public class AlunoCsvReader {
+
+	private AlunoCsvReader() {}
+
+	public static List<AlunoForm> ler(String conteudo) {
+		List<AlunoForm> forms = new ArrayList<>();
+		String[] linhas = conteudo.split("\\r?\\n");
+		for (int i = 0; i < linhas.length; i++) {
+			String linha = linhas[i];
+			if (linha.isBlank() || (i == 0 && CsvUtils.isCabecalho(linha, "nome"))) {
+				continue;
+			}
+			String[] campos = CsvUtils.separar(linha);
+			forms.add(new AlunoForm(
+					CsvUtils.campo(campos, 0),
+					CsvUtils.campo(campos, 1),
+					CsvUtils.campo(campos, 2),
+					data(CsvUtils.campo(campos, 3))));
+		}
+		return forms;
+	}
+
+	private static LocalDate data(String valor) {
+		if (valor == null) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(valor, JavaTimeUtils.LOCAL_DATE_FORMATTER);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+}
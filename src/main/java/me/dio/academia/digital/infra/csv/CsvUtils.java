@@ -0,0 +1,60 @@
+package me.dio.academia.digital.infra.csv;
+
+import java.util.regex.Pattern;
+
+/**
+ * Utilitários para leitura de arquivos CSV simples, sem campos entre aspas.
+ *
+ * O separador de cada linha é detectado automaticamente: <code>;</code> quando presente,
+ * caso contrário <code>,</code>.
+ *
+ * Na escrita, o separador é sempre <code>;</code>, e os campos que contêm o separador, aspas ou
+ * quebras de linha são escritos entre aspas, como no RFC 4180.
+ */
+public class CsvUtils {
+
+	private CsvUtils() {}
+
+	private static final Pattern PONTO_E_VIRGULA = Pattern.compile(";");
+	private static final Pattern VIRGULA = Pattern.compile(",");
+	private static final Pattern ESPECIAIS = Pattern.compile("[;\"\r\n]");
+
+	public static String[] separar(String linha) {
+		String[] campos = (linha.indexOf(';') >= 0 ? PONTO_E_VIRGULA : VIRGULA).split(linha, -1);
+		for (int i = 0; i < campos.length; i++) {
+			campos[i] = campos[i].trim();
+		}
+		return campos;
+	}
+
+	public static String campo(String[] campos, int indice) {
+		if (indice >= campos.length || campos[indice].isEmpty()) {
+			return null;
+		}
+		return campos[indice];
+	}
+
+	/**
+	 * Junta os campos em uma linha separada por <code>;</code>, escrevendo entre aspas os campos que
+	 * contêm o separador, aspas ou quebras de linha (com as aspas internas duplicadas).
+	 */
+	public static String linha(String... campos) {
+		StringBuilder linha = new StringBuilder();
+		for (int i = 0; i < campos.length; i++) {
+			if (i > 0) {
+				linha.append(';');
+			}
+			String campo = campos[i] == null ? "" : campos[i];
+			if (ESPECIAIS.matcher(campo).find()) {
+				linha.append('"').append(campo.replace("\"", "\"\"")).append('"');
+			} else {
+				linha.append(campo);
+			}
+		}
+		return linha.toString();
+	}
+
+	public static boolean isCabecalho(String linha, String primeiraColuna) {
+		return linha.trim().toLowerCase().startsWith(primeiraColuna.toLowerCase());
+	}
+}
@@ -0,0 +1,95 @@
+package me.dio.academia.digital.infra.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitor de linhas de arquivos UTF-8 baseado em {@link FileChannel}.
+ *
+ * O arquivo é lido em blocos de tamanho fixo e as linhas são devolvidas em lotes, de modo que
+ * apenas o lote corrente fica em memória, independentemente do tamanho do arquivo.
+ */
+public class NioLineReader implements Closeable {
+
+	private static final int TAMANHO_BUFFER = 1 << 20;
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+
+	private byte[] linha = new byte[256];
+
+	private int tamanhoLinha;
+
+	private boolean fimDoArquivo;
+
+	public NioLineReader(Path arquivo) throws IOException {
+		this.channel = FileChannel.open(arquivo, StandardOpenOption.READ);
+		this.buffer.flip();
+	}
+
+	/**
+	 * Lê as próximas linhas do arquivo, sem os terminadores de linha.
+	 *
+	 * @param quantidade Quantidade máxima de linhas a serem lidas.
+	 * @return As linhas lidas; uma lista vazia indica o fim do arquivo.
+	 */
+	public List<String> lerLinhas(int quantidade) throws IOException {
+		List<String> linhas = new ArrayList<>(quantidade);
+		while (linhas.size() < quantidade && !fimDoArquivo) {
+			if (!buffer.hasRemaining() && !preencherBuffer()) {
+				fimDoArquivo = true;
+				if (tamanhoLinha > 0) {
+					linhas.add(decodificarLinha());
+				}
+				break;
+			}
+			byte[] bytes = buffer.array();
+			int posicao = buffer.position();
+			int limite = buffer.limit();
+			while (posicao < limite && linhas.size() < quantidade) {
+				byte b = bytes[posicao++];
+				if (b == '\n') {
+					linhas.add(decodificarLinha());
+				} else {
+					acrescentar(b);
+				}
+			}
+			buffer.position(posicao);
+		}
+		return linhas;
+	}
+
+	private boolean preencherBuffer() throws IOException {
+		buffer.clear();
+		int lidos = channel.read(buffer);
+		buffer.flip();
+		return lidos > 0;
+	}
+
+	private void acrescentar(byte b) {
+		if (tamanhoLinha == linha.length) {
+			linha = Arrays.copyOf(linha, linha.length * 2);
+		}
+		linha[tamanhoLinha++] = b;
+	}
+
+	private String decodificarLinha() {
+		int tamanho = tamanhoLinha > 0 && linha[tamanhoLinha - 1] == '\r' ? tamanhoLinha - 1 : tamanhoLinha;
+		tamanhoLinha = 0;
+		return new String(linha, 0, tamanho, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,49 @@
+package me.dio.academia.digital.infra.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Fixa no banco de dados primário as leituras executadas pela thread atual, mesmo em transações
+ * somente leitura que seriam encaminhadas a uma réplica pelo {@link RoteadorDeLeituras}.
+ *
+ * Deve envolver as leituras que precisam enxergar uma gravação recém-confirmada (do próprio chamador
+ * ou de outra requisição), e as que alimentam estado mantido em memória, como caches, que de outro
+ * modo guardariam por mais tempo o atraso da réplica. Precisa envolver a transação inteira, pois a
+ * conexão é escolhida no primeiro comando e mantida até o fim da transação:
+ * <pre>
+ * AlunoDTO aluno = LeituraNoPrimario.executar(() -&gt; repository.findDTOById(id));
+ * </pre>
+ * Sem réplicas configuradas, não tem efeito.
+ */
+public final class LeituraNoPrimario {
+
+	private static final ThreadLocal<Boolean> ATIVA = new ThreadLocal<>();
+
+	private LeituraNoPrimario() {}
+
+	public static <T> T executar(Supplier<T> leitura) {
+		if (isAtiva()) {
+			return leitura.get();
+		}
+		ATIVA.set(Boolean.TRUE);
+		try {
+			return leitura.get();
+		} finally {
+			ATIVA.remove();
+		}
+	}
+
+	public static void executar(Runnable leitura) {
+		executar(() -> {
+			leitura.run();
+			return null;
+		});
+	}
+
+	/**
+	 * @return true se as leituras da thread atual estão fixadas no primário.
+	 */
+	public static boolean isAtiva() {
+		return ATIVA.get() != null;
+	}
+}
@@ -0,0 +1,75 @@
+package me.dio.academia.digital.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Com <code>academia.replicas.habilitado=true</code>, substitui o DataSource do Spring Boot por um
+ * {@link RoteadorDeLeituras}: o primário continua configurado em <code>spring.datasource</code> e as
+ * réplicas são listadas em <code>academia.replicas.urls</code>, com o mesmo usuário e senha.
+ *
+ * Todos os pools recebem as configurações de <code>spring.datasource.hikari</code>; os das réplicas
+ * desistem de obter uma conexão após <code>academia.replicas.tempo-maximo-conexao</code>, para que
+ * uma réplica fora do ar não atrase as leituras antes de ser retirada de uso. Os pools se chamam
+ * <code>primario</code>, <code>replica-1</code>, <code>replica-2</code> etc.
+ *
+ * Apenas o DataSource exposto é um bean, para que o DataSourceProxyPostProcessor conte cada comando
+ * uma única vez, qualquer que seja o pool que o executou.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "academia.replicas", name = "habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+	@Value("${academia.replicas.urls}")
+	private List<String> urls;
+
+	@Value("${academia.replicas.atraso-maximo:5s}")
+	private Duration atrasoMaximo;
+
+	@Value("${academia.replicas.intervalo-verificacao:1s}")
+	private Duration intervaloVerificacao;
+
+	@Value("${academia.replicas.tempo-maximo-conexao:1s}")
+	private Duration tempoMaximoConexao;
+
+	@Value("${academia.replicas.consulta-atraso}")
+	private String consultaAtraso;
+
+	@Bean(initMethod = "iniciar", destroyMethod = "close")
+	public ReplicasDeLeitura replicasDeLeitura(DataSourceProperties properties, Environment environment) {
+		HikariDataSource primario = pool(properties, environment, "primario");
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (String url : urls) {
+			HikariDataSource replica = pool(properties, environment, "replica-" + (replicas.size() + 1));
+			replica.setJdbcUrl(url.trim());
+			replica.setConnectionTimeout(tempoMaximoConexao.toMillis());
+			replicas.add(replica);
+		}
+		return new ReplicasDeLeitura(primario, replicas, consultaAtraso, atrasoMaximo, intervaloVerificacao);
+	}
+
+	@Bean
+	public DataSource dataSource(ReplicasDeLeitura replicasDeLeitura) {
+		return new LazyConnectionDataSourceProxy(new RoteadorDeLeituras(replicasDeLeitura));
+	}
+
+	private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String nome) {
+		HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+		pool.setPoolName(nome);
+		return pool;
+	}
+}
@@ -0,0 +1,173 @@
+package me.dio.academia.digital.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pools de conexões do banco de dados primário e das réplicas de leitura, com a disponibilidade de
+ * cada réplica.
+ *
+ * A cada <code>intervaloVerificacao</code>, uma thread de segundo plano executa a
+ * <code>consultaAtraso</code> em cada réplica, que deve retornar o atraso da replicação em segundos.
+ * Uma réplica só recebe leituras enquanto essa consulta responde e o atraso não passa de
+ * <code>atrasoMaximo</code>; até a primeira verificação, e sempre que nenhuma réplica estiver
+ * disponível, as leituras vão para o primário. Uma réplica que recusa uma conexão é retirada de uso
+ * imediatamente e volta na verificação seguinte em que responder dentro do atraso permitido.
+ *
+ * Como os pools não são beans, as métricas <code>hikaricp.connections.*</code> são registradas por
+ * eles mesmos, identificadas pelo nome de cada pool na tag <code>pool</code>. O atraso de cada
+ * réplica é publicado no gauge <code>academia.replicas.atraso</code> (tag <code>replica</code>, NaN
+ * quando ela não responde).
+ */
+public class ReplicasDeLeitura implements MeterBinder, Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicasDeLeitura.class);
+
+	private final HikariDataSource primario;
+
+	private final List<Replica> replicas;
+
+	private final String consultaAtraso;
+
+	private final Duration atrasoMaximo;
+
+	private final Duration intervaloVerificacao;
+
+	private final AtomicInteger proxima = new AtomicInteger();
+
+	private ScheduledExecutorService agendador;
+
+	public ReplicasDeLeitura(HikariDataSource primario, List<HikariDataSource> replicas, String consultaAtraso,
+							 Duration atrasoMaximo, Duration intervaloVerificacao) {
+		this.primario = primario;
+		this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+		this.consultaAtraso = consultaAtraso;
+		this.atrasoMaximo = atrasoMaximo;
+		this.intervaloVerificacao = intervaloVerificacao;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		primario.setMetricRegistry(registry);
+		for (Replica replica : replicas) {
+			replica.dataSource.setMetricRegistry(registry);
+			Gauge.builder("academia.replicas.atraso", replica, r -> r.atrasoSegundos)
+					.tag("replica", replica.getNome())
+					.baseUnit("seconds")
+					.register(registry);
+		}
+	}
+
+	/**
+	 * Inicia a verificação periódica das réplicas; a primeira é feita imediatamente.
+	 */
+	public void iniciar() {
+		agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "replicas-leitura");
+			thread.setDaemon(true);
+			return thread;
+		});
+		agendador.scheduleWithFixedDelay(this::verificar, 0, intervaloVerificacao.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void close() {
+		if (agendador != null) {
+			agendador.shutdownNow();
+		}
+		replicas.forEach(replica -> replica.dataSource.close());
+		primario.close();
+	}
+
+	public HikariDataSource getPrimario() {
+		return primario;
+	}
+
+	/**
+	 * Escolhe, em rodízio, uma das réplicas disponíveis.
+	 *
+	 * @return A réplica escolhida, ou null se nenhuma estiver disponível.
+	 */
+	Replica escolher() {
+		int quantidade = replicas.size();
+		int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(quantidade, 1));
+		for (int i = 0; i < quantidade; i++) {
+			Replica replica = replicas.get((inicio + i) % quantidade);
+			if (replica.disponivel) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Retira de uso uma réplica que recusou uma conexão, até a próxima verificação bem-sucedida.
+	 */
+	void indisponivel(Replica replica, SQLException e) {
+		if (replica.disponivel) {
+			replica.disponivel = false;
+			log.warn("Réplica {} indisponível; leituras encaminhadas ao primário: {}", replica.getNome(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Atualiza o atraso e a disponibilidade de todas as réplicas.
+	 */
+	void verificar() {
+		for (Replica replica : replicas) {
+			double atraso;
+			try (Connection con = replica.dataSource.getConnection();
+				 Statement st = con.createStatement();
+				 ResultSet rs = st.executeQuery(consultaAtraso)) {
+				atraso = rs.next() ? rs.getDouble(1) : Double.NaN;
+			} catch (SQLException e) {
+				log.debug("Falha ao verificar a réplica {}", replica.getNome(), e);
+				atraso = Double.NaN;
+			}
+			boolean disponivel = !Double.isNaN(atraso) && atraso * 1000 <= atrasoMaximo.toMillis();
+			if (disponivel != replica.disponivel) {
+				log.info("Réplica {} {} (atraso de {} s)", replica.getNome(), disponivel ? "disponível" : "indisponível", atraso);
+			}
+			replica.atrasoSegundos = atraso;
+			replica.disponivel = disponivel;
+		}
+	}
+
+	static class Replica {
+
+		private final HikariDataSource dataSource;
+
+		private volatile boolean disponivel;
+
+		private volatile double atrasoSegundos = Double.NaN;
+
+		Replica(HikariDataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		HikariDataSource getDataSource() {
+			return dataSource;
+		}
+
+		String getNome() {
+			return dataSource.getPoolName();
+		}
+	}
+}
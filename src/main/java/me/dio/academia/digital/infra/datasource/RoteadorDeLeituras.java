@@ -0,0 +1,79 @@
+package me.dio.academia.digital.infra.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource que encaminha as transações somente leitura (<code>@Transactional(readOnly = true)</code>,
+ * inclusive as abertas pelos repositórios do Spring Data) a uma das {@link ReplicasDeLeitura}, e as
+ * demais ao primário.
+ *
+ * O gerenciador de transações obtém a conexão antes de marcar a transação como somente leitura; por
+ * isso, este DataSource deve ser usado através de um {@link LazyConnectionDataSourceProxy}, que só
+ * obtém a conexão no primeiro comando. As leituras envolvidas por {@link LeituraNoPrimario}, as
+ * executadas sem réplica disponível e as que não conseguem conexão com a réplica escolhida vão para
+ * o primário.
+ */
+public class RoteadorDeLeituras extends AbstractDataSource {
+
+	// Recurso associado à transação atual quando a conexão foi obtida de uma réplica
+	private static final Object LEITURA_EM_REPLICA = new Object();
+
+	private final ReplicasDeLeitura replicas;
+
+	public RoteadorDeLeituras(ReplicasDeLeitura replicas) {
+		this.replicas = replicas;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !LeituraNoPrimario.isAtiva()) {
+			ReplicasDeLeitura.Replica replica = replicas.escolher();
+			if (replica != null) {
+				try {
+					Connection con = replica.getDataSource().getConnection();
+					marcarLeituraEmReplica();
+					return con;
+				} catch (SQLException e) {
+					replicas.indisponivel(replica, e);
+				}
+			}
+		}
+		return replicas.getPrimario().getConnection();
+	}
+
+	/**
+	 * Conexões com credenciais explícitas são sempre obtidas do primário.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return replicas.getPrimario().getConnection(username, password);
+	}
+
+	/**
+	 * Indica se a transação atual lê de uma réplica, e portanto pode não enxergar as gravações mais
+	 * recentes. Permite não guardar em memória dados que podem estar desatualizados.
+	 */
+	public static boolean isLeituraEmReplica() {
+		return TransactionSynchronizationManager.hasResource(LEITURA_EM_REPLICA);
+	}
+
+	private static void marcarLeituraEmReplica() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()
+				|| TransactionSynchronizationManager.hasResource(LEITURA_EM_REPLICA)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(LEITURA_EM_REPLICA, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(LEITURA_EM_REPLICA);
+			}
+		});
+	}
+}
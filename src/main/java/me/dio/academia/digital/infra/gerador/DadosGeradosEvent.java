@@ -0,0 +1,17 @@
+package me.dio.academia.digital.infra.gerador;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado pelo {@link GeradorDeDados} ao terminar a geração da massa de dados.
+ *
+ * Como o gerador grava diretamente no banco de dados, sem passar pela camada de serviço, os
+ * componentes que mantêm dados em memória devem escutá-lo para recarregá-los.
+ */
+@Getter
+@AllArgsConstructor
+public class DadosGeradosEvent {
+
+	private final GeradorDeDados.Resultado resultado;
+}
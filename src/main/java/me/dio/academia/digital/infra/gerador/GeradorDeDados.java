@@ -0,0 +1,312 @@
+package me.dio.academia.digital.infra.gerador;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dio.academia.digital.infra.particionamento.ParticoesDeAvaliacoes;
+import me.dio.academia.digital.infra.utils.CpfUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de massa de dados sintética para benchmarks e planejamento de capacidade.
+ *
+ * Preenche <code>tb_alunos</code>, <code>tb_avaliacoes</code> e <code>tb_matriculas</code> com
+ * alunos de CPF válido, bairros com distribuição concentrada (poucos bairros com muitos alunos) e
+ * uma série de avaliações por aluno com altura estável e peso variando ao longo do tempo.
+ *
+ * Os dados de cada aluno são sorteados a partir da semente e do índice do aluno, e os ids são
+ * derivados do índice; assim, a mesma semente produz exatamente os mesmos registros,
+ * independentemente da quantidade de threads. Os alunos são divididos em partições gravadas em
+ * paralelo, cada uma em sua transação, com inserts agrupados em lotes JDBC.
+ */
+@Component
+public class GeradorDeDados {
+
+	private static final Logger log = LoggerFactory.getLogger(GeradorDeDados.class);
+
+	public static final long MAX_ALUNOS = 100_000_000L;
+
+	private static final int TAMANHO_PARTICAO = 5_000;
+
+	private static final int TAMANHO_LOTE = 1_000;
+
+	// Mesmo incremento das sequências declaradas em Aluno e AvaliacaoFisica
+	private static final int INCREMENTO_SEQUENCIA = 50;
+
+	// Data de referência fixa, para que a geração não dependa do dia em que é executada
+	private static final LocalDate DATA_REFERENCIA = LocalDate.of(2024, 1, 1);
+
+	// Embaralhamento dos CPFs: (índice * MULTIPLICADOR + DESLOCAMENTO) mod 10^9 é uma bijeção,
+	// pois o multiplicador (3^18) é primo com 10^9
+	private static final long BASES_DE_CPF = 1_000_000_000L;
+	private static final long MULTIPLICADOR = 387_420_489L;
+	private static final long DESLOCAMENTO = 123_456_789L;
+
+	private static final String[] NOMES = {
+			"Ana", "Maria", "Juliana", "Fernanda", "Camila", "Beatriz", "Larissa", "Patrícia", "Aline", "Gabriela",
+			"Mariana", "Amanda", "Letícia", "Bruna", "Carolina", "Vanessa", "Raquel", "Luana", "Sofia", "Helena",
+			"João", "José", "Pedro", "Lucas", "Gabriel", "Mateus", "Rafael", "Gustavo", "Felipe", "Bruno",
+			"Rodrigo", "Thiago", "Carlos", "Eduardo", "Marcelo", "André", "Daniel", "Leonardo", "Vinícius", "Miguel"
+	};
+
+	private static final String[] SOBRENOMES = {
+			"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+			"Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+			"Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas"
+	};
+
+	// Em ordem de popularidade; o peso do bairro de posição k é proporcional a 1 / k^1.1 (Zipf)
+	private static final String[] BAIRROS = {
+			"Centro", "Copacabana", "Boa Viagem", "Savassi", "Moema", "Pinheiros", "Tijuca", "Aldeota",
+			"Barra da Tijuca", "Vila Mariana", "Pituba", "Meireles", "Botafogo", "Itaim Bibi", "Funcionários",
+			"Perdizes", "Lourdes", "Jardins", "Santana", "Ipanema", "Leblon", "Mooca", "Tatuapé", "Flamengo",
+			"Laranjeiras", "Graças", "Casa Forte", "Batel", "Água Verde", "Bigorrilho", "Moinhos de Vento",
+			"Petrópolis", "Menino Deus", "Cidade Baixa", "Trindade", "Lagoa", "Jardim Botânico", "Grajaú",
+			"Méier", "Vila Isabel"
+	};
+
+	private static final double[] BAIRROS_ACUMULADO = new double[BAIRROS.length];
+
+	static {
+		double soma = 0;
+		for (int i = 0; i < BAIRROS.length; i++) {
+			soma += 1 / Math.pow(i + 1, 1.1);
+			BAIRROS_ACUMULADO[i] = soma;
+		}
+		for (int i = 0; i < BAIRROS.length; i++) {
+			BAIRROS_ACUMULADO[i] /= soma;
+		}
+	}
+
+	private static final String INSERT_ALUNO =
+			"insert into tb_alunos (id, nome, cpf, cpf_numero, bairro, data_de_nascimento) values (?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_AVALIACAO =
+			"insert into tb_avaliacoes (id, aluno_id, data_da_avaliacao, peso_atual, altura_atual) values (?, ?, ?, ?, ?)";
+
+	private static final String INSERT_MATRICULA =
+			"insert into tb_matriculas (aluno_id, data_da_matricula) values (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private ParticoesDeAvaliacoes particoesDeAvaliacoes;
+
+	/**
+	 * Gera a massa de dados nas tabelas, que devem estar vazias.
+	 *
+	 * @param alunos - quantidade de alunos, com ids de 1 a <code>alunos</code>.
+	 * @param avaliacoesPorAluno - quantidade média de avaliações físicas por aluno.
+	 * @param proporcaoMatriculas - proporção de alunos matriculados, entre 0 e 1.
+	 * @param semente - semente dos sorteios; a mesma semente gera os mesmos dados.
+	 * @param threads - quantidade de partições gravadas em paralelo.
+	 * @return - a quantidade de registros gerados em cada tabela.
+	 */
+	public Resultado gerar(long alunos, int avaliacoesPorAluno, double proporcaoMatriculas, long semente, int threads) {
+		if (alunos < 0 || alunos > MAX_ALUNOS) {
+			throw new IllegalArgumentException("A quantidade de alunos deve estar entre 0 e " + MAX_ALUNOS + ".");
+		}
+		Long existentes = jdbcTemplate.queryForObject("select count(*) from tb_alunos", Long.class);
+		if (existentes != null && existentes > 0) {
+			throw new IllegalStateException("A tabela tb_alunos já contém " + existentes + " alunos; o gerador exige tabelas vazias.");
+		}
+
+		long inicio = System.currentTimeMillis();
+		int maximoAvaliacoes = Math.max(1, 2 * avaliacoesPorAluno - 1);
+		AtomicLong avaliacoes = new AtomicLong();
+		AtomicLong matriculas = new AtomicLong();
+		AtomicLong gravados = new AtomicLong();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> particoes = new ArrayList<>();
+			for (long primeiro = 0; primeiro < alunos; primeiro += TAMANHO_PARTICAO) {
+				long de = primeiro;
+				long ate = Math.min(primeiro + TAMANHO_PARTICAO, alunos);
+				particoes.add(executor.submit(() -> {
+					Particao particao = gerarParticao(de, ate, avaliacoesPorAluno, maximoAvaliacoes, proporcaoMatriculas, semente);
+					particao.garantirParticoes(particoesDeAvaliacoes);
+					transactionTemplate.executeWithoutResult(status -> particao.gravar(jdbcTemplate));
+					avaliacoes.addAndGet(particao.avaliacoes.size());
+					matriculas.addAndGet(particao.matriculas.size());
+					long total = gravados.addAndGet(ate - de);
+					if ((total / TAMANHO_PARTICAO) % 100 == 0 || total == alunos) {
+						log.info("Gerador: {} de {} alunos gravados", total, alunos);
+					}
+				}));
+			}
+			for (Future<?> particao : particoes) {
+				particao.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Geração interrompida.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Falha na geração dos dados.", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		reiniciarSequencia("tb_alunos_seq", alunos);
+		reiniciarSequencia("tb_avaliacoes_seq", alunos * maximoAvaliacoes);
+		Resultado resultado = new Resultado(alunos, avaliacoes.get(), matriculas.get(), System.currentTimeMillis() - inicio);
+		eventPublisher.publishEvent(new DadosGeradosEvent(resultado));
+		return resultado;
+	}
+
+	/**
+	 * Retorna o CPF gerado para o aluno de índice informado. Índices a partir da quantidade de
+	 * alunos gerados podem ser usados para cadastrar novos alunos sem repetir CPFs.
+	 */
+	public static String cpf(long indice) {
+		long base = Math.floorMod(indice * MULTIPLICADOR + DESLOCAMENTO, BASES_DE_CPF);
+		if (base % 111_111_111L == 0) {
+			// CPFs com todos os dígitos iguais são rejeitados pela validação; usa uma base de um
+			// índice acima de MAX_ALUNOS, que nunca é gerado
+			base = Math.floorMod((BASES_DE_CPF - 1 - base / 111_111_111L) * MULTIPLICADOR + DESLOCAMENTO, BASES_DE_CPF);
+		}
+		return CpfUtils.comDigitosVerificadores(base);
+	}
+
+	private Particao gerarParticao(long de, long ate, int avaliacoesPorAluno, int maximoAvaliacoes,
+								   double proporcaoMatriculas, long semente) {
+		Particao particao = new Particao();
+		for (long indice = de; indice < ate; indice++) {
+			SplittableRandom random = new SplittableRandom(semente ^ (indice * 0x9E3779B97F4A7C15L));
+			long alunoId = indice + 1;
+
+			String nome = NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]
+					+ " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+			int idade = 16 + (int) (Math.pow(random.nextDouble(), 1.6) * 54);
+			LocalDate nascimento = DATA_REFERENCIA.minusYears(idade).minusDays(random.nextInt(365));
+			particao.alunos.add(new Object[]{alunoId, nome, cpf(indice), bairro(random), nascimento});
+
+			int quantidade = avaliacoesPorAluno == 0 ? 0 : 1 + random.nextInt(maximoAvaliacoes);
+			double altura = limitar(gaussiana(random, 170, 9), 145, 205);
+			double peso = limitar(gaussiana(random, 26, 4), 17, 42) * Math.pow(altura / 100, 2);
+			double tendenciaPorMes = gaussiana(random, -0.25, 0.6);
+			LocalDateTime data = DATA_REFERENCIA.minusDays(quantidade * 32L + random.nextInt(365))
+					.atTime(6 + random.nextInt(16), random.nextInt(60));
+			LocalDateTime primeiraAvaliacao = data;
+			for (int k = 0; k < quantidade; k++) {
+				double pesoAtual = limitar(peso + tendenciaPorMes * k + gaussiana(random, 0, 0.7), 35, 250);
+				double alturaAtual = altura + gaussiana(random, 0, 0.3);
+				particao.avaliacoes.add(new Object[]{indice * maximoAvaliacoes + k + 1, alunoId, data,
+						arredondar(pesoAtual), arredondar(alturaAtual)});
+				data = data.plusDays(20 + random.nextInt(26));
+			}
+
+			if (random.nextDouble() < proporcaoMatriculas) {
+				particao.matriculas.add(new Object[]{alunoId, primeiraAvaliacao.minusDays(random.nextInt(90))});
+			}
+		}
+		return particao;
+	}
+
+	private void reiniciarSequencia(String sequencia, long maiorId) {
+		// Com o otimizador "pooled" do Hibernate, o valor lido da sequência é o maior id do bloco
+		jdbcTemplate.execute("alter sequence " + sequencia + " restart with " + (maiorId + INCREMENTO_SEQUENCIA + 1));
+	}
+
+	private static String bairro(SplittableRandom random) {
+		double sorteio = random.nextDouble();
+		for (int i = 0; i < BAIRROS_ACUMULADO.length; i++) {
+			if (sorteio < BAIRROS_ACUMULADO[i]) {
+				return BAIRROS[i];
+			}
+		}
+		return BAIRROS[BAIRROS.length - 1];
+	}
+
+	private static double gaussiana(SplittableRandom random, double media, double desvio) {
+		// Box-Muller
+		double u = 1 - random.nextDouble();
+		double v = random.nextDouble();
+		return media + desvio * Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+	}
+
+	private static double limitar(double valor, double minimo, double maximo) {
+		return Math.max(minimo, Math.min(maximo, valor));
+	}
+
+	private static double arredondar(double valor) {
+		return Math.round(valor * 10) / 10.0;
+	}
+
+	private static class Particao {
+		private final List<Object[]> alunos = new ArrayList<>();
+		private final List<Object[]> avaliacoes = new ArrayList<>();
+		private final List<Object[]> matriculas = new ArrayList<>();
+
+		/**
+		 * Cria, se necessário, as partições de <code>tb_avaliacoes</code> dos meses das avaliações geradas.
+		 */
+		private void garantirParticoes(ParticoesDeAvaliacoes particoes) {
+			Set<YearMonth> meses = new HashSet<>();
+			for (Object[] avaliacao : avaliacoes) {
+				LocalDateTime data = (LocalDateTime) avaliacao[2];
+				if (meses.add(YearMonth.from(data)) && !particoes.garantirParticao(data)) {
+					throw new IllegalStateException("Não foi possível criar a partição de tb_avaliacoes para " + YearMonth.from(data)
+							+ "; verifique academia.particionamento.meses-passados.");
+				}
+			}
+		}
+
+		private void gravar(JdbcTemplate jdbcTemplate) {
+			jdbcTemplate.batchUpdate(INSERT_ALUNO, alunos, TAMANHO_LOTE, (ps, aluno) -> {
+				ps.setLong(1, (Long) aluno[0]);
+				ps.setString(2, (String) aluno[1]);
+				ps.setString(3, (String) aluno[2]);
+				ps.setLong(4, Long.parseLong((String) aluno[2]));
+				ps.setString(5, (String) aluno[3]);
+				ps.setObject(6, aluno[4]);
+			});
+			jdbcTemplate.batchUpdate(INSERT_AVALIACAO, avaliacoes, TAMANHO_LOTE, (ps, avaliacao) -> {
+				ps.setLong(1, (Long) avaliacao[0]);
+				ps.setLong(2, (Long) avaliacao[1]);
+				ps.setObject(3, avaliacao[2]);
+				ps.setDouble(4, (Double) avaliacao[3]);
+				ps.setDouble(5, (Double) avaliacao[4]);
+			});
+			jdbcTemplate.batchUpdate(INSERT_MATRICULA, matriculas, TAMANHO_LOTE, (ps, matricula) -> {
+				ps.setLong(1, (Long) matricula[0]);
+				ps.setObject(2, matricula[1]);
+			});
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class Resultado {
+		private final long alunos;
+		private final long avaliacoes;
+		private final long matriculas;
+		private final long duracaoMs;
+	}
+}
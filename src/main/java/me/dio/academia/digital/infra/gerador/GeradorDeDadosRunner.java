@@ -0,0 +1,47 @@
+package me.dio.academia.digital.infra.gerador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executa o {@link GeradorDeDados} na inicialização quando o perfil <code>gerador</code> está ativo:
+ * <pre>
+ * ./mvnw spring-boot:run -Dspring-boot.run.profiles=gerador -Dspring-boot.run.arguments=--academia.gerador.alunos=1000000
+ * </pre>
+ */
+@Component
+@Profile("gerador")
+public class GeradorDeDadosRunner implements CommandLineRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(GeradorDeDadosRunner.class);
+
+	@Autowired
+	private GeradorDeDados gerador;
+
+	@Value("${academia.gerador.alunos}")
+	private long alunos;
+
+	@Value("${academia.gerador.avaliacoes-por-aluno}")
+	private int avaliacoesPorAluno;
+
+	@Value("${academia.gerador.proporcao-matriculas}")
+	private double proporcaoMatriculas;
+
+	@Value("${academia.gerador.semente}")
+	private long semente;
+
+	@Value("${academia.gerador.threads}")
+	private int threads;
+
+	@Override
+	public void run(String... args) {
+		GeradorDeDados.Resultado resultado = gerador.gerar(alunos, avaliacoesPorAluno, proporcaoMatriculas, semente, threads);
+		log.info("Gerador: {} alunos, {} avaliações e {} matrículas gerados em {} ms",
+				resultado.getAlunos(), resultado.getAvaliacoes(), resultado.getMatriculas(), resultado.getDuracaoMs());
+	}
+}
@@ -0,0 +1,115 @@
+package me.dio.academia.digital.infra.http;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.infra.jackson.ObjectMapperConfig;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * ETags fortes dos recursos servidos pela API, derivados das colunas de versão das entidades.
+ *
+ * Como a versão muda a cada alteração, o ETag pode ser calculado a partir da versão já conhecida
+ * (em cache, por exemplo), sem carregar e serializar o recurso para compará-lo.
+ */
+public final class Etags {
+
+	private static final long FNV_BASE = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIMO = 0x100000001b3L;
+
+	private Etags() {
+	}
+
+	/**
+	 * @return o ETag do aluno, entre aspas.
+	 */
+	public static String aluno(AlunoDTO aluno) {
+		return "\"aluno-" + aluno.getId() + "-" + aluno.getVersao() + "\"";
+	}
+
+	/**
+	 * Calcula o ETag da lista de avaliações de um aluno a partir do id e da versão de cada
+	 * avaliação, na ordem da lista: muda quando uma avaliação é criada, alterada ou removida.
+	 *
+	 * @return o ETag da lista, entre aspas.
+	 */
+	public static String avaliacoes(Long alunoId, List<AvaliacaoFisicaDTO> avaliacoes) {
+		long hash = FNV_BASE;
+		for (AvaliacaoFisicaDTO avaliacao : avaliacoes) {
+			hash = misturar(hash, avaliacao.getId());
+			hash = misturar(hash, avaliacao.getVersao() != null ? avaliacao.getVersao() : 0);
+		}
+		return "\"avaliacoes-" + alunoId + "-" + avaliacoes.size() + "-" + Long.toHexString(hash) + "\"";
+	}
+
+	/**
+	 * Acrescenta ao ETag o formato negociado pelo cabeçalho <code>Accept</code>, para que as
+	 * representações JSON, Smile e CBOR do mesmo recurso tenham ETags distintos. Os formatos são
+	 * verificados na ordem dos conversores do Spring MVC, em que o JSON vem primeiro.
+	 *
+	 * @param etag ETag do recurso, entre aspas, ou null.
+	 * @param accept Valor do cabeçalho <code>Accept</code>, ou null.
+	 * @return o ETag da representação, ou null se o ETag informado for null.
+	 */
+	public static String representacao(String etag, String accept) {
+		if (etag == null || accept == null || accept.isBlank()) {
+			return etag;
+		}
+		List<MediaType> tipos;
+		try {
+			tipos = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return etag;
+		}
+		MediaType.sortBySpecificityAndQuality(tipos);
+		for (MediaType tipo : tipos) {
+			if (tipo.getQualityValue() == 0) {
+				continue;
+			}
+			if (tipo.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+				return etag;
+			}
+			if (tipo.isCompatibleWith(ObjectMapperConfig.APPLICATION_SMILE)) {
+				return etag.substring(0, etag.length() - 1) + "-smile\"";
+			}
+			if (tipo.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+				return etag.substring(0, etag.length() - 1) + "-cbor\"";
+			}
+		}
+		return etag;
+	}
+
+	/**
+	 * Indica se o cabeçalho <code>If-None-Match</code> contém o ETag informado, pela comparação
+	 * fraca definida para esse cabeçalho (o prefixo <code>W/</code> é ignorado).
+	 *
+	 * @param ifNoneMatch Valor do cabeçalho, possivelmente com vários ETags separados por vírgula.
+	 * @param etag ETag do recurso, entre aspas.
+	 */
+	public static boolean corresponde(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || etag == null) {
+			return false;
+		}
+		for (String candidato : ifNoneMatch.split(",")) {
+			candidato = candidato.trim();
+			if (candidato.startsWith("W/")) {
+				candidato = candidato.substring(2);
+			}
+			if (candidato.equals("*") || candidato.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long misturar(long hash, long valor) {
+		for (int i = 0; i < 8; i++) {
+			hash ^= (valor >>> (i * 8)) & 0xff;
+			hash *= FNV_PRIMO;
+		}
+		return hash;
+	}
+}
@@ -1,23 +1,37 @@
 package me.dio.academia.digital.infra.jackson;
 
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import me.dio.academia.digital.infra.jackson.deser.LocalDateDeserializer;
 import me.dio.academia.digital.infra.jackson.deser.LocalDateTimeDeserializer;
 import me.dio.academia.digital.infra.jackson.ser.LocalDateSerializer;
 import me.dio.academia.digital.infra.jackson.ser.LocalDateTimeSerializer;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
+ * Além do JSON, a API negocia pelo cabeçalho <code>Accept</code> (e lê pelo <code>Content-Type</code>)
+ * dois formatos binários do Jackson, Smile ({@link #APPLICATION_SMILE}) e CBOR
+ * ({@link MediaType#APPLICATION_CBOR}), com os mesmos campos e o mesmo formato de datas do JSON.
+ * Os conversores são criados a partir do builder do Spring Boot, que aplica esta configuração; o
+ * JSON continua sendo o formato padrão, inclusive para <code>Accept: *&#47;*</code>.
+ *
  * @author Venilton Falvo Jr
  */
 @Configuration
 public class ObjectMapperConfig implements Jackson2ObjectMapperBuilderCustomizer {
-	
+
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
 	@Override
 	public void customize(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
 		jacksonObjectMapperBuilder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -26,4 +40,20 @@ public class ObjectMapperConfig implements Jackson2ObjectMapperBuilderCustomizer
 				.deserializerByType(LocalDate.class, new LocalDateDeserializer())
 				.deserializerByType(LocalDateTime.class, new LocalDateTimeDeserializer());
 	}
+
+	/**
+	 * Substitui o conversor Smile padrão do Spring MVC, que não recebe as configurações do Spring Boot.
+	 */
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
+	/**
+	 * Substitui o conversor CBOR padrão do Spring MVC, que não recebe as configurações do Spring Boot.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
 }
@@ -1,6 +1,7 @@
 package me.dio.academia.digital.infra.jackson.deser;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import me.dio.academia.digital.infra.utils.JavaTimeUtils;
@@ -21,6 +22,9 @@ public class LocalDateDeserializer extends StdDeserializer<LocalDate> {
 
     @Override
     public LocalDate deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return JavaTimeUtils.lerData(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
         return LocalDate.parse(parser.readValueAs(String.class), JavaTimeUtils.LOCAL_DATE_FORMATTER);
     }
 }
@@ -1,6 +1,7 @@
 package me.dio.academia.digital.infra.jackson.deser;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import me.dio.academia.digital.infra.utils.JavaTimeUtils;
@@ -21,6 +22,9 @@ public class LocalDateTimeDeserializer extends StdDeserializer<LocalDateTime> {
 
     @Override
     public LocalDateTime deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return JavaTimeUtils.lerDataHora(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
         return LocalDateTime.parse(parser.readValueAs(String.class), JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER);
     }
 }
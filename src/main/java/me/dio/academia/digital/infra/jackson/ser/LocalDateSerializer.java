@@ -15,12 +15,19 @@ public class LocalDateSerializer extends StdSerializer<LocalDate> {
 
 	private static final long serialVersionUID = -2718386750062666481L;
 
+	private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[JavaTimeUtils.LOCAL_DATE_LENGTH]);
+
 	public LocalDateSerializer() {
         super(LocalDate.class);
     }
 
     @Override
     public void serialize(final LocalDate value, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
-        generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_FORMATTER));
+        char[] buffer = BUFFER.get();
+        if (JavaTimeUtils.escreverData(value, buffer, 0)) {
+            generator.writeString(buffer, 0, JavaTimeUtils.LOCAL_DATE_LENGTH);
+        } else {
+            generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_FORMATTER));
+        }
     }
 }
@@ -15,12 +15,19 @@ public class LocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
 
 	private static final long serialVersionUID = -6347158617481757931L;
 
+	private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[JavaTimeUtils.LOCAL_DATE_TIME_LENGTH]);
+
 	public LocalDateTimeSerializer() {
         super(LocalDateTime.class);
     }
 
     @Override
     public void serialize(final LocalDateTime value, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
-        generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER));
+        char[] buffer = BUFFER.get();
+        if (JavaTimeUtils.escreverDataHora(value, buffer, 0)) {
+            generator.writeString(buffer, 0, JavaTimeUtils.LOCAL_DATE_TIME_LENGTH);
+        } else {
+            generator.writeString(value.format(JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER));
+        }
     }
 }
@@ -0,0 +1,28 @@
+package me.dio.academia.digital.infra.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração das métricas expostas pelo actuator em <code>/actuator/metrics</code>.
+ *
+ * Além das métricas registradas automaticamente pelo Spring Boot (latência de cada endpoint em
+ * <code>http.server.requests</code>, pool de conexões em <code>hikaricp.connections.*</code> e
+ * estatísticas do Hibernate em <code>hibernate.*</code>), os serviços anotados com
+ * <code>@Timed(MetricsConfig.SERVICO)</code> têm cada método medido no timer {@link #SERVICO},
+ * identificado pelas tags <code>class</code> e <code>method</code>. Os histogramas de percentis
+ * são configurados em <code>management.metrics.distribution</code> no <code>application.yml</code>.
+ */
+@Configuration
+public class MetricsConfig {
+
+	public static final String SERVICO = "academia.servico";
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+
+}
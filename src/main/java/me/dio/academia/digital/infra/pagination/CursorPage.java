@@ -0,0 +1,28 @@
+package me.dio.academia.digital.infra.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtida por paginação baseada em cursor (keyset).
+ *
+ * <p>O campo <code>proximoCursor</code> é um token opaco que deve ser enviado de volta
+ * na próxima requisição para continuar a leitura a partir do último registro retornado.
+ * Quando for <code>null</code>, não há mais registros.</p>
+ *
+ * @param <T> tipo dos registros contidos na página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+  private List<T> conteudo;
+
+  private int tamanho;
+
+  private String proximoCursor;
+}
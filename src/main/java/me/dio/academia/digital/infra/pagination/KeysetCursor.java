@@ -0,0 +1,53 @@
+package me.dio.academia.digital.infra.pagination;
+
+import me.dio.academia.digital.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de leitura usada na paginação por keyset: o valor da chave de ordenação
+ * do último registro lido e o seu id, que desempata registros com a mesma chave.
+ *
+ * <p>O cursor é serializado como Base64 URL-safe para que o cliente o trate como um
+ * token opaco.</p>
+ */
+public final class KeysetCursor {
+
+  private static final char SEPARADOR = ':';
+
+  private final String chave;
+
+  private final Long id;
+
+  public KeysetCursor(String chave, Long id) {
+    this.chave = chave;
+    this.id = id;
+  }
+
+  public String getChave() {
+    return chave;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String encode() {
+    String valor = id + String.valueOf(SEPARADOR) + chave;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separador = valor.indexOf(SEPARADOR);
+      if (separador <= 0) {
+        throw new CursorInvalidoException("Cursor '" + cursor + "' é inválido.");
+      }
+      return new KeysetCursor(valor.substring(separador + 1), Long.valueOf(valor.substring(0, separador)));
+    } catch (IllegalArgumentException e) {
+      throw new CursorInvalidoException("Cursor '" + cursor + "' é inválido.");
+    }
+  }
+}
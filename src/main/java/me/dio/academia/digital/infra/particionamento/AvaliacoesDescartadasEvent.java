@@ -0,0 +1,24 @@
+package me.dio.academia.digital.infra.particionamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado por {@link ParticoesDeAvaliacoes} ao descartar partições de <code>tb_avaliacoes</code>
+ * que saíram do período de retenção.
+ *
+ * As avaliações são excluídas junto com a partição, sem passar pela camada de serviço nem publicar o
+ * {@link me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent}; os componentes que
+ * mantêm avaliações em memória devem escutá-lo para descartar as realizadas antes de {@link #ate}.
+ */
+@Getter
+@AllArgsConstructor
+public class AvaliacoesDescartadasEvent {
+
+	/**
+	 * Todas as avaliações realizadas antes deste momento foram descartadas.
+	 */
+	private final LocalDateTime ate;
+}
@@ -0,0 +1,22 @@
+package me.dio.academia.digital.infra.particionamento;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Garante que {@link ParticoesDeAvaliacoes} crie <code>tb_avaliacoes</code> particionada antes que a
+ * atualização do esquema pelo Hibernate (<code>ddl-auto: update</code>) a crie como uma tabela comum.
+ *
+ * Para que o Hibernate reconheça a tabela particionada como existente, o tipo
+ * <code>PARTITIONED TABLE</code> é informado em <code>hibernate.hbm2ddl.extra_physical_table_types</code>
+ * no <code>application.yml</code>.
+ */
+@Configuration
+public class ParticionamentoConfig {
+
+	@Bean
+	public static EntityManagerFactoryDependsOnPostProcessor particoesAntesDoEsquema() {
+		return new EntityManagerFactoryDependsOnPostProcessor(ParticoesDeAvaliacoes.class);
+	}
+}
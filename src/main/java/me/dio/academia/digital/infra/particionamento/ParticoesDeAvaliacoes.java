@@ -0,0 +1,407 @@
+package me.dio.academia.digital.infra.particionamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Particionamento mensal de <code>tb_avaliacoes</code> por <code>data_da_avaliacao</code> no PostgreSQL.
+ *
+ * Na inicialização, antes da atualização do esquema pelo Hibernate (ver {@link ParticionamentoConfig}),
+ * a tabela é criada particionada por intervalo quando ainda não existe: uma partição por mês, de
+ * <code>academia.particionamento.meses-passados</code> meses atrás até
+ * <code>academia.particionamento.meses-futuros</code> meses à frente. Como o PostgreSQL exige que a
+ * chave primária inclua a chave de particionamento, ela é <code>(id, data_da_avaliacao)</code>. Uma
+ * tabela comum já existente não é alterada; a conversão é feita fora do horário de uso com o script
+ * <code>db/particionar-tb_avaliacoes.sql</code>.
+ *
+ * Não há partição padrão: ela faria cada <code>attach partition</code> bloquear e percorrer as suas
+ * linhas e impediria o <code>detach partition ... concurrently</code>. Avaliações com datas de meses
+ * sem partição são rejeitadas pelo banco de dados; a importação e o gerador de dados chamam antes
+ * {@link #garantirParticao(LocalDateTime)}, que cria a partição dos meses dentro do período mantido.
+ * Uma partição padrão criada por versões anteriores é removida na inicialização se estiver vazia.
+ *
+ * A cada <code>academia.particionamento.intervalo-manutencao</code>, uma thread de segundo plano:
+ * <ul>
+ *  <li>cria as partições dos próximos meses como tabelas avulsas e as anexa com
+ *  <code>attach partition</code>, que bloqueia a tabela principal apenas no modo
+ *  <code>share update exclusive</code>, sem impedir inserts, updates e deletes;</li>
+ *  <li>com <code>academia.particionamento.retencao-meses</code> maior que zero, descarta as partições
+ *  inteiramente anteriores ao período de retenção com <code>detach partition ... concurrently</code>
+ *  (PostgreSQL 14 ou superior), também no modo <code>share update exclusive</code>, e
+ *  <code>drop table</code>, sem percorrer nem excluir linha a linha, e publica o
+ *  {@link AvaliacoesDescartadasEvent}.</li>
+ * </ul>
+ *
+ * Cada passo usa <code>lock_timeout</code> de <code>academia.particionamento.tempo-maximo-bloqueio</code>:
+ * se a tabela estiver ocupada por uma transação longa, o passo desiste e é repetido na manutenção
+ * seguinte. O único bloqueio <code>access exclusive</code> da tabela principal é o da remoção da
+ * partição padrão na inicialização, limitado ao mesmo tempo.
+ */
+@Component
+public class ParticoesDeAvaliacoes {
+
+	private static final Logger log = LoggerFactory.getLogger(ParticoesDeAvaliacoes.class);
+
+	private static final String TABELA = "tb_avaliacoes";
+
+	private static final String PREFIXO_PARTICAO = TABELA + "_p";
+
+	private static final DateTimeFormatter SUFIXO_PARTICAO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+	// Estado do bloqueio não obtido dentro do lock_timeout
+	private static final String BLOQUEIO_INDISPONIVEL = "55P03";
+
+	private static final String TIPO_TABELA =
+			"select relkind from pg_class where oid = to_regclass(?)";
+
+	private static final String PARTICOES =
+			"select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid"
+					+ " where i.inhparent = to_regclass('" + TABELA + "')";
+
+	// Partições cujo detach partition ... concurrently foi interrompido antes de concluído
+	private static final String PARTICOES_PENDENTES = PARTICOES + " and i.inhdetachpending";
+
+	private static final String PARTICAO_PADRAO = TABELA + "_padrao";
+
+	// Mesmas colunas e tipos gerados pelo Hibernate para AvaliacaoFisica; a chave estrangeira para
+	// tb_alunos é criada pela atualização do esquema
+	private static final String CRIAR_TABELA =
+			"create table " + TABELA + " (id int8 not null, altura_atual float8 not null,"
+					+ " data_da_avaliacao timestamp not null, peso_atual float8 not null,"
+					+ " versao int8 default 0 not null, aluno_id int8,"
+					+ " primary key (id, data_da_avaliacao))"
+					+ " partition by range (data_da_avaliacao)";
+
+	// Mesmos nomes declarados em AvaliacaoFisica, para que o Hibernate os encontre; as colunas lidas
+	// pelas consultas por aluno entram como include, fora da chave de ordenação
+	private static final String[] CRIAR_INDICES = {
+			"create index if not exists idx_avaliacoes_aluno_data on " + TABELA
+					+ " (aluno_id, data_da_avaliacao, id) include (peso_atual, altura_atual, versao)",
+			"create index if not exists idx_avaliacoes_data on " + TABELA + " (data_da_avaliacao)"
+	};
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Value("${academia.particionamento.habilitado:true}")
+	private boolean habilitado;
+
+	@Value("${academia.particionamento.meses-passados:60}")
+	private int mesesPassados;
+
+	@Value("${academia.particionamento.meses-futuros:3}")
+	private int mesesFuturos;
+
+	@Value("${academia.particionamento.retencao-meses:0}")
+	private int retencaoMeses;
+
+	@Value("${academia.particionamento.intervalo-manutencao:6h}")
+	private Duration intervaloManutencao;
+
+	@Value("${academia.particionamento.tempo-maximo-bloqueio:2s}")
+	private Duration tempoMaximoBloqueio;
+
+	private volatile boolean particionada;
+
+	// Meses com partição anexada
+	private final Set<YearMonth> meses = ConcurrentHashMap.newKeySet();
+
+	private ScheduledExecutorService agendador;
+
+	@PostConstruct
+	void iniciar() {
+		if (!habilitado || !"PostgreSQL".equals(jdbcTemplate.execute(
+				(ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()))) {
+			return;
+		}
+		List<String> tipo = jdbcTemplate.queryForList(TIPO_TABELA, String.class, TABELA);
+		if (tipo.isEmpty()) {
+			criarTabela();
+		} else if ("p".equals(tipo.get(0))) {
+			removerParticaoPadrao();
+		} else {
+			log.warn("{} não é particionada; converta-a com o script db/particionar-tb_avaliacoes.sql", TABELA);
+			return;
+		}
+		for (String particao : jdbcTemplate.queryForList(PARTICOES, String.class)) {
+			YearMonth mes = mes(particao);
+			if (mes != null) {
+				meses.add(mes);
+			}
+		}
+		particionada = true;
+	}
+
+	/**
+	 * Agenda a manutenção das partições após a inicialização da aplicação.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void agendarManutencao() {
+		if (!particionada) {
+			return;
+		}
+		agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "particoes-avaliacoes");
+			thread.setDaemon(true);
+			return thread;
+		});
+		agendador.scheduleWithFixedDelay(this::manter, 0, intervaloManutencao.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void encerrar() {
+		if (agendador != null) {
+			agendador.shutdownNow();
+		}
+	}
+
+	/**
+	 * Garante que exista a partição do mês da data informada, criando-a e anexando-a se necessário.
+	 * Somente meses entre <code>academia.particionamento.meses-passados</code> meses atrás (ou o
+	 * período de retenção, se menor) e <code>academia.particionamento.meses-futuros</code> meses à
+	 * frente são criados.
+	 *
+	 * @return false se a data estiver fora desse período ou se a tabela estiver ocupada; nesse caso,
+	 * uma avaliação com essa data seria rejeitada pelo banco de dados. Sempre true se a tabela não
+	 * for particionada.
+	 */
+	public boolean garantirParticao(LocalDateTime data) {
+		if (!particionada) {
+			return true;
+		}
+		YearMonth mes = YearMonth.from(data);
+		if (meses.contains(mes)) {
+			return true;
+		}
+		YearMonth atual = YearMonth.now();
+		YearMonth primeiro = atual.minusMonths(retencaoMeses > 0 ? Math.min(mesesPassados, retencaoMeses) : mesesPassados);
+		if (mes.isBefore(primeiro) || mes.isAfter(atual.plusMonths(mesesFuturos))) {
+			return false;
+		}
+		return criarParticao(mes);
+	}
+
+	/**
+	 * Cria as partições futuras que ainda não existem e descarta as que saíram do período de retenção.
+	 * Os passos que não obtêm o bloqueio a tempo ficam para a manutenção seguinte.
+	 */
+	void manter() {
+		try {
+			YearMonth atual = YearMonth.now();
+			for (int i = 0; i <= mesesFuturos; i++) {
+				if (!criarParticao(atual.plusMonths(i))) {
+					return;
+				}
+			}
+			if (retencaoMeses > 0) {
+				descartarAnteriores(jdbcTemplate.queryForList(PARTICOES, String.class), atual.minusMonths(retencaoMeses));
+			}
+		} catch (RuntimeException e) {
+			log.error("Falha na manutenção das partições de {}", TABELA, e);
+		}
+	}
+
+	/**
+	 * Cria e anexa a partição do mês, se ainda não existir. Sincronizado para que a manutenção e
+	 * {@link #garantirParticao(LocalDateTime)} não criem a mesma partição ao mesmo tempo.
+	 */
+	private synchronized boolean criarParticao(YearMonth mes) {
+		if (meses.contains(mes)) {
+			return true;
+		}
+		if (!executar(anexar(mes))) {
+			return false;
+		}
+		meses.add(mes);
+		log.info("Partição {} criada", nome(mes));
+		return true;
+	}
+
+	/**
+	 * Descarta, da mais antiga para a mais recente, as partições mensais anteriores ao mês informado.
+	 */
+	private void descartarAnteriores(List<String> existentes, YearMonth limite) {
+		if (existentes.contains(PARTICAO_PADRAO)) {
+			log.warn("{} ainda tem a partição padrão {}; o descarte de partições fica suspenso", TABELA, PARTICAO_PADRAO);
+			return;
+		}
+		List<String> pendentes = jdbcTemplate.queryForList(PARTICOES_PENDENTES, String.class);
+		List<YearMonth> descartaveis = existentes.stream()
+				.map(ParticoesDeAvaliacoes::mes)
+				.filter(mes -> mes != null && mes.isBefore(limite))
+				.sorted()
+				.collect(Collectors.toList());
+		YearMonth ultimoDescartado = null;
+		for (YearMonth mes : descartaveis) {
+			if (!desanexar(nome(mes), pendentes.contains(nome(mes)))) {
+				break;
+			}
+			meses.remove(mes);
+			log.info("Partição {} descartada", nome(mes));
+			ultimoDescartado = mes;
+		}
+		if (ultimoDescartado != null) {
+			eventPublisher.publishEvent(new AvaliacoesDescartadasEvent(ultimoDescartado.plusMonths(1).atDay(1).atStartOfDay()));
+		}
+	}
+
+	private void criarTabela() {
+		YearMonth atual = YearMonth.now();
+		jdbcTemplate.execute(CRIAR_TABELA);
+		for (YearMonth mes = atual.minusMonths(mesesPassados); !mes.isAfter(atual.plusMonths(mesesFuturos)); mes = mes.plusMonths(1)) {
+			jdbcTemplate.execute("create table " + nome(mes) + " partition of " + TABELA + " for values " + intervalo(mes));
+		}
+		for (String indice : CRIAR_INDICES) {
+			jdbcTemplate.execute(indice);
+		}
+		log.info("{} criada com partições mensais de {} a {}", TABELA,
+				atual.minusMonths(mesesPassados), atual.plusMonths(mesesFuturos));
+	}
+
+	/**
+	 * Remove a partição padrão criada por versões anteriores, se estiver vazia. O
+	 * <code>detach partition</code> da partição padrão não pode ser <code>concurrently</code> e bloqueia
+	 * a tabela principal no modo <code>access exclusive</code>, por isso é feito uma única vez, na
+	 * inicialização, com <code>lock_timeout</code>.
+	 */
+	private void removerParticaoPadrao() {
+		if (!jdbcTemplate.queryForList(PARTICOES, String.class).contains(PARTICAO_PADRAO)) {
+			return;
+		}
+		if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from " + PARTICAO_PADRAO + ")", Boolean.class))) {
+			log.warn("A partição padrão {} contém avaliações; mova-as para as partições mensais e remova-a (ver README)", PARTICAO_PADRAO);
+			return;
+		}
+		if (executar("alter table " + TABELA + " detach partition " + PARTICAO_PADRAO, "drop table " + PARTICAO_PADRAO)) {
+			log.info("Partição padrão {} removida", PARTICAO_PADRAO);
+		}
+	}
+
+	/**
+	 * Comandos que criam a partição do mês fora da tabela principal e a anexam. O
+	 * <code>create table ... partition of</code> bloquearia a tabela principal no modo
+	 * <code>access exclusive</code>; o <code>attach partition</code> exige apenas
+	 * <code>share update exclusive</code>.
+	 */
+	private static String[] anexar(YearMonth mes) {
+		return new String[]{
+				"create table " + nome(mes) + " (like " + TABELA + " including defaults including constraints)",
+				"alter table " + TABELA + " attach partition " + nome(mes) + " for values " + intervalo(mes)
+		};
+	}
+
+	/**
+	 * Executa os comandos em uma única transação, com <code>lock_timeout</code>.
+	 *
+	 * @return false se algum bloqueio não foi obtido a tempo; nesse caso, nada é alterado.
+	 */
+	private boolean executar(String... comandos) {
+		return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+			boolean autoCommit = con.getAutoCommit();
+			con.setAutoCommit(false);
+			try (Statement st = con.createStatement()) {
+				st.execute("set local lock_timeout = " + tempoMaximoBloqueio.toMillis());
+				for (String comando : comandos) {
+					st.execute(comando);
+				}
+				con.commit();
+				return true;
+			} catch (SQLException e) {
+				con.rollback();
+				if (BLOQUEIO_INDISPONIVEL.equals(e.getSQLState())) {
+					log.warn("{} ocupada; a manutenção das partições será repetida em {}", TABELA, intervaloManutencao);
+					return false;
+				}
+				throw e;
+			} finally {
+				con.setAutoCommit(autoCommit);
+			}
+		}));
+	}
+
+	/**
+	 * Desanexa a partição com <code>detach partition ... concurrently</code> e a descarta. O comando não
+	 * pode ser executado em um bloco de transação; ele bloqueia a tabela principal apenas no modo
+	 * <code>share update exclusive</code> e aguarda o fim das transações que ainda enxergam a partição.
+	 * Se for interrompido nessa espera, a partição fica pendente e o desanexo é concluído com
+	 * <code>finalize</code> na manutenção seguinte.
+	 *
+	 * @return false se algum bloqueio não foi obtido a tempo.
+	 */
+	private boolean desanexar(String particao, boolean pendente) {
+		return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+			boolean autoCommit = con.getAutoCommit();
+			con.setAutoCommit(true);
+			try (Statement st = con.createStatement()) {
+				st.execute("set lock_timeout = " + tempoMaximoBloqueio.toMillis());
+				try {
+					st.execute("alter table " + TABELA + " detach partition " + particao + (pendente ? " finalize" : " concurrently"));
+					st.execute("drop table " + particao);
+					return true;
+				} catch (SQLException e) {
+					if (BLOQUEIO_INDISPONIVEL.equals(e.getSQLState())) {
+						log.warn("{} ocupada; o descarte de {} será repetido em {}", TABELA, particao, intervaloManutencao);
+						return false;
+					}
+					throw e;
+				} finally {
+					st.execute("reset lock_timeout");
+				}
+			} finally {
+				con.setAutoCommit(autoCommit);
+			}
+		}));
+	}
+
+	private static String nome(YearMonth mes) {
+		return PREFIXO_PARTICAO + mes.format(SUFIXO_PARTICAO);
+	}
+
+	private static String intervalo(YearMonth mes) {
+		LocalDate inicio = mes.atDay(1);
+		return "from ('" + inicio + "') to ('" + inicio.plusMonths(1) + "')";
+	}
+
+	/**
+	 * Mês de uma partição mensal pelo seu nome; null para a partição padrão e outras tabelas.
+	 */
+	private static YearMonth mes(String particao) {
+		if (!particao.startsWith(PREFIXO_PARTICAO)) {
+			return null;
+		}
+		try {
+			return YearMonth.parse(particao.substring(PREFIXO_PARTICAO.length()), SUFIXO_PARTICAO);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package me.dio.academia.digital.infra.query;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação em um proxy que notifica o {@link QueryStatsListener} e o
+ * {@link SlowQueryListener} a cada comando executado. O DataSource original continua acessível via <code>unwrap</code>, de modo
+ * que as métricas do pool de conexões continuam sendo registradas.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+	// Resolvido apenas quando o DataSource é criado, para não antecipar a criação dos demais beans
+	private final ObjectProvider<SlowQueryListener> slowQueryListener;
+
+	public DataSourceProxyPostProcessor(ObjectProvider<SlowQueryListener> slowQueryListener) {
+		this.slowQueryListener = slowQueryListener;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+			return ProxyDataSourceBuilder.create((DataSource) bean)
+					.name(beanName)
+					.listener(new QueryStatsListener())
+					.listener(slowQueryListener.getObject())
+					.build();
+		}
+		return bean;
+	}
+}
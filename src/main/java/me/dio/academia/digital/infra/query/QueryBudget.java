@@ -0,0 +1,24 @@
+package me.dio.academia.digital.infra.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara a quantidade máxima de comandos SQL que um endpoint pode executar por requisição.
+ *
+ * Requisições que excedem o orçamento são registradas no log pelo {@link QueryStatsFilter}, e os
+ * testes de integração podem verificá-lo a partir das {@link QueryStats} da requisição.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+	/**
+	 * @return a quantidade máxima de comandos SQL por requisição.
+	 */
+	int value();
+}
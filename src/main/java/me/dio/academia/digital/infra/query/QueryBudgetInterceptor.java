@@ -0,0 +1,34 @@
+package me.dio.academia.digital.infra.query;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Associa às {@link QueryStats} da requisição o {@link QueryBudget} declarado no método do controller.
+ */
+@Configuration
+public class QueryBudgetInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(this);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			QueryBudget budget = ((HandlerMethod) handler).getMethodAnnotation(QueryBudget.class);
+			Object stats = request.getAttribute(QueryStats.ATRIBUTO);
+			if (budget != null && stats instanceof QueryStats) {
+				((QueryStats) stats).setOrcamento(budget.value());
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,126 @@
+package me.dio.academia.digital.infra.query;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Consultas SQL executadas durante uma requisição HTTP.
+ *
+ * Uma instância é criada pelo {@link QueryStatsFilter} no início de cada requisição, associada à
+ * thread que a atende e alimentada pelo {@link QueryStatsListener} a cada comando executado no
+ * banco de dados. Os comandos são agrupados pelo formato (o SQL sem os valores dos parâmetros),
+ * o que permite identificar o mesmo comando repetido várias vezes na mesma requisição, sintoma
+ * típico de N+1.
+ *
+ * Ao final da requisição, a instância continua disponível no atributo {@link #ATRIBUTO} da
+ * requisição, para que os testes de integração possam verificar o orçamento de consultas.
+ */
+public class QueryStats {
+
+	public static final String ATRIBUTO = QueryStats.class.getName();
+
+	private static final ThreadLocal<QueryStats> ATUAL = new ThreadLocal<>();
+
+	// Listas de parâmetros de tamanho variável, como em "id in (?, ?, ?)", têm o mesmo formato
+	private static final Pattern LISTA_DE_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+	private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+	private final Map<String, Integer> formatos = new LinkedHashMap<>();
+
+	private int consultas;
+
+	private long tempoNanos;
+
+	private long inicioNanos;
+
+	private Integer orcamento;
+
+	static QueryStats iniciar() {
+		QueryStats stats = new QueryStats();
+		ATUAL.set(stats);
+		return stats;
+	}
+
+	static QueryStats atual() {
+		return ATUAL.get();
+	}
+
+	static void encerrar() {
+		ATUAL.remove();
+	}
+
+	void antesDaExecucao() {
+		inicioNanos = System.nanoTime();
+	}
+
+	void aposExecucao(Iterable<String> comandos, boolean lote) {
+		tempoNanos += System.nanoTime() - inicioNanos;
+		for (String sql : comandos) {
+			consultas++;
+			// Um lote já é uma única ida ao banco para vários registros; não é N+1
+			if (!lote) {
+				formatos.merge(formato(sql), 1, Integer::sum);
+			}
+		}
+	}
+
+	void setOrcamento(Integer orcamento) {
+		this.orcamento = orcamento;
+	}
+
+	/**
+	 * @return a quantidade de comandos SQL executados na requisição.
+	 */
+	public int getConsultas() {
+		return consultas;
+	}
+
+	/**
+	 * @return o tempo total gasto nos comandos SQL da requisição, em milissegundos.
+	 */
+	public double getTempoMs() {
+		return tempoNanos / 1_000_000d;
+	}
+
+	/**
+	 * @return o orçamento declarado com {@link QueryBudget} no método do controller, ou null.
+	 */
+	public Integer getOrcamento() {
+		return orcamento;
+	}
+
+	public boolean isOrcamentoExcedido() {
+		return orcamento != null && consultas > orcamento;
+	}
+
+	/**
+	 * Retorna os formatos de comando executados pelo menos <code>limite</code> vezes na requisição.
+	 *
+	 * @param limite quantidade mínima de execuções do mesmo formato.
+	 * @return os formatos repetidos e a quantidade de execuções de cada um.
+	 */
+	public Map<String, Integer> getRepetidas(int limite) {
+		Map<String, Integer> repetidas = new LinkedHashMap<>();
+		formatos.forEach((formato, vezes) -> {
+			if (vezes >= limite) {
+				repetidas.put(formato, vezes);
+			}
+		});
+		return repetidas;
+	}
+
+	/**
+	 * @return o valor do cabeçalho <code>Server-Timing</code> com a quantidade e o tempo das consultas.
+	 */
+	public String toServerTiming() {
+		return String.format(Locale.ROOT, "db;desc=\"%d consultas\";dur=%.2f", consultas, getTempoMs());
+	}
+
+	static String formato(String sql) {
+		String formato = ESPACOS.matcher(sql.trim()).replaceAll(" ");
+		return LISTA_DE_PARAMETROS.matcher(formato).replaceAll("(?)");
+	}
+}
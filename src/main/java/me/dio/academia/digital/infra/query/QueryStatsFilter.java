@@ -0,0 +1,67 @@
+package me.dio.academia.digital.infra.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Contabiliza as consultas SQL de cada requisição HTTP.
+ *
+ * Ao final da requisição, a quantidade de comandos e o tempo total no banco de dados são enviados
+ * no cabeçalho <code>Server-Timing</code> (quando a resposta ainda não foi enviada; respostas com
+ * corpo recebem o cabeçalho pelo {@link ServerTimingAdvice}) e registrados no log. Requisições que
+ * repetem o mesmo comando <code>academia.consultas.limite-repeticoes</code> vezes ou mais, ou que
+ * excedem o {@link QueryBudget} do endpoint, são registradas como alerta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+	public static final String SERVER_TIMING = "Server-Timing";
+
+	private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+	@Value("${academia.consultas.limite-repeticoes:5}")
+	private int limiteRepeticoes;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		QueryStats stats = QueryStats.iniciar();
+		request.setAttribute(QueryStats.ATRIBUTO, stats);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			QueryStats.encerrar();
+			if (!response.isCommitted()) {
+				response.setHeader(SERVER_TIMING, stats.toServerTiming());
+			}
+			registrar(request, response, stats);
+		}
+	}
+
+	private void registrar(HttpServletRequest request, HttpServletResponse response, QueryStats stats) {
+		Map<String, Integer> repetidas = stats.getRepetidas(limiteRepeticoes);
+		if (!repetidas.isEmpty() || stats.isOrcamentoExcedido()) {
+			log.warn("consultas metodo={} uri={} status={} consultas={} tempoDbMs={} orcamento={} repetidas={}",
+					request.getMethod(), request.getRequestURI(), response.getStatus(), stats.getConsultas(),
+					String.format(Locale.ROOT, "%.2f", stats.getTempoMs()), stats.getOrcamento(), repetidas);
+		} else if (log.isDebugEnabled()) {
+			log.debug("consultas metodo={} uri={} status={} consultas={} tempoDbMs={} orcamento={}",
+					request.getMethod(), request.getRequestURI(), response.getStatus(), stats.getConsultas(),
+					String.format(Locale.ROOT, "%.2f", stats.getTempoMs()), stats.getOrcamento());
+		}
+	}
+}
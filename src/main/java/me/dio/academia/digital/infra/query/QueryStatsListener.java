@@ -0,0 +1,32 @@
+package me.dio.academia.digital.infra.query;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Registra cada comando executado pelo DataSource nas {@link QueryStats} da requisição atual.
+ * Comandos executados fora de uma requisição HTTP (tarefas em segundo plano) são ignorados.
+ */
+public class QueryStatsListener implements QueryExecutionListener {
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		QueryStats stats = QueryStats.atual();
+		if (stats != null) {
+			stats.antesDaExecucao();
+		}
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		QueryStats stats = QueryStats.atual();
+		if (stats != null) {
+			stats.aposExecucao(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.toList()),
+					execInfo.isBatch());
+		}
+	}
+}
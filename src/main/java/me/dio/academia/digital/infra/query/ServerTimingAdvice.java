@@ -0,0 +1,36 @@
+package me.dio.academia.digital.infra.query;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Envia o cabeçalho <code>Server-Timing</code> nas respostas com corpo, imediatamente antes da
+ * escrita do corpo (depois dela, os cabeçalhos já foram enviados ao cliente).
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+								  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+								  ServerHttpRequest request, ServerHttpResponse response) {
+		if (request instanceof ServletServerHttpRequest) {
+			Object stats = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(QueryStats.ATRIBUTO);
+			if (stats instanceof QueryStats) {
+				response.getHeaders().set(QueryStatsFilter.SERVER_TIMING, ((QueryStats) stats).toServerTiming());
+			}
+		}
+		return body;
+	}
+}
@@ -0,0 +1,29 @@
+package me.dio.academia.digital.infra.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Comando SQL que excedeu o limite de latência configurado em <code>academia.consultas.lentas.limite-ms</code>.
+ */
+@Getter
+@AllArgsConstructor
+public class SlowQuery {
+
+	private final Instant instante;
+
+	private final long duracaoMs;
+
+	private final String sql;
+
+	// Parâmetros do primeiro conjunto do comando, com os valores de CPF ocultados
+	private final String parametros;
+
+	// Quantidade de conjuntos de parâmetros executados (maior que 1 em lotes)
+	private final int execucoes;
+
+	// Métodos do controller e do serviço que originaram o comando
+	private final String origem;
+}
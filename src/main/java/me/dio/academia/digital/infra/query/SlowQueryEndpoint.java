@@ -0,0 +1,99 @@
+package me.dio.academia.digital.infra.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoint do actuator (<code>/actuator/slowqueries</code>) com os formatos de comando SQL mais
+ * lentos desde a inicialização, ordenados pelo tempo total gasto.
+ *
+ * São mantidos no máximo <code>academia.consultas.lentas.max-formatos</code> formatos; comandos
+ * de formatos novos além desse limite são apenas contabilizados em <code>descartados</code>.
+ * Uma requisição DELETE reinicia a contagem.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+	@Value("${academia.consultas.lentas.top:20}")
+	private int top;
+
+	@Value("${academia.consultas.lentas.max-formatos:1000}")
+	private int maxFormatos;
+
+	private final Map<String, Agregado> formatos = new ConcurrentHashMap<>();
+
+	private final LongAdder descartados = new LongAdder();
+
+	void registrar(String formato, long duracaoMs) {
+		Agregado agregado = formatos.get(formato);
+		if (agregado == null) {
+			if (formatos.size() >= maxFormatos) {
+				descartados.increment();
+				return;
+			}
+			agregado = formatos.computeIfAbsent(formato, chave -> new Agregado());
+		}
+		agregado.execucoes.increment();
+		agregado.totalMs.add(duracaoMs);
+		agregado.maximoMs.accumulateAndGet(duracaoMs, Math::max);
+	}
+
+	@ReadOperation
+	public Ranking slowQueries(@Nullable Integer limite) {
+		List<Formato> maisLentos = formatos.entrySet().stream()
+				.map(entry -> new Formato(entry.getKey(), entry.getValue().execucoes.sum(),
+						entry.getValue().totalMs.sum(), entry.getValue().maximoMs.get()))
+				.sorted(Comparator.comparingLong(Formato::getTotalMs).reversed())
+				.limit(limite != null ? limite : top)
+				.collect(Collectors.toList());
+		return new Ranking(formatos.size(), descartados.sum(), maisLentos);
+	}
+
+	@DeleteOperation
+	public void reiniciar() {
+		formatos.clear();
+		descartados.reset();
+	}
+
+	private static class Agregado {
+		private final LongAdder execucoes = new LongAdder();
+		private final LongAdder totalMs = new LongAdder();
+		private final AtomicLong maximoMs = new AtomicLong();
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class Ranking {
+		private final int formatos;
+		private final long descartados;
+		private final List<Formato> maisLentos;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class Formato {
+		private final String sql;
+		private final long execucoes;
+		private final long totalMs;
+		private final long maximoMs;
+
+		public double getMediaMs() {
+			return execucoes == 0 ? 0 : (double) totalMs / execucoes;
+		}
+	}
+}
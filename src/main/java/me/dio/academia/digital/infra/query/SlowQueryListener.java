@@ -0,0 +1,154 @@
+package me.dio.academia.digital.infra.query;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Identifica os comandos SQL que excedem <code>academia.consultas.lentas.limite-ms</code>.
+ *
+ * Todo comando lento é contabilizado no {@link SlowQueryEndpoint}, agrupado pelo formato. Uma
+ * amostra deles, na proporção de <code>academia.consultas.lentas.taxa-amostragem</code>, é
+ * registrada no log com os parâmetros (com os valores das colunas de CPF ocultados) e os métodos
+ * do controller e do serviço que o originaram. A escrita do log é feita pelo {@link SlowQueryLogger},
+ * fora da thread da requisição.
+ */
+@Component
+public class SlowQueryListener implements QueryExecutionListener {
+
+	private static final String PACOTE = "me.dio.academia.digital.";
+
+	private static final String OCULTO = "***";
+
+	private static final int TAMANHO_MAXIMO_VALOR = 64;
+
+	private static final Pattern INSERT = Pattern.compile(
+			"^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+	// Parâmetro comparado a uma coluna de CPF: "cpf=?", "a.cpf <> ?", "cpf in (?, ?" ...
+	private static final Pattern COMPARACAO_CPF = Pattern.compile(
+			"\\w*cpf\\w*\\s*(=|<>|!=|like|in\\s*\\((\\s*\\?\\s*,)*)\\s*$", Pattern.CASE_INSENSITIVE);
+
+	@Value("${academia.consultas.lentas.limite-ms:200}")
+	private long limiteMs;
+
+	@Value("${academia.consultas.lentas.taxa-amostragem:1.0}")
+	private double taxaAmostragem;
+
+	@Autowired
+	private SlowQueryLogger logger;
+
+	@Autowired
+	private SlowQueryEndpoint ranking;
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long duracaoMs = execInfo.getElapsedTime();
+		if (duracaoMs < limiteMs) {
+			return;
+		}
+		for (QueryInfo queryInfo : queryInfoList) {
+			ranking.registrar(QueryStats.formato(queryInfo.getQuery()), duracaoMs);
+		}
+		if (taxaAmostragem < 1.0 && ThreadLocalRandom.current().nextDouble() >= taxaAmostragem) {
+			return;
+		}
+		String origem = origem();
+		for (QueryInfo queryInfo : queryInfoList) {
+			List<List<ParameterSetOperation>> parametros = queryInfo.getParametersList();
+			logger.registrar(new SlowQuery(Instant.now(), duracaoMs, queryInfo.getQuery(),
+					parametros.isEmpty() ? "[]" : parametros(queryInfo.getQuery(), parametros.get(0)),
+					Math.max(1, parametros.size()), origem));
+		}
+	}
+
+	/**
+	 * Formata os parâmetros de um comando, substituindo os valores associados a colunas de CPF.
+	 */
+	static String parametros(String sql, List<ParameterSetOperation> operacoes) {
+		Set<Integer> ocultos = posicoesDeCpf(sql);
+		StringJoiner joiner = new StringJoiner(", ", "[", "]");
+		operacoes.stream()
+				.filter(operacao -> operacao.getArgs().length > 0 && operacao.getArgs()[0] instanceof Integer)
+				.sorted(Comparator.comparingInt(operacao -> (Integer) operacao.getArgs()[0]))
+				.forEach(operacao -> {
+					int posicao = (Integer) operacao.getArgs()[0];
+					joiner.add(posicao + "=" + (ocultos.contains(posicao) ? OCULTO : valor(operacao)));
+				});
+		return joiner.toString();
+	}
+
+	/**
+	 * Retorna as posições (a partir de 1) dos parâmetros do comando associados a colunas de CPF.
+	 */
+	static Set<Integer> posicoesDeCpf(String sql) {
+		Set<Integer> posicoes = new HashSet<>();
+		Matcher insert = INSERT.matcher(sql);
+		if (insert.find()) {
+			String[] colunas = insert.group(1).split(",");
+			for (int i = 0; i < colunas.length; i++) {
+				if (colunas[i].trim().toLowerCase().contains("cpf")) {
+					posicoes.add(i + 1);
+				}
+			}
+			return posicoes;
+		}
+		int posicao = 0;
+		for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+			posicao++;
+			if (COMPARACAO_CPF.matcher(sql.substring(Math.max(0, i - 200), i)).find()) {
+				posicoes.add(posicao);
+			}
+		}
+		return posicoes;
+	}
+
+	private static String valor(ParameterSetOperation operacao) {
+		if (ParameterSetOperation.isSetNullParameterOperation(operacao) || operacao.getArgs().length < 2) {
+			return "null";
+		}
+		String valor = String.valueOf(operacao.getArgs()[1]);
+		return valor.length() > TAMANHO_MAXIMO_VALOR ? valor.substring(0, TAMANHO_MAXIMO_VALOR) + "..." : valor;
+	}
+
+	/**
+	 * Retorna os métodos do controller e do serviço da aplicação que estão executando o comando.
+	 */
+	private static String origem() {
+		List<String> metodos = StackWalker.getInstance().walk(frames -> frames
+				.filter(frame -> frame.getClassName().startsWith(PACOTE)
+						&& (frame.getClassName().contains(".controller.") || frame.getClassName().contains(".service."))
+						&& !frame.getClassName().contains("$$"))
+				.map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+						+ "." + frame.getMethodName())
+				.distinct()
+				.collect(Collectors.toList()));
+		if (metodos.isEmpty()) {
+			return "desconhecida";
+		}
+		List<String> chamada = new ArrayList<>(metodos);
+		Collections.reverse(chamada);
+		return String.join(" > ", chamada);
+	}
+}
@@ -0,0 +1,70 @@
+package me.dio.academia.digital.infra.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escreve o log de comandos lentos em uma thread própria.
+ *
+ * A thread da requisição apenas enfileira o registro, sem bloquear: se a fila de
+ * <code>academia.consultas.lentas.capacidade-fila</code> posições estiver cheia, o registro é
+ * descartado e contabilizado, e a quantidade de descartes é informada no próximo registro escrito.
+ */
+@Component
+public class SlowQueryLogger {
+
+	private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+	@Value("${academia.consultas.lentas.capacidade-fila:1000}")
+	private int capacidadeFila;
+
+	private final AtomicLong descartados = new AtomicLong();
+
+	private BlockingQueue<SlowQuery> fila;
+
+	private Thread escritor;
+
+	@PostConstruct
+	void iniciar() {
+		fila = new ArrayBlockingQueue<>(capacidadeFila);
+		escritor = new Thread(this::escrever, "slow-query-log");
+		escritor.setDaemon(true);
+		escritor.start();
+	}
+
+	@PreDestroy
+	void encerrar() {
+		escritor.interrupt();
+	}
+
+	void registrar(SlowQuery consulta) {
+		if (!fila.offer(consulta)) {
+			descartados.incrementAndGet();
+		}
+	}
+
+	private void escrever() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				SlowQuery consulta = fila.take();
+				long perdidos = descartados.getAndSet(0);
+				if (perdidos > 0) {
+					log.warn("consulta-lenta descartados={}", perdidos);
+				}
+				log.warn("consulta-lenta duracaoMs={} execucoes={} origem={} sql=\"{}\" parametros={}",
+						consulta.getDuracaoMs(), consulta.getExecucoes(), consulta.getOrigem(),
+						consulta.getSql(), consulta.getParametros());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package me.dio.academia.digital.infra.utils;
+
+/**
+ * Utilitários para números de CPF.
+ */
+public class CpfUtils {
+
+	private CpfUtils() {}
+
+	/**
+	 * Converte um CPF, com ou sem pontuação, para o número formado pelos seus 11 dígitos.
+	 * É a chave normalizada usada nas buscas e na verificação de CPFs repetidos, de modo que
+	 * "529.982.247-25" e "52998224725" correspondem ao mesmo aluno.
+	 *
+	 * @param cpf - o CPF informado.
+	 * @return - o número do CPF, ou null se o texto não tiver exatamente 11 dígitos.
+	 */
+	public static Long paraNumero(String cpf) {
+		if (cpf == null) {
+			return null;
+		}
+		long numero = 0;
+		int digitos = 0;
+		for (int i = 0; i < cpf.length(); i++) {
+			char c = cpf.charAt(i);
+			if (c >= '0' && c <= '9') {
+				numero = numero * 10 + (c - '0');
+				digitos++;
+			} else if (c != '.' && c != '-' && c != ' ') {
+				return null;
+			}
+		}
+		return digitos == 11 ? numero : null;
+	}
+
+	/**
+	 * Completa os 9 primeiros dígitos de um CPF com os 2 dígitos verificadores.
+	 *
+	 * @param base - os 9 primeiros dígitos, entre 0 e 999.999.999.
+	 * @return - o CPF com 11 dígitos, sem pontuação.
+	 */
+	public static String comDigitosVerificadores(long base) {
+		if (base < 0 || base > 999_999_999L) {
+			throw new IllegalArgumentException("Base de CPF inválida: " + base);
+		}
+		char[] digitos = new char[11];
+		for (int i = 8; i >= 0; i--) {
+			digitos[i] = (char) ('0' + base % 10);
+			base /= 10;
+		}
+		digitos[9] = digitoVerificador(digitos, 9);
+		digitos[10] = digitoVerificador(digitos, 10);
+		return new String(digitos);
+	}
+
+	private static char digitoVerificador(char[] digitos, int quantidade) {
+		int soma = 0;
+		for (int i = 0; i < quantidade; i++) {
+			soma += (digitos[i] - '0') * (quantidade + 1 - i);
+		}
+		int resto = soma % 11;
+		return (char) ('0' + (resto < 2 ? 0 : 11 - resto));
+	}
+}
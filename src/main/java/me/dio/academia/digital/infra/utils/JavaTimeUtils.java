@@ -1,5 +1,8 @@
 package me.dio.academia.digital.infra.utils;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
@@ -15,4 +18,116 @@ public class JavaTimeUtils {
 	public static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss", LOCALE_BR);
 	public static final DateTimeFormatter LOCAL_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy", LOCALE_BR);
 
+	/** Tamanho de uma data no formato dd/MM/yyyy. */
+	public static final int LOCAL_DATE_LENGTH = 10;
+
+	/** Tamanho de uma data e hora no formato dd/MM/yyyy HH:mm:ss. */
+	public static final int LOCAL_DATE_TIME_LENGTH = 19;
+
+	/**
+	 * Escreve a data no formato dd/MM/yyyy, a partir da posição informada do buffer.
+	 * Equivale a {@link #LOCAL_DATE_FORMATTER}, sem criar Strings intermediárias.
+	 *
+	 * @return false se o ano não tiver 4 dígitos; nesse caso use o {@link #LOCAL_DATE_FORMATTER}.
+	 */
+	public static boolean escreverData(LocalDate data, char[] buffer, int inicio) {
+		int ano = data.getYear();
+		if (ano < 1000 || ano > 9999) {
+			return false;
+		}
+		escreverDoisDigitos(data.getDayOfMonth(), buffer, inicio);
+		buffer[inicio + 2] = '/';
+		escreverDoisDigitos(data.getMonthValue(), buffer, inicio + 3);
+		buffer[inicio + 5] = '/';
+		escreverDoisDigitos(ano / 100, buffer, inicio + 6);
+		escreverDoisDigitos(ano % 100, buffer, inicio + 8);
+		return true;
+	}
+
+	/**
+	 * Escreve a data e hora no formato dd/MM/yyyy HH:mm:ss, a partir da posição informada do buffer.
+	 * Equivale a {@link #LOCAL_DATE_TIME_FORMATTER}, sem criar Strings intermediárias.
+	 *
+	 * @return false se o ano não tiver 4 dígitos; nesse caso use o {@link #LOCAL_DATE_TIME_FORMATTER}.
+	 */
+	public static boolean escreverDataHora(LocalDateTime dataHora, char[] buffer, int inicio) {
+		if (!escreverData(dataHora.toLocalDate(), buffer, inicio)) {
+			return false;
+		}
+		buffer[inicio + 10] = ' ';
+		escreverDoisDigitos(dataHora.getHour(), buffer, inicio + 11);
+		buffer[inicio + 13] = ':';
+		escreverDoisDigitos(dataHora.getMinute(), buffer, inicio + 14);
+		buffer[inicio + 16] = ':';
+		escreverDoisDigitos(dataHora.getSecond(), buffer, inicio + 17);
+		return true;
+	}
+
+	/**
+	 * Lê uma data no formato dd/MM/yyyy diretamente do buffer.
+	 * Entradas fora do formato exato, ou datas que o {@link #LOCAL_DATE_FORMATTER} ajustaria
+	 * (como 31/02), são repassadas ao formatter, mantendo o mesmo resultado e as mesmas exceções.
+	 */
+	public static LocalDate lerData(char[] buffer, int inicio, int tamanho) {
+		if (tamanho == LOCAL_DATE_LENGTH) {
+			LocalDate data = lerDataRapido(buffer, inicio);
+			if (data != null) {
+				return data;
+			}
+		}
+		return LocalDate.parse(new String(buffer, inicio, tamanho), LOCAL_DATE_FORMATTER);
+	}
+
+	/**
+	 * Lê uma data e hora no formato dd/MM/yyyy HH:mm:ss diretamente do buffer.
+	 * Entradas fora do formato exato são repassadas ao {@link #LOCAL_DATE_TIME_FORMATTER},
+	 * mantendo o mesmo resultado e as mesmas exceções.
+	 */
+	public static LocalDateTime lerDataHora(char[] buffer, int inicio, int tamanho) {
+		if (tamanho == LOCAL_DATE_TIME_LENGTH && buffer[inicio + 10] == ' '
+				&& buffer[inicio + 13] == ':' && buffer[inicio + 16] == ':') {
+			LocalDate data = lerDataRapido(buffer, inicio);
+			int hora = lerDoisDigitos(buffer, inicio + 11);
+			int minuto = lerDoisDigitos(buffer, inicio + 14);
+			int segundo = lerDoisDigitos(buffer, inicio + 17);
+			if (data != null && hora >= 0 && hora < 24 && minuto >= 0 && minuto < 60 && segundo >= 0 && segundo < 60) {
+				return LocalDateTime.of(data.getYear(), data.getMonthValue(), data.getDayOfMonth(), hora, minuto, segundo);
+			}
+		}
+		return LocalDateTime.parse(new String(buffer, inicio, tamanho), LOCAL_DATE_TIME_FORMATTER);
+	}
+
+	private static LocalDate lerDataRapido(char[] buffer, int inicio) {
+		if (buffer[inicio + 2] != '/' || buffer[inicio + 5] != '/') {
+			return null;
+		}
+		int dia = lerDoisDigitos(buffer, inicio);
+		int mes = lerDoisDigitos(buffer, inicio + 3);
+		int seculo = lerDoisDigitos(buffer, inicio + 6);
+		int anoDoSeculo = lerDoisDigitos(buffer, inicio + 8);
+		if (dia < 1 || mes < 1 || mes > 12 || seculo < 0 || anoDoSeculo < 0) {
+			return null;
+		}
+		int ano = seculo * 100 + anoDoSeculo;
+		try {
+			return ano == 0 ? null : LocalDate.of(ano, mes, dia);
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	private static int lerDoisDigitos(char[] buffer, int inicio) {
+		int dezena = buffer[inicio] - '0';
+		int unidade = buffer[inicio + 1] - '0';
+		if (dezena < 0 || dezena > 9 || unidade < 0 || unidade > 9) {
+			return -1;
+		}
+		return dezena * 10 + unidade;
+	}
+
+	private static void escreverDoisDigitos(int valor, char[] buffer, int inicio) {
+		buffer[inicio] = (char) ('0' + valor / 10);
+		buffer[inicio + 1] = (char) ('0' + valor % 10);
+	}
+
 }
@@ -0,0 +1,112 @@
+package me.dio.academia.digital.infra.utils;
+
+/**
+ * Conjunto de números positivos do tipo <code>long</code>, armazenados diretamente em um vetor
+ * (endereçamento aberto com sondagem linear), sem criar um objeto por elemento como um
+ * <code>HashSet&lt;Long&gt;</code>. O valor 0 é reservado para as posições vazias.
+ *
+ * Não é thread-safe.
+ */
+public class LongHashSet {
+
+	private static final double CARGA_MAXIMA = 0.7;
+
+	private long[] elementos;
+
+	private int mascara;
+
+	private int tamanho;
+
+	public LongHashSet(int capacidadeInicial) {
+		int capacidade = Integer.highestOneBit(Math.max(16, (int) (capacidadeInicial / CARGA_MAXIMA)) - 1) << 1;
+		elementos = new long[capacidade];
+		mascara = capacidade - 1;
+	}
+
+	public boolean add(long valor) {
+		verificar(valor);
+		int posicao = posicao(valor);
+		while (elementos[posicao] != 0) {
+			if (elementos[posicao] == valor) {
+				return false;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		elementos[posicao] = valor;
+		if (++tamanho > elementos.length * CARGA_MAXIMA) {
+			redimensionar();
+		}
+		return true;
+	}
+
+	public boolean contains(long valor) {
+		if (valor <= 0) {
+			return false;
+		}
+		int posicao = posicao(valor);
+		while (elementos[posicao] != 0) {
+			if (elementos[posicao] == valor) {
+				return true;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		return false;
+	}
+
+	public boolean remove(long valor) {
+		if (valor <= 0) {
+			return false;
+		}
+		int posicao = posicao(valor);
+		while (elementos[posicao] != valor) {
+			if (elementos[posicao] == 0) {
+				return false;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		// Desloca para trás os elementos seguintes da sequência, para não deixar lacunas na sondagem
+		int vazia = posicao;
+		int proxima = (vazia + 1) & mascara;
+		while (elementos[proxima] != 0) {
+			int ideal = posicao(elementos[proxima]);
+			if (((proxima - ideal) & mascara) >= ((proxima - vazia) & mascara)) {
+				elementos[vazia] = elementos[proxima];
+				vazia = proxima;
+			}
+			proxima = (proxima + 1) & mascara;
+		}
+		elementos[vazia] = 0;
+		tamanho--;
+		return true;
+	}
+
+	public int size() {
+		return tamanho;
+	}
+
+	private int posicao(long valor) {
+		long h = valor * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mascara;
+	}
+
+	private void redimensionar() {
+		long[] anteriores = elementos;
+		elementos = new long[anteriores.length * 2];
+		mascara = elementos.length - 1;
+		for (long valor : anteriores) {
+			if (valor != 0) {
+				int posicao = posicao(valor);
+				while (elementos[posicao] != 0) {
+					posicao = (posicao + 1) & mascara;
+				}
+				elementos[posicao] = valor;
+			}
+		}
+	}
+
+	private static void verificar(long valor) {
+		if (valor <= 0) {
+			throw new IllegalArgumentException("Somente valores positivos são aceitos: " + valor);
+		}
+	}
+}
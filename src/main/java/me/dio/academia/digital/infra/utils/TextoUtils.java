@@ -0,0 +1,46 @@
+package me.dio.academia.digital.infra.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitários para comparação de textos digitados pelos usuários, como nomes e bairros.
+ */
+public class TextoUtils {
+
+	private static final String[] SEM_TOKENS = new String[0];
+
+	private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+	private TextoUtils() {}
+
+	/**
+	 * Normaliza um texto para comparação: sem acentos, em minúsculas e com qualquer sequência de
+	 * caracteres que não sejam letras ou dígitos substituída por um espaço. Assim, "João  D'Ávila"
+	 * e "joao d avila" resultam no mesmo texto.
+	 *
+	 * @param texto - o texto informado.
+	 * @return - o texto normalizado, ou uma string vazia se o texto for nulo.
+	 */
+	public static String normalizar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+		String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	/**
+	 * Divide um texto normalizado com {@link #normalizar(String)} em palavras.
+	 *
+	 * @param texto - o texto informado.
+	 * @return - as palavras do texto, na ordem em que aparecem.
+	 */
+	public static String[] palavras(String texto) {
+		String normalizado = normalizar(texto);
+		return normalizado.isEmpty() ? SEM_TOKENS : normalizado.split(" ");
+	}
+}
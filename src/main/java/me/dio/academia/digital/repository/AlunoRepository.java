@@ -1,9 +1,66 @@
 package me.dio.academia.digital.repository;
 
 import me.dio.academia.digital.entity.Aluno;
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AlunoRepository extends JpaRepository<Aluno, Long> {
+
+  String SELECT_DTO = "select new me.dio.academia.digital.entity.dto.AlunoDTO(" +
+          "a.id, a.nome, a.cpf, a.bairro, a.dataDeNascimento, a.versao) from Aluno a ";
+
+  /**
+   * Retorna os dados de um aluno sem carregar a entidade nem seus relacionamentos.
+   */
+  @Query(SELECT_DTO + "where a.id = :id")
+  Optional<AlunoDTO> findDTOById(@Param("id") Long id);
+
+  /**
+   * Retorna a primeira página de alunos ordenados por (nome, id).
+   * O tamanho da página é definido pelo {@link Pageable} informado.
+   */
+  @Query(SELECT_DTO + "order by a.nome asc, a.id asc")
+  List<AlunoDTO> findFirstPage(Pageable pageable);
+
+  /**
+   * Retorna os alunos posicionados após o par (nome, id) informado, seguindo a ordenação
+   * por (nome, id). A condição <code>a.nome &gt;= :nome</code> é redundante, mas permite que
+   * o banco utilize o índice <code>idx_alunos_nome_id</code> como limite inferior da busca.
+   */
+  @Query(SELECT_DTO + "where a.nome >= :nome and (a.nome > :nome or a.id > :id) " +
+          "order by a.nome asc, a.id asc")
+  List<AlunoDTO> findPageAfter(@Param("nome") String nome, @Param("id") Long id, Pageable pageable);
+
+  /**
+   * Retorna os dados dos alunos com os ids informados, sem ordem definida.
+   */
+  @Query(SELECT_DTO + "where a.id in :ids")
+  List<AlunoDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Retorna os dados do aluno com o CPF informado, já normalizado como número.
+   */
+  @Query(SELECT_DTO + "where a.cpfNumero = :cpf")
+  Optional<AlunoDTO> findDTOByCpfNumero(@Param("cpf") Long cpf);
+
+  /**
+   * Retorna, dentre os CPFs informados (normalizados como número), aqueles que já estão cadastrados.
+   */
+  @Query("select a.cpfNumero from Aluno a where a.cpfNumero in :cpfs")
+  List<Long> findExistingCpfNumeros(@Param("cpfs") Collection<Long> cpfs);
+
+  /**
+   * Retorna, dentre os ids informados, aqueles que pertencem a alunos cadastrados.
+   */
+  @Query("select a.id from Aluno a where a.id in :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
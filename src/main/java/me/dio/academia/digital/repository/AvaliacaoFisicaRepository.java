@@ -1,9 +1,26 @@
 package me.dio.academia.digital.repository;
 
 import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 
 /**
  * Repositório responsável pelas operações de persistência da entidade {@link AvaliacaoFisica}.
@@ -15,6 +32,13 @@ import org.springframework.stereotype.Repository;
  * Extende a interface {@link JpaRepository}, que fornece uma implementação padrão
  * para operações CRUD (Create, Read, Update, Delete) e paginação.
  *
+ * No PostgreSQL, <code>tb_avaliacoes</code> é particionada por mês de <code>data_da_avaliacao</code>
+ * ({@link me.dio.academia.digital.infra.particionamento.ParticoesDeAvaliacoes}). As consultas por
+ * período comparam a própria coluna com os limites, sem funções ou conversões sobre ela, para que o
+ * planejador consulte apenas as partições do período, inclusive com os limites informados como
+ * parâmetros (poda em tempo de execução). As consultas sem período percorrem os índices de todas as
+ * partições.
+ *
  * O Spring Data JPA gerenciará automaticamente a implementação dessa interface em
  * tempo de execução.
  *
@@ -31,4 +55,79 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AvaliacaoFisicaRepository extends JpaRepository<AvaliacaoFisica, Long> {
+
+  String SELECT_DTO = "select new me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO(" +
+          "a.id, a.aluno.id, a.dataDaAvaliacao, a.peso, a.altura, a.versao) from AvaliacaoFisica a ";
+
+  String ORDER_BY_MAIS_RECENTES = " order by a.dataDaAvaliacao desc, a.id desc";
+
+  /**
+   * Lista as avaliações de um aluno, das mais recentes para as mais antigas.
+   * Percorre o índice <code>idx_avaliacoes_aluno_data</code> na ordem inversa, sem acessar a tabela.
+   */
+  @Query(SELECT_DTO + "where a.aluno.id = :alunoId" + ORDER_BY_MAIS_RECENTES)
+  Slice<AvaliacaoFisicaDTO> findByAluno(@Param("alunoId") Long alunoId, Pageable pageable);
+
+  /**
+   * Lista as avaliações de um aluno realizadas no período [inicio, fim), das mais recentes
+   * para as mais antigas. Consulta apenas as partições do período.
+   */
+  @Query(SELECT_DTO + "where a.aluno.id = :alunoId and a.dataDaAvaliacao >= :inicio and a.dataDaAvaliacao < :fim"
+          + ORDER_BY_MAIS_RECENTES)
+  Slice<AvaliacaoFisicaDTO> findByAlunoAndPeriodo(@Param("alunoId") Long alunoId,
+                                                  @Param("inicio") LocalDateTime inicio,
+                                                  @Param("fim") LocalDateTime fim,
+                                                  Pageable pageable);
+
+  /**
+   * Lista as avaliações realizadas no período [inicio, fim), das mais recentes para as mais antigas.
+   * Consulta apenas as partições do período.
+   */
+  @Query(SELECT_DTO + "where a.dataDaAvaliacao >= :inicio and a.dataDaAvaliacao < :fim" + ORDER_BY_MAIS_RECENTES)
+  Slice<AvaliacaoFisicaDTO> findByPeriodo(@Param("inicio") LocalDateTime inicio,
+                                          @Param("fim") LocalDateTime fim,
+                                          Pageable pageable);
+
+  /**
+   * Lista todas as avaliações, das mais recentes para as mais antigas.
+   */
+  @Query(SELECT_DTO + ORDER_BY_MAIS_RECENTES)
+  Slice<AvaliacaoFisicaDTO> findAllDTO(Pageable pageable);
+
+  /**
+   * Retorna os dados de uma avaliação física sem carregar a entidade nem o aluno associado.
+   */
+  @Query(SELECT_DTO + "where a.id = :id")
+  Optional<AvaliacaoFisicaDTO> findDTOById(@Param("id") Long id);
+
+  /**
+   * Exclui uma avaliação física com um único comando, sem carregar a entidade nem o aluno associado.
+   *
+   * @return a quantidade de avaliações excluídas (0 ou 1).
+   */
+  @Modifying
+  @Query("delete from AvaliacaoFisica a where a.id = :id")
+  int deleteDirectlyById(@Param("id") Long id);
+
+  /**
+   * Lista todas as avaliações de um aluno em ordem cronológica.
+   */
+  @Query(SELECT_DTO + "where a.aluno.id = :alunoId order by a.dataDaAvaliacao asc, a.id asc")
+  List<AvaliacaoFisicaDTO> findAllByAluno(@Param("alunoId") Long alunoId);
+
+  /**
+   * Percorre todas as avaliações físicas através de um cursor do banco de dados.
+   *
+   * <p>O driver busca os registros em blocos de 1000 linhas, em vez de
+   * carregar o resultado inteiro em memória. Como o resultado é uma projeção, nenhuma entidade
+   * é mantida no contexto de persistência. O {@link Stream} retornado deve ser consumido
+   * dentro de uma transação e fechado ao final.</p>
+   */
+  @QueryHints({
+          @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+          @QueryHint(name = HINT_READONLY, value = "true"),
+          @QueryHint(name = HINT_CACHEABLE, value = "false")
+  })
+  @Query(SELECT_DTO)
+  Stream<AvaliacaoFisicaDTO> streamAll();
 }
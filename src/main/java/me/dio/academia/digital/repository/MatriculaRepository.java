@@ -1,9 +1,29 @@
 package me.dio.academia.digital.repository;
 
 import me.dio.academia.digital.entity.Matricula;
+import me.dio.academia.digital.entity.dto.MatriculaDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
+
+  String SELECT_DTO = "select new me.dio.academia.digital.entity.dto.MatriculaDTO(" +
+          "m.id, m.aluno.id, m.dataDaMatricula, m.versao) from Matricula m ";
+
+  /**
+   * Retorna os dados da matrícula com o id informado, sem carregar o aluno.
+   */
+  @Query(SELECT_DTO + "where m.id = :id")
+  Optional<MatriculaDTO> findDTOById(@Param("id") Long id);
+
+  /**
+   * Retorna os dados da matrícula do aluno informado, sem carregar o aluno.
+   */
+  @Query(SELECT_DTO + "where m.aluno.id = :alunoId")
+  Optional<MatriculaDTO> findDTOByAlunoId(@Param("alunoId") Long alunoId);
 }
@@ -0,0 +1,12 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+
+public interface IAlunoMetricasService {
+  /**
+   * Retorna os indicadores de composição corporal de um Aluno (IMC, variação e tendência de peso).
+   * @param alunoId - id do Aluno.
+   * @return - os indicadores calculados a partir das Avaliações Físicas do Aluno.
+   */
+  AlunoMetricasDTO get(Long alunoId);
+}
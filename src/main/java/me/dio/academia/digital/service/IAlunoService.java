@@ -1,9 +1,11 @@
 package me.dio.academia.digital.service;
 
-import me.dio.academia.digital.entity.Aluno;
-import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.entity.dto.AlunoLoteResultado;
 import me.dio.academia.digital.entity.form.AlunoForm;
 import me.dio.academia.digital.entity.form.AlunoUpdateForm;
+import me.dio.academia.digital.infra.pagination.CursorPage;
 
 import java.util.List;
 
@@ -13,20 +15,37 @@ public interface IAlunoService {
    * @param form - formulário referente aos dados para criação de um Aluno no banco de dados.
    * @return - Aluno recém-criado.
    */
-  Aluno create(AlunoForm form);
+  AlunoDTO create(AlunoForm form);
+
+  /**
+   * Cria vários Alunos, salvando-os no banco de dados em lotes.
+   * Alunos inválidos ou com CPF já cadastrado são rejeitados sem interromper os demais.
+   * @param forms - formulários referentes aos dados para criação dos Alunos.
+   * @return - o resultado do cadastro de cada Aluno, na ordem em que foram enviados.
+   */
+  AlunoLoteResultado createBatch(List<AlunoForm> forms);
 
   /**
    * Retorna um Aluno que está no banco de dados de acordo com seu Id.
    * @param id - id do Aluno que será exibido.
    * @return - Aluno de acordo com o Id fornecido.
    */
-  Aluno get(Long id);
+  AlunoDTO get(Long id);
 
   /**
-   * Retorna todos os Alunos que estão no banco de dados.
-   * @return - Uma lista os Alunos que estão salvas no DB.
+   * Retorna um Aluno que está no banco de dados de acordo com seu CPF.
+   * @param cpf - CPF do Aluno, com ou sem pontuação.
+   * @return - Aluno de acordo com o CPF fornecido.
    */
-  List<Aluno> getAll();
+  AlunoDTO getByCpf(String cpf);
+
+  /**
+   * Retorna uma página de Alunos ordenados por nome, a partir da posição indicada pelo cursor.
+   * @param cursor - token retornado pela página anterior, ou null para iniciar a leitura.
+   * @param tamanho - quantidade de Alunos desejada, ou null para usar o tamanho padrão.
+   * @return - Uma página com os Alunos e o cursor para a próxima página.
+   */
+  CursorPage<AlunoDTO> getAll(String cursor, Integer tamanho);
 
   /**
    * Atualiza o Aluno.
@@ -35,7 +54,7 @@ public interface IAlunoService {
    * no banco de dados.
    * @return - Aluno recém-atualizado.
    */
-  Aluno update(Long id, AlunoUpdateForm formUpdate);
+  AlunoDTO update(Long id, AlunoUpdateForm formUpdate);
 
   /**
    * Deleta um Aluno específico.
@@ -50,5 +69,12 @@ public interface IAlunoService {
    * @param id - identificador único do Aluno cujas Avaliações Físicas serão retornadas.
    * @return - uma lista contendo as Avaliações Físicas vinculadas ao Aluno identificado pelo id fornecido.
    */
-  List<AvaliacaoFisica> getAllAvaliacaoFisica(Long id);
+  List<AvaliacaoFisicaDTO> getAllAvaliacaoFisica(Long id);
+
+  /**
+   * Retorna o ETag da lista de Avaliações Físicas de um Aluno, quando ela já foi lida e não mudou desde então.
+   * @param id - id do Aluno.
+   * @return - ETag da lista, ou null se não for conhecido.
+   */
+  String getEtagAvaliacoes(Long id);
 }
@@ -0,0 +1,28 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.ArquivamentoStatus;
+
+import java.util.Optional;
+
+public interface IAvaliacaoFisicaArquivamentoService {
+  /**
+   * Agenda o arquivamento das Avaliações Físicas realizadas há mais do que a quantidade de anos informada.
+   * @param anos - período de retenção, em anos; null para o período configurado.
+   * @return - o progresso do arquivamento agendado.
+   */
+  ArquivamentoStatus arquivar(Integer anos);
+
+  /**
+   * Retorna o progresso de um arquivamento.
+   * @param id - id do arquivamento.
+   * @return - o progresso do arquivamento, se existir.
+   */
+  Optional<ArquivamentoStatus> get(String id);
+
+  /**
+   * Solicita a interrupção de um arquivamento, que para após o bloco em andamento.
+   * @param id - id do arquivamento.
+   * @return - o progresso do arquivamento, se existir.
+   */
+  Optional<ArquivamentoStatus> cancelar(String id);
+}
@@ -0,0 +1,23 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.ImportacaoStatus;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface IAvaliacaoFisicaImportacaoService {
+  /**
+   * Agenda a importação de um arquivo CSV de Avaliações Físicas.
+   * @param arquivo - arquivo CSV com as colunas alunoId, peso, altura e dataDaAvaliacao.
+   * @param nomeOriginal - nome do arquivo enviado, usado apenas para identificação.
+   * @return - o progresso da importação agendada.
+   */
+  ImportacaoStatus importar(Path arquivo, String nomeOriginal);
+
+  /**
+   * Retorna o progresso de uma importação.
+   * @param id - id da importação.
+   * @return - o progresso da importação, se existir.
+   */
+  Optional<ImportacaoStatus> get(String id);
+}
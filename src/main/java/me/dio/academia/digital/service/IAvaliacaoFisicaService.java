@@ -1,10 +1,14 @@
 package me.dio.academia.digital.service;
 
-import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaForm;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaUpdateForm;
 
-import java.util.List;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 
 public interface IAvaliacaoFisicaService {
   /**
@@ -12,20 +16,33 @@ public interface IAvaliacaoFisicaService {
    * @param form - formulário referente aos dados para criação da Avaliação Física no banco de dados.
    * @return - Avaliação Física recém-criada.
    */
-  AvaliacaoFisica create(AvaliacaoFisicaForm form);
+  AvaliacaoFisicaDTO create(AvaliacaoFisicaForm form);
 
   /**
    * Retorna uma Avaliação Física que está no banco de dados de acordo com seu Id.
    * @param id - id da Avaliação Física que será exibida.
    * @return - Avaliação Física de acordo com o Id fornecido.
    */
-  AvaliacaoFisica get(Long id);
+  AvaliacaoFisicaDTO get(Long id);
+
+  /**
+   * Retorna uma página de Avaliações Físicas, das mais recentes para as mais antigas,
+   * opcionalmente filtradas por Aluno e/ou por período.
+   * @param alunoId - id do Aluno avaliado, ou null para todos os Alunos.
+   * @param de - primeiro dia do período (inclusive), ou null para não limitar o início.
+   * @param ate - último dia do período (inclusive), ou null para não limitar o fim.
+   * @param pagina - número da página, a partir de 0.
+   * @param tamanho - quantidade de Avaliações Físicas por página, ou null para o tamanho padrão.
+   * @return - Uma página com as Avaliações Físicas encontradas.
+   */
+  Slice<AvaliacaoFisicaDTO> getAll(Long alunoId, LocalDate de, LocalDate ate, int pagina, Integer tamanho);
 
   /**
-   * Retorna todas as Avaliações Física que estão no banco de dados.
-   * @return - Uma lista com todas as Avaliações Física que estão salvas no DB.
+   * Escreve todas as Avaliações Físicas no formato NDJSON (um objeto JSON por linha).
+   * @param saida - stream de saída onde as Avaliações Físicas serão escritas.
+   * @return - quantidade de Avaliações Físicas exportadas.
    */
-  List<AvaliacaoFisica> getAll();
+  long exportar(OutputStream saida) throws IOException;
 
   /**
    * Atualiza a avaliação física.
@@ -34,7 +51,7 @@ public interface IAvaliacaoFisicaService {
    * Física no banco de dados.
    * @return - Avaliação Física recém-atualizada.
    */
-  AvaliacaoFisica update(Long id, AvaliacaoFisicaUpdateForm formUpdate);
+  AvaliacaoFisicaDTO update(Long id, AvaliacaoFisicaUpdateForm formUpdate);
 
   /**
    * Deleta uma Avaliação Física específica.
@@ -0,0 +1,16 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+
+import java.util.List;
+
+public interface IBuscaAlunosService {
+  /**
+   * Busca Alunos pelo nome, por prefixo e por aproximação, sem diferenciar acentos e maiúsculas.
+   * @param nome - uma ou mais palavras (ou inícios de palavras) do nome do Aluno, em qualquer ordem.
+   * @param bairro - bairro dos Alunos, ou null para não filtrar.
+   * @param limite - quantidade máxima de Alunos, ou null para usar o limite padrão.
+   * @return - os Alunos encontrados, dos mais para os menos relevantes.
+   */
+  List<AlunoDTO> buscar(String nome, String bairro, Integer limite);
+}
@@ -0,0 +1,21 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.PresencaDTO;
+import me.dio.academia.digital.entity.form.CheckInForm;
+
+import java.util.List;
+
+public interface ICheckInService {
+  /**
+   * Registra a passagem de um aluno pela catraca. A gravação no banco de dados é feita em segundo plano.
+   * @param form - formulário com a matrícula, o sentido da passagem e a catraca.
+   */
+  void registrar(CheckInForm form);
+
+  /**
+   * Retorna os alunos presentes na academia, dos que entraram há mais tempo para os mais recentes.
+   * @return - lista com a matrícula, a catraca e o horário de entrada de cada aluno presente.
+   */
+  List<PresencaDTO> getPresentes();
+
+}
@@ -0,0 +1,26 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.HistoricoDTO;
+import me.dio.academia.digital.entity.dto.TendenciaDTO;
+
+import java.time.LocalDate;
+
+public interface IHistoricoAvaliacoesService {
+  /**
+   * Retorna o histórico de peso e altura de um Aluno em um período.
+   * @param alunoId - id do Aluno.
+   * @param de - primeiro dia do período (inclusive), ou null para não limitar o início.
+   * @param ate - último dia do período (inclusive), ou null para não limitar o fim.
+   * @return - o histórico do Aluno no período, em formato colunar.
+   */
+  HistoricoDTO getHistorico(Long alunoId, LocalDate de, LocalDate ate);
+
+  /**
+   * Retorna a tendência do peso de um Aluno em um período.
+   * @param alunoId - id do Aluno.
+   * @param de - primeiro dia do período (inclusive), ou null para não limitar o início.
+   * @param ate - último dia do período (inclusive), ou null para não limitar o fim.
+   * @return - a tendência do peso do Aluno no período.
+   */
+  TendenciaDTO getTendencia(Long alunoId, LocalDate de, LocalDate ate);
+}
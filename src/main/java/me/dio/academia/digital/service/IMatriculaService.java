@@ -1,35 +1,36 @@
 package me.dio.academia.digital.service;
 
-import me.dio.academia.digital.entity.Matricula;
+import me.dio.academia.digital.entity.dto.MatriculaDTO;
 import me.dio.academia.digital.entity.form.MatriculaForm;
 
-import java.util.List;
-
 public interface IMatriculaService {
   /**
-   * Cria uma Matrícula e salva no banco de dados.
+   * Cria uma Matrícula e salva no banco de dados. Cada aluno possui no máximo uma Matrícula.
    * @param form - formulário referente aos dados para criação da Matrícula no banco de dados.
-   * @return - Matrícula recém-criada.
+   * @param chaveIdempotencia - chave que identifica as repetições da mesma requisição (opcional).
+   * @return - Matrícula recém-criada, ou a criada pela primeira requisição com a mesma chave.
    */
-  Matricula create(MatriculaForm form);
+  MatriculaDTO create(MatriculaForm form, String chaveIdempotencia);
 
   /**
    * Retorna uma Matrícula que está no banco de dados de acordo com seu Id.
    * @param id - id da Matrícula que será exibida.
    * @return - Matrícula de acordo com o Id fornecido.
    */
-  Matricula get(Long id);
+  MatriculaDTO get(Long id);
 
   /**
-   * Retorna todas as Matrículas que estão no banco de dados.
-   * @return - uma lista com todas as Matrículas que estão salvas no DB.
+   * Retorna a Matrícula de um aluno.
+   * @param alunoId - id do aluno matriculado.
+   * @return - Matrícula do aluno.
    */
-  List<Matricula> getAll();
+  MatriculaDTO getByAluno(Long alunoId);
 
   /**
    * Deleta uma Matrícula específica.
    * @param id - id da Matrícula que será removida.
+   * @param versao - versão da Matrícula conhecida pelo cliente (opcional).
    */
-  void delete(Long id);
+  void delete(Long id, Long versao);
 
 }
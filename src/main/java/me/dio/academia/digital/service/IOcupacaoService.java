@@ -0,0 +1,27 @@
+package me.dio.academia.digital.service;
+
+import me.dio.academia.digital.entity.dto.MapaDeCalorDTO;
+import me.dio.academia.digital.entity.dto.OcupacaoDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IOcupacaoService {
+  /**
+   * Retorna a quantidade de alunos presentes no total e em cada unidade.
+   * @return - ocupação atual da academia.
+   */
+  OcupacaoDTO getOcupacao();
+
+  /**
+   * Retorna o total de entradas de uma unidade por dia da semana e hora do dia.
+   * @param unidade - nome da unidade.
+   * @return - mapa de calor da unidade.
+   */
+  MapaDeCalorDTO getMapa(String unidade);
+
+  /**
+   * Inscreve um painel para receber a ocupação sempre que ela mudar, por Server-Sent Events.
+   * @return - o canal de eventos do painel.
+   */
+  SseEmitter inscrever();
+
+}
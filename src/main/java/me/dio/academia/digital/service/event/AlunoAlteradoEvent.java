@@ -0,0 +1,46 @@
+package me.dio.academia.digital.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+
+/**
+ * Evento publicado pela camada de serviço sempre que um Aluno é criado, atualizado ou removido.
+ *
+ * <p>Os interessados devem escutá-lo com <code>@TransactionalEventListener</code>, para que só
+ * sejam notificados após a confirmação da transação que originou a alteração.</p>
+ */
+@Getter
+@AllArgsConstructor
+public class AlunoAlteradoEvent {
+
+  private final Tipo tipo;
+
+  /**
+   * Dados do aluno antes da alteração; nulo quando o aluno foi criado.
+   */
+  private final AlunoDTO anterior;
+
+  /**
+   * Dados do aluno após a alteração; nulo quando o aluno foi removido.
+   */
+  private final AlunoDTO atual;
+
+  public static AlunoAlteradoEvent criado(AlunoDTO atual) {
+    return new AlunoAlteradoEvent(Tipo.CRIADO, null, atual);
+  }
+
+  public static AlunoAlteradoEvent atualizado(AlunoDTO anterior, AlunoDTO atual) {
+    return new AlunoAlteradoEvent(Tipo.ATUALIZADO, anterior, atual);
+  }
+
+  public static AlunoAlteradoEvent removido(AlunoDTO anterior) {
+    return new AlunoAlteradoEvent(Tipo.REMOVIDO, anterior, null);
+  }
+
+  public enum Tipo {
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO
+  }
+}
@@ -0,0 +1,51 @@
+package me.dio.academia.digital.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+
+/**
+ * Evento publicado pela camada de serviço sempre que uma Avaliação Física é criada, atualizada
+ * ou removida.
+ *
+ * <p>Os interessados devem escutá-lo com <code>@TransactionalEventListener</code>, para que só
+ * sejam notificados após a confirmação da transação que originou a alteração.</p>
+ */
+@Getter
+@AllArgsConstructor
+public class AvaliacaoFisicaAlteradaEvent {
+
+  private final Tipo tipo;
+
+  /**
+   * Dados da avaliação antes da alteração; nulo quando a avaliação foi criada.
+   */
+  private final AvaliacaoFisicaDTO anterior;
+
+  /**
+   * Dados da avaliação após a alteração; nulo quando a avaliação foi removida.
+   */
+  private final AvaliacaoFisicaDTO atual;
+
+  public static AvaliacaoFisicaAlteradaEvent criada(AvaliacaoFisicaDTO atual) {
+    return new AvaliacaoFisicaAlteradaEvent(Tipo.CRIADA, null, atual);
+  }
+
+  public static AvaliacaoFisicaAlteradaEvent atualizada(AvaliacaoFisicaDTO anterior, AvaliacaoFisicaDTO atual) {
+    return new AvaliacaoFisicaAlteradaEvent(Tipo.ATUALIZADA, anterior, atual);
+  }
+
+  public static AvaliacaoFisicaAlteradaEvent removida(AvaliacaoFisicaDTO anterior) {
+    return new AvaliacaoFisicaAlteradaEvent(Tipo.REMOVIDA, anterior, null);
+  }
+
+  public Long getAlunoId() {
+    return atual != null ? atual.getAlunoId() : anterior.getAlunoId();
+  }
+
+  public enum Tipo {
+    CRIADA,
+    ATUALIZADA,
+    REMOVIDA
+  }
+}
@@ -0,0 +1,33 @@
+package me.dio.academia.digital.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dio.academia.digital.entity.dto.MatriculaDTO;
+
+/**
+ * Evento publicado pela camada de serviço sempre que uma Matrícula é criada ou removida.
+ *
+ * <p>Os interessados devem escutá-lo com <code>@TransactionalEventListener</code>, para que só
+ * sejam notificados após a confirmação da transação que originou a alteração.</p>
+ */
+@Getter
+@AllArgsConstructor
+public class MatriculaAlteradaEvent {
+
+  private final Tipo tipo;
+
+  private final MatriculaDTO matricula;
+
+  public static MatriculaAlteradaEvent criada(MatriculaDTO matricula) {
+    return new MatriculaAlteradaEvent(Tipo.CRIADA, matricula);
+  }
+
+  public static MatriculaAlteradaEvent removida(MatriculaDTO matricula) {
+    return new MatriculaAlteradaEvent(Tipo.REMOVIDA, matricula);
+  }
+
+  public enum Tipo {
+    CRIADA,
+    REMOVIDA
+  }
+}
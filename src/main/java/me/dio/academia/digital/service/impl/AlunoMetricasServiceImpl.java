@@ -0,0 +1,129 @@
+package me.dio.academia.digital.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.infra.datasource.LeituraNoPrimario;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.particionamento.AvaliacoesDescartadasEvent;
+import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
+import me.dio.academia.digital.service.IAlunoMetricasService;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Implementação do serviço de indicadores de composição corporal dos alunos.
+ *
+ * Os indicadores de cada aluno são calculados uma única vez a partir do seu histórico, na
+ * primeira consulta, e depois mantidos incrementalmente a cada avaliação física criada, atualizada
+ * ou removida, através do {@link AvaliacaoFisicaAlteradaEvent}. Assim, a consulta dos indicadores
+ * apenas devolve um resumo já calculado.
+ *
+ * O estado é mantido para no máximo {@code academia.metricas.max-alunos} alunos; os menos usados
+ * são descartados e recalculados quando consultados novamente.
+ */
+@Service
+public class AlunoMetricasServiceImpl implements IAlunoMetricasService {
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private AlunoServiceImpl alunoService;
+
+    @Value("${academia.metricas.max-alunos:50000}")
+    private long maxAlunos;
+
+    private Cache<Long, MetricasAluno> metricas;
+
+    @PostConstruct
+    void inicializar() {
+        metricas = Caffeine.newBuilder()
+                .maximumSize(maxAlunos)
+                .build();
+    }
+
+    /**
+     * Retorna os indicadores de um aluno.
+     *
+     * @param alunoId O identificador do aluno.
+     * @return Os indicadores do aluno; sem valores se ele ainda não tiver avaliações.
+     * @throws me.dio.academia.digital.exception.AlunoNotFoundException Caso o aluno não seja encontrado.
+     */
+    @Override
+    public AlunoMetricasDTO get(Long alunoId) {
+        return metricas.get(alunoId, this::carregar).getResumo();
+    }
+
+    /**
+     * Aplica ao estado de um aluno já carregado a alteração de uma de suas avaliações, após a
+     * confirmação da transação. Se o estado não puder ser atualizado incrementalmente, ele é
+     * descartado e recalculado na próxima consulta.
+     *
+     * @param event Evento da avaliação física criada, atualizada ou removida.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent event) {
+        metricas.asMap().computeIfPresent(event.getAlunoId(), (alunoId, estado) -> {
+            if (event.getAnterior() != null && !estado.remover(event.getAnterior())) {
+                return null;
+            }
+            if (event.getAtual() != null) {
+                estado.adicionar(event.getAtual());
+            }
+            return estado;
+        });
+    }
+
+    /**
+     * Descarta o estado de um aluno removido, após a confirmação da transação. As avaliações são
+     * excluídas pelo banco de dados junto com o aluno, sem publicar {@link AvaliacaoFisicaAlteradaEvent};
+     * a próxima consulta dos indicadores do aluno não o encontra.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        if (event.getTipo() == AlunoAlteradoEvent.Tipo.REMOVIDO) {
+            metricas.invalidate(event.getAnterior().getId());
+        }
+    }
+
+    /**
+     * Descarta o estado de todos os alunos após o descarte de partições de avaliações, que exclui as
+     * avaliações diretamente no banco de dados. Os indicadores são recalculados na próxima consulta.
+     */
+    @EventListener(AvaliacoesDescartadasEvent.class)
+    public void onAvaliacoesDescartadas() {
+        metricas.invalidateAll();
+    }
+
+    /**
+     * Descarta o estado de todos os alunos após a geração da massa de dados, que grava as avaliações
+     * diretamente no banco de dados, sem publicar {@link AvaliacaoFisicaAlteradaEvent}.
+     */
+    @EventListener(DadosGeradosEvent.class)
+    public void onDadosGerados() {
+        metricas.invalidateAll();
+    }
+
+    private MetricasAluno carregar(Long alunoId) {
+        // O estado é mantido em memória e atualizado pelos eventos; por isso, é lido no primário
+        List<AvaliacaoFisicaDTO> avaliacoes = LeituraNoPrimario.executar(() -> avaliacaoFisicaRepository.findAllByAluno(alunoId));
+        if (avaliacoes.isEmpty()) {
+            alunoService.get(alunoId);
+        }
+        MetricasAluno estado = new MetricasAluno(alunoId);
+        avaliacoes.forEach(estado::adicionar);
+        return estado;
+    }
+}
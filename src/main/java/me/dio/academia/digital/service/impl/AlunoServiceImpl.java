@@ -1,18 +1,65 @@
 package me.dio.academia.digital.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
 import me.dio.academia.digital.entity.Aluno;
-import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.entity.dto.AlunoLoteItemResultado;
+import me.dio.academia.digital.entity.dto.AlunoLoteItemResultado.Situacao;
+import me.dio.academia.digital.entity.dto.AlunoLoteResultado;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
 import me.dio.academia.digital.entity.form.AlunoForm;
 import me.dio.academia.digital.entity.form.AlunoUpdateForm;
 import me.dio.academia.digital.exception.AlunoNotFoundException;
+import me.dio.academia.digital.exception.CpfInvalidoException;
+import me.dio.academia.digital.exception.CpfJaCadastradoException;
+import me.dio.academia.digital.infra.cache.CacheConfig;
+import me.dio.academia.digital.infra.datasource.LeituraNoPrimario;
+import me.dio.academia.digital.infra.datasource.RoteadorDeLeituras;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.http.Etags;
+import me.dio.academia.digital.infra.pagination.CursorPage;
+import me.dio.academia.digital.infra.pagination.KeysetCursor;
+import me.dio.academia.digital.infra.particionamento.AvaliacoesDescartadasEvent;
+import me.dio.academia.digital.infra.metrics.MetricsConfig;
+import me.dio.academia.digital.infra.utils.CpfUtils;
 import me.dio.academia.digital.repository.AlunoRepository;
+import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
 import me.dio.academia.digital.service.IAlunoService;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Implementação do serviço de gestão de Alunos.
@@ -23,50 +70,285 @@ import java.util.List;
  * de persistência.
  */
 @Service
+@Timed(MetricsConfig.SERVICO)
 public class AlunoServiceImpl implements IAlunoService {
 
     @Autowired
     private AlunoRepository repository;
 
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Value("${academia.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    @Value("${academia.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
+    @Value("${academia.alunos.tamanho-lote-cadastro:500}")
+    private int tamanhoLoteCadastro;
+
+    @Value("${academia.alunos.etags-avaliacoes.max-alunos:50000}")
+    private long maxEtagsAvaliacoes;
+
+    @Value("${academia.alunos.etags-avaliacoes.expiracao:10m}")
+    private Duration expiracaoEtagsAvaliacoes;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CpfsCadastrados cpfsCadastrados;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Quantidade de faixas de alunos com uma geração própria da lista de avaliações (potência de 2)
+    private static final int FAIXAS_GERACAO = 4096;
+
+    // ETag da última lista de avaliações lida de cada aluno, descartado quando uma avaliação do aluno muda
+    private Cache<Long, String> etagsAvaliacoes;
+
+    // Geração das listas de avaliações de cada faixa de alunos, incrementada antes de cada descarte
+    // de ETag; uma leitura só guarda o ETag se a geração não mudou desde o início da consulta
+    private final AtomicLongArray geracoesAvaliacoes = new AtomicLongArray(FAIXAS_GERACAO);
+
+    @PostConstruct
+    void inicializar() {
+        etagsAvaliacoes = Caffeine.newBuilder()
+                .maximumSize(maxEtagsAvaliacoes)
+                .expireAfterWrite(expiracaoEtagsAvaliacoes)
+                .build();
+    }
+
     /**
      * Cria um novo aluno no sistema.
      *
+     * Quando o conjunto de CPFs cadastrados está carregado, um CPF repetido é rejeitado sem acessar
+     * o banco de dados; o índice único de <code>cpf_numero</code> rejeita os demais.
+     *
      * @param form Objeto contendo os dados do aluno (nome, CPF, bairro, data de nascimento).
      * @return O aluno criado e persistido no banco de dados.
+     * @throws CpfJaCadastradoException Caso o CPF já pertença a outro aluno.
+     */
+    @Override
+    @Transactional
+    public AlunoDTO create(AlunoForm form) {
+        Long cpf = CpfUtils.paraNumero(form.getCpf());
+        if (cpf != null && cpfsCadastrados.isCarregado() && cpfsCadastrados.contem(cpf)) {
+            throw cpfJaCadastrado(form.getCpf());
+        }
+        Aluno aluno;
+        try {
+            aluno = repository.saveAndFlush(toAluno(form));
+        } catch (DataIntegrityViolationException e) {
+            throw cpfJaCadastrado(form.getCpf());
+        }
+        AlunoDTO criado = AlunoDTO.of(aluno);
+        eventPublisher.publishEvent(AlunoAlteradoEvent.criado(criado));
+        return criado;
+    }
+
+    private static CpfJaCadastradoException cpfJaCadastrado(String cpf) {
+        return new CpfJaCadastradoException("CPF " + cpf + " já cadastrado.");
+    }
+
+    /**
+     * Cria vários alunos de uma só vez.
+     *
+     * Os formulários são processados em blocos de {@code tamanhoLoteCadastro} alunos. Cada bloco é
+     * validado, tem seus CPFs conferidos no conjunto de CPFs cadastrados (ou, enquanto ele não está
+     * carregado, em uma única consulta) e é gravado em uma transação própria,
+     * com os inserts agrupados em lotes JDBC. Caso a gravação do bloco falhe (por exemplo, um CPF
+     * cadastrado concorrentemente), os alunos do bloco são gravados um a um para identificar
+     * as linhas rejeitadas sem descartar as demais.
+     *
+     * @param forms Formulários com os dados dos alunos, na ordem em que foram enviados.
+     * @return O resultado do cadastro de cada aluno.
      */
     @Override
-    public Aluno create(AlunoForm form) {
+    public AlunoLoteResultado createBatch(List<AlunoForm> forms) {
+        List<AlunoLoteItemResultado> itens = new ArrayList<>(forms.size());
+        Set<Long> cpfsDoLote = new HashSet<>();
+        for (int inicio = 0; inicio < forms.size(); inicio += tamanhoLoteCadastro) {
+            int fim = Math.min(inicio + tamanhoLoteCadastro, forms.size());
+            itens.addAll(createBlock(forms.subList(inicio, fim), inicio, cpfsDoLote));
+        }
+        return AlunoLoteResultado.of(itens);
+    }
+
+    private List<AlunoLoteItemResultado> createBlock(List<AlunoForm> forms, int deslocamento, Set<Long> cpfsDoLote) {
+        AlunoLoteItemResultado[] resultados = new AlunoLoteItemResultado[forms.size()];
+        Map<Integer, AlunoForm> validos = new LinkedHashMap<>();
+
+        for (int i = 0; i < forms.size(); i++) {
+            AlunoForm form = forms.get(i);
+            int linha = deslocamento + i + 1;
+            Set<ConstraintViolation<AlunoForm>> violacoes = validator.validate(form);
+            if (!violacoes.isEmpty()) {
+                resultados[i] = AlunoLoteItemResultado.rejeitado(linha, Situacao.INVALIDO, violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!cpfsDoLote.add(CpfUtils.paraNumero(form.getCpf()))) {
+                resultados[i] = AlunoLoteItemResultado.rejeitado(linha, Situacao.CPF_DUPLICADO,
+                        "CPF " + form.getCpf() + " repetido no lote.");
+            } else {
+                validos.put(i, form);
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            Predicate<Long> cadastrado;
+            if (cpfsCadastrados.isCarregado()) {
+                cadastrado = cpfsCadastrados::contem;
+            } else {
+                cadastrado = new HashSet<>(repository.findExistingCpfNumeros(validos.values().stream()
+                        .map(form -> CpfUtils.paraNumero(form.getCpf()))
+                        .collect(Collectors.toList())))::contains;
+            }
+            validos.entrySet().removeIf(entry -> {
+                AlunoForm form = entry.getValue();
+                if (cadastrado.test(CpfUtils.paraNumero(form.getCpf()))) {
+                    resultados[entry.getKey()] = AlunoLoteItemResultado.rejeitado(deslocamento + entry.getKey() + 1,
+                            Situacao.CPF_DUPLICADO, "CPF " + form.getCpf() + " já cadastrado.");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!validos.isEmpty()) {
+            try {
+                List<Aluno> salvos = transactionTemplate.execute(status -> {
+                    List<Aluno> alunos = repository.saveAll(validos.values().stream()
+                            .map(this::toAluno)
+                            .collect(Collectors.toList()));
+                    repository.flush();
+                    entityManager.clear();
+                    alunos.forEach(aluno -> eventPublisher.publishEvent(AlunoAlteradoEvent.criado(AlunoDTO.of(aluno))));
+                    return alunos;
+                });
+                int j = 0;
+                for (Integer i : validos.keySet()) {
+                    resultados[i] = AlunoLoteItemResultado.criado(deslocamento + i + 1, salvos.get(j++).getId());
+                }
+            } catch (DataAccessException e) {
+                validos.forEach((i, form) -> resultados[i] = createSingle(form, deslocamento + i + 1));
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private AlunoLoteItemResultado createSingle(AlunoForm form, int linha) {
+        try {
+            Aluno aluno = transactionTemplate.execute(status -> {
+                Aluno salvo = repository.saveAndFlush(toAluno(form));
+                eventPublisher.publishEvent(AlunoAlteradoEvent.criado(AlunoDTO.of(salvo)));
+                return salvo;
+            });
+            return AlunoLoteItemResultado.criado(linha, aluno.getId());
+        } catch (DataIntegrityViolationException e) {
+            return AlunoLoteItemResultado.rejeitado(linha, Situacao.CPF_DUPLICADO,
+                    "CPF " + form.getCpf() + " já cadastrado.");
+        } catch (DataAccessException e) {
+            return AlunoLoteItemResultado.rejeitado(linha, Situacao.ERRO, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private Aluno toAluno(AlunoForm form) {
         Aluno aluno = new Aluno();
         aluno.setNome(form.getNome());
         aluno.setCpf(form.getCpf());
         aluno.setBairro(form.getBairro());
         aluno.setDataDeNascimento(form.getDataDeNascimento());
-
-        return repository.save(aluno);
+        return aluno;
     }
 
     /**
      * Recupera um aluno com base no ID.
      *
+     * O resultado é mantido no cache de alunos, limitado em tamanho e tempo de vida, e invalidado
+     * após a confirmação de cada atualização ou remoção do aluno (ver {@link #onAlunoAlterado}). Por
+     * alimentar o cache, a leitura é feita sempre no banco de dados primário, mesmo com réplicas
+     * configuradas.
+     *
+     * A leitura é feita com o cache bloqueado para o id (<code>sync</code>), e a invalidação espera
+     * a leitura em andamento terminar: um aluno lido antes da confirmação de uma alteração é
+     * descartado logo em seguida, e as leituras iniciadas depois já encontram a alteração.
+     *
      * @param id O identificador do aluno.
      * @return O aluno identificado pelo ID.
-     * @throws RuntimeException Caso o aluno não seja encontrado.
+     * @throws AlunoNotFoundException Caso o aluno não seja encontrado.
      */
     @Override
-    public Aluno get(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Aluno com ID " + id + " não encontrado"));
+    @Cacheable(cacheNames = CacheConfig.ALUNOS, key = "#id", sync = true)
+    public AlunoDTO get(Long id) {
+        return LeituraNoPrimario.executar(() -> repository.findDTOById(id))
+                .orElseThrow(() -> new AlunoNotFoundException("Aluno com ID " + id + " não encontrado"));
     }
 
     /**
-     * Retorna todos os alunos cadastrados.
-     * Os alunos são retornados ordenados pelo atributo "nome" em ordem crescente.
+     * Recupera um aluno com base no CPF, com ou sem pontuação, pelo índice único de
+     * <code>cpf_numero</code>. O conjunto de CPFs cadastrados não é consultado: ele só é atualizado
+     * após o commit, e um aluno recém-cadastrado, ou gravado por outra instância, seria respondido
+     * como inexistente.
      *
-     * @return Uma lista de alunos cadastrados.
+     * @param cpf O CPF do aluno.
+     * @return O aluno com o CPF informado.
+     * @throws CpfInvalidoException Caso o CPF não tenha 11 dígitos.
+     * @throws AlunoNotFoundException Caso o aluno não seja encontrado.
      */
     @Override
-    public List<Aluno> getAll() {
-        return repository.findAll(Sort.by(Sort.Direction.ASC, "nome"));
+    public AlunoDTO getByCpf(String cpf) {
+        Long numero = CpfUtils.paraNumero(cpf);
+        if (numero == null) {
+            throw new CpfInvalidoException("CPF " + cpf + " inválido: informe os 11 dígitos.");
+        }
+        return repository.findDTOByCpfNumero(numero)
+                .orElseThrow(() -> new AlunoNotFoundException("Aluno com CPF " + cpf + " não encontrado"));
+    }
+
+    /**
+     * Retorna uma página de alunos cadastrados.
+     * Os alunos são retornados ordenados pelo atributo "nome" em ordem crescente, desempatando
+     * pelo id. A leitura continua a partir do último aluno indicado pelo cursor (keyset), de modo
+     * que o custo de cada página não depende da sua posição na listagem.
+     *
+     * @param cursor Token da página anterior, ou null para a primeira página.
+     * @param tamanho Quantidade de alunos por página, limitada a {@code tamanhoMaximoPagina}.
+     * @return Uma página de alunos e o cursor da próxima página, se houver.
+     */
+    @Override
+    public CursorPage<AlunoDTO> getAll(String cursor, Integer tamanho) {
+        int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+        // Busca um registro a mais para saber se existe uma próxima página
+        Pageable limite = PageRequest.of(0, tamanhoPagina + 1);
+
+        List<AlunoDTO> alunos;
+        if (cursor == null || cursor.isBlank()) {
+            alunos = repository.findFirstPage(limite);
+        } else {
+            KeysetCursor posicao = KeysetCursor.decode(cursor);
+            alunos = repository.findPageAfter(posicao.getChave(), posicao.getId(), limite);
+        }
+
+        String proximoCursor = null;
+        if (alunos.size() > tamanhoPagina) {
+            alunos = alunos.subList(0, tamanhoPagina);
+            AlunoDTO ultimo = alunos.get(tamanhoPagina - 1);
+            proximoCursor = new KeysetCursor(ultimo.getNome(), ultimo.getId()).encode();
+        }
+        return new CursorPage<>(alunos, alunos.size(), proximoCursor);
     }
 
     /**
@@ -78,28 +360,47 @@ public class AlunoServiceImpl implements IAlunoService {
      * @throws AlunoNotFoundException Se o aluno com o ID fornecido não for encontrado.
      */
     @Override
-    public Aluno update(Long id, AlunoUpdateForm formUpdate) {
+    @Transactional
+    public AlunoDTO update(Long id, AlunoUpdateForm formUpdate) {
         Aluno aluno = repository.findById(id)
                 .orElseThrow(() -> new AlunoNotFoundException
                         ("Aluno com ID " + id + " não encontrado"));
-        return repository.save(aluno);
+        AlunoDTO anterior = AlunoDTO.of(aluno);
+        AlunoDTO atualizado = AlunoDTO.of(repository.save(aluno));
+        eventPublisher.publishEvent(AlunoAlteradoEvent.atualizado(anterior, atualizado));
+        return atualizado;
     }
 
     /**
      * Remove um aluno com base no ID.
      *
+     * O aluno é retirado do cache após a confirmação da remoção (ver {@link #get(Long)}).
+     *
      * @param id O identificador único do aluno.
      * @throws RuntimeException Se o aluno com o ID fornecido não for encontrado.
      */
     @Override
+    @Transactional
     public void delete(Long id) {
         Aluno aluno = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Aluno com ID " + id + " não encontrado"));
+        // Publicado antes da exclusão, para que os interessados na própria transação ainda encontrem
+        // os registros do aluno que o banco de dados exclui em cascata (ver MatriculaServiceImpl)
+        eventPublisher.publishEvent(AlunoAlteradoEvent.removido(AlunoDTO.of(aluno)));
         repository.delete(aluno);
     }
 
     /**
-     * Lista todas as avaliações físicas associadas a um aluno.
+     * Lista todas as avaliações físicas associadas a um aluno, em ordem cronológica.
+     *
+     * As avaliações são lidas por uma única consulta de projeção, sem carregar o aluno.
+     * A existência do aluno só é conferida quando nenhuma avaliação é encontrada.
+     *
+     * O ETag da lista é guardado para as requisições condicionais seguintes, a menos que uma
+     * avaliação do aluno tenha sido alterada durante a consulta: a geração da faixa do aluno é lida
+     * antes da consulta e conferida ao guardar o ETag, atomicamente em relação ao descarte feito
+     * após a alteração. Com réplicas configuradas, a leitura é feita em uma réplica e o ETag também
+     * não é guardado, pois a réplica pode ainda não refletir a última alteração.
      *
      * @param id O identificador do aluno.
      * @return Uma lista de avaliações físicas do aluno identificado.
@@ -107,11 +408,87 @@ public class AlunoServiceImpl implements IAlunoService {
      */
     @Transactional(readOnly = true)
     @Override
-    public List<AvaliacaoFisica> getAllAvaliacaoFisica(Long id) {
-        Aluno aluno = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException
-                        ("Aluno com ID " + id + " não encontrado"));
-        return aluno.getAvaliacoes();
+    public List<AvaliacaoFisicaDTO> getAllAvaliacaoFisica(Long id) {
+        long geracao = geracoesAvaliacoes.get(faixa(id));
+        List<AvaliacaoFisicaDTO> avaliacoes = avaliacaoFisicaRepository.findAllByAluno(id);
+        if (avaliacoes.isEmpty() && !repository.existsById(id)) {
+            throw new RuntimeException("Aluno com ID " + id + " não encontrado");
+        }
+        if (!RoteadorDeLeituras.isLeituraEmReplica()) {
+            String etag = Etags.avaliacoes(id, avaliacoes);
+            etagsAvaliacoes.asMap().compute(id, (alunoId, anterior) ->
+                    geracoesAvaliacoes.get(faixa(alunoId)) == geracao ? etag : anterior);
+        }
+        return avaliacoes;
+    }
+
+    /**
+     * Retorna o ETag da lista de avaliações do aluno, se ela foi lida desde a última alteração.
+     *
+     * Permite responder a uma requisição condicional sem consultar as avaliações. Os ETags são
+     * descartados após cada alteração confirmada, e os dos alunos menos consultados, após
+     * <code>academia.alunos.etags-avaliacoes.expiracao</code>.
+     *
+     * @param id O identificador do aluno.
+     * @return O ETag da lista, ou null se ele não for conhecido.
+     */
+    @Override
+    public String getEtagAvaliacoes(Long id) {
+        return etagsAvaliacoes.getIfPresent(id);
+    }
+
+    /**
+     * Descarta o ETag da lista de avaliações do aluno após a confirmação de uma alteração.
+     *
+     * @param event Evento da avaliação física criada, atualizada ou removida.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent event) {
+        invalidarEtagAvaliacoes(event.getAlunoId());
+    }
+
+    /**
+     * Retira do cache de alunos o aluno atualizado ou removido e descarta o ETag da lista de
+     * avaliações do aluno removido, após a confirmação da transação. Uma invalidação feita antes da
+     * confirmação permitiria que uma leitura concorrente guardasse novamente os dados anteriores.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        if (event.getTipo() == AlunoAlteradoEvent.Tipo.CRIADO) {
+            return;
+        }
+        Long id = event.getAnterior().getId();
+        cacheManager.getCache(CacheConfig.ALUNOS).evict(id);
+        if (event.getTipo() == AlunoAlteradoEvent.Tipo.REMOVIDO) {
+            invalidarEtagAvaliacoes(id);
+        }
+    }
+
+    /**
+     * Descarta todos os ETags após a geração da massa de dados e o descarte de partições de
+     * avaliações, que alteram diretamente o banco de dados.
+     */
+    @EventListener({DadosGeradosEvent.class, AvaliacoesDescartadasEvent.class})
+    public void onDadosGerados() {
+        for (int i = 0; i < FAIXAS_GERACAO; i++) {
+            geracoesAvaliacoes.incrementAndGet(i);
+        }
+        etagsAvaliacoes.invalidateAll();
+    }
+
+    /**
+     * Incrementa a geração antes de descartar o ETag, para que uma leitura em andamento, que pode
+     * ter visto a lista anterior, não volte a guardá-lo.
+     */
+    private void invalidarEtagAvaliacoes(Long alunoId) {
+        geracoesAvaliacoes.incrementAndGet(faixa(alunoId));
+        etagsAvaliacoes.invalidate(alunoId);
+    }
+
+    private static int faixa(Long alunoId) {
+        return Long.hashCode(alunoId) & (FAIXAS_GERACAO - 1);
     }
 
 }
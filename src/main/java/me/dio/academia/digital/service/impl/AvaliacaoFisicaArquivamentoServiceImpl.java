@@ -0,0 +1,345 @@
+package me.dio.academia.digital.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.academia.digital.entity.dto.ArquivamentoStatus;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.service.IAvaliacaoFisicaArquivamentoService;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementação do serviço de arquivamento das avaliações físicas antigas.
+ *
+ * As avaliações realizadas antes do corte são movidas de <code>tb_avaliacoes</code> para
+ * <code>tb_avaliacoes_arquivo</code> em uma tarefa de segundo plano, bloco a bloco, cada bloco em
+ * uma transação curta:
+ * <ul>
+ *  <li>até <code>academia.arquivamento.tamanho-bloco</code> avaliações são selecionadas pelo índice
+ *  <code>idx_avaliacoes_data</code> e bloqueadas com <code>for update skip locked</code> (no
+ *  PostgreSQL), sem aguardar as que estiverem sendo alteradas;</li>
+ *  <li>as avaliações do bloco são copiadas com um único <code>insert ... select</code> e excluídas
+ *  com um único <code>delete</code>, pelos ids, sem passar por entidades e sem alcançar os alunos;
+ *  ambos também filtram pelas datas da primeira e da última avaliação do bloco, para que, com
+ *  <code>tb_avaliacoes</code> particionada, só as partições desse período sejam consultadas;</li>
+ *  <li>a leitura do bloco seguinte continua da data da última avaliação movida, sem percorrer de
+ *  novo as entradas já excluídas do índice.</li>
+ * </ul>
+ *
+ * Para não disputar o banco de dados com a aplicação, após cada bloco a tarefa pausa de modo a
+ * ocupá-lo no máximo a fração <code>academia.arquivamento.ocupacao-maxima</code> do tempo. No
+ * PostgreSQL, antes de cada bloco, ela também aguarda enquanto o atraso das réplicas
+ * (<code>pg_stat_replication</code>, visível para usuários com o papel <code>pg_monitor</code>)
+ * for maior que <code>academia.arquivamento.atraso-maximo-replicacao</code>.
+ *
+ * Cada avaliação arquivada é publicada como removida ({@link AvaliacaoFisicaAlteradaEvent}), para
+ * que históricos, métricas e ETags em memória deixem de considerá-la. As avaliações bloqueadas
+ * durante o arquivamento ficam para a próxima execução.
+ *
+ * O progresso de um arquivamento é mantido enquanto ele aguarda ou está em andamento, e descartado
+ * <code>academia.arquivamento.expiracao</code> após o seu fim; no máximo
+ * <code>academia.arquivamento.max-arquivamentos</code> são mantidos.
+ */
+@Service
+public class AvaliacaoFisicaArquivamentoServiceImpl implements IAvaliacaoFisicaArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvaliacaoFisicaArquivamentoServiceImpl.class);
+
+    private static final String INICIO =
+            "select min(data_da_avaliacao) from tb_avaliacoes";
+
+    private static final String SELECIONAR =
+            "select id, aluno_id, data_da_avaliacao, peso_atual, altura_atual, versao from tb_avaliacoes"
+                    + " where data_da_avaliacao >= ? and data_da_avaliacao < ?"
+                    + " order by data_da_avaliacao limit ? for update";
+
+    // Somente no PostgreSQL; os demais bancos aguardam as avaliações bloqueadas
+    private static final String SEM_AGUARDAR_BLOQUEADAS = " skip locked";
+
+    private static final String COPIAR =
+            "insert into tb_avaliacoes_arquivo (id, aluno_id, data_da_avaliacao, peso_atual, altura_atual, versao, arquivada_em)"
+                    + " select id, aluno_id, data_da_avaliacao, peso_atual, altura_atual, versao, ?"
+                    + " from tb_avaliacoes where id = any(?) and data_da_avaliacao >= ? and data_da_avaliacao <= ?";
+
+    private static final String EXCLUIR =
+            "delete from tb_avaliacoes where id = any(?) and data_da_avaliacao >= ? and data_da_avaliacao <= ?";
+
+    private static final String ATRASO_REPLICACAO =
+            "select coalesce(max(extract(epoch from replay_lag)), 0) from pg_stat_replication";
+
+    private static final long VERIFICACAO_REPLICACAO_MS = 1_000;
+
+    private static final int BLOCOS_POR_LOG = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${academia.arquivamento.anos:5}")
+    private int anosPadrao;
+
+    @Value("${academia.arquivamento.tamanho-bloco:5000}")
+    private int tamanhoBloco;
+
+    @Value("${academia.arquivamento.ocupacao-maxima:0.5}")
+    private double ocupacaoMaxima;
+
+    @Value("${academia.arquivamento.atraso-maximo-replicacao:5s}")
+    private Duration atrasoMaximoReplicacao;
+
+    @Value("${academia.arquivamento.expiracao:24h}")
+    private Duration expiracao;
+
+    @Value("${academia.arquivamento.max-arquivamentos:1000}")
+    private long maxArquivamentos;
+
+    private Cache<String, ArquivamentoStatus> arquivamentos;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "arquivamento-avaliacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter arquivadas;
+
+    private boolean postgres;
+
+    private String selecionar;
+
+    @PostConstruct
+    void iniciar() {
+        if (ocupacaoMaxima <= 0 || ocupacaoMaxima > 1) {
+            throw new IllegalStateException("academia.arquivamento.ocupacao-maxima deve ser maior que 0 e no máximo 1");
+        }
+        arquivadas = meterRegistry.counter("academia.avaliacoes.arquivadas");
+        postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        selecionar = postgres ? SELECIONAR + SEM_AGUARDAR_BLOQUEADAS : SELECIONAR;
+        arquivamentos = Caffeine.newBuilder()
+                .maximumSize(maxArquivamentos)
+                .expireAfter(new Expiry<String, ArquivamentoStatus>() {
+                    @Override
+                    public long expireAfterCreate(String id, ArquivamentoStatus status, long agora) {
+                        return duracao(status);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, ArquivamentoStatus status, long agora, long restante) {
+                        return duracao(status);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, ArquivamentoStatus status, long agora, long restante) {
+                        return restante;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    /**
+     * Tempo até o descarte do progresso: indeterminado até o fim do arquivamento, quando passa a
+     * contar <code>academia.arquivamento.expiracao</code>.
+     */
+    private long duracao(ArquivamentoStatus status) {
+        return status.getFinalizadoEm() == null ? Long.MAX_VALUE : expiracao.toNanos();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        arquivamentos.invalidateAll();
+    }
+
+    /**
+     * Agenda o arquivamento das avaliações realizadas antes de <code>anos</code> anos atrás. Os
+     * arquivamentos são executados um de cada vez, na ordem em que foram agendados.
+     *
+     * @param anos Período de retenção, em anos; null para <code>academia.arquivamento.anos</code>.
+     * @return O progresso do arquivamento.
+     */
+    @Override
+    public ArquivamentoStatus arquivar(Integer anos) {
+        LocalDateTime corte = LocalDateTime.now().minusYears(anos != null ? anos : anosPadrao);
+        ArquivamentoStatus status = new ArquivamentoStatus(UUID.randomUUID().toString(), corte);
+        arquivamentos.put(status.getId(), status);
+        executor.submit(() -> processar(status));
+        return status;
+    }
+
+    @Override
+    public Optional<ArquivamentoStatus> get(String id) {
+        return Optional.ofNullable(arquivamentos.getIfPresent(id));
+    }
+
+    @Override
+    public Optional<ArquivamentoStatus> cancelar(String id) {
+        ArquivamentoStatus status = arquivamentos.getIfPresent(id);
+        if (status != null) {
+            status.setCancelamentoSolicitado(true);
+        }
+        return Optional.ofNullable(status);
+    }
+
+    private void processar(ArquivamentoStatus status) {
+        status.setIniciadoEm(LocalDateTime.now());
+        status.setSituacao(ArquivamentoStatus.Situacao.EM_ANDAMENTO);
+        try {
+            Timestamp inicio = jdbcTemplate.queryForObject(INICIO, Timestamp.class);
+            LocalDateTime posicao = inicio != null ? inicio.toLocalDateTime() : status.getCorte();
+            while (posicao.isBefore(status.getCorte())) {
+                if (status.isCancelamentoSolicitado()) {
+                    status.setSituacao(ArquivamentoStatus.Situacao.CANCELADO);
+                    break;
+                }
+                aguardarReplicacao(status);
+                long inicioBloco = System.nanoTime();
+                List<AvaliacaoFisicaDTO> bloco = moverBloco(posicao, status.getCorte());
+                if (bloco.isEmpty()) {
+                    break;
+                }
+                posicao = bloco.get(bloco.size() - 1).getDataDaAvaliacao();
+                status.getArquivadas().addAndGet(bloco.size());
+                arquivadas.increment(bloco.size());
+                if (status.getBlocos().incrementAndGet() % BLOCOS_POR_LOG == 0) {
+                    log.info("Arquivamento {}: {} avaliações arquivadas até {} ({} linhas/s)",
+                            status.getId(), status.getArquivadas(), posicao, status.getLinhasPorSegundo());
+                }
+                pausar(status, System.nanoTime() - inicioBloco);
+            }
+            if (status.getSituacao() == ArquivamentoStatus.Situacao.EM_ANDAMENTO) {
+                status.setSituacao(ArquivamentoStatus.Situacao.CONCLUIDO);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status.setMensagem("Interrompido no encerramento da aplicação");
+            status.setSituacao(ArquivamentoStatus.Situacao.CANCELADO);
+        } catch (Exception e) {
+            log.error("Arquivamento {} interrompido", status.getId(), e);
+            status.setMensagem(e.getMessage());
+            status.setSituacao(ArquivamentoStatus.Situacao.FALHOU);
+        } finally {
+            status.setFinalizadoEm(LocalDateTime.now());
+            // Passa a contar a expiração a partir do fim
+            arquivamentos.put(status.getId(), status);
+            log.info("Arquivamento {} {}: {} avaliações em {} blocos ({} linhas/s, {} ms em pausa)",
+                    status.getId(), status.getSituacao(), status.getArquivadas(), status.getBlocos(),
+                    status.getLinhasPorSegundo(), status.getPausaMillis());
+        }
+    }
+
+    /**
+     * Move, em uma transação, as próximas avaliações anteriores ao corte a partir da posição informada.
+     *
+     * @return As avaliações movidas, em ordem de data; vazia se não houver mais avaliações a arquivar.
+     */
+    private List<AvaliacaoFisicaDTO> moverBloco(LocalDateTime posicao, LocalDateTime corte) {
+        return transactionTemplate.execute(tx -> {
+            List<AvaliacaoFisicaDTO> bloco = jdbcTemplate.query(selecionar, AvaliacaoFisicaArquivamentoServiceImpl::mapear,
+                    Timestamp.valueOf(posicao), Timestamp.valueOf(corte), tamanhoBloco);
+            if (bloco.isEmpty()) {
+                return Collections.<AvaliacaoFisicaDTO>emptyList();
+            }
+            Long[] ids = bloco.stream().map(AvaliacaoFisicaDTO::getId).toArray(Long[]::new);
+            Timestamp primeira = Timestamp.valueOf(bloco.get(0).getDataDaAvaliacao());
+            Timestamp ultima = Timestamp.valueOf(bloco.get(bloco.size() - 1).getDataDaAvaliacao());
+            Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(COPIAR);
+                ps.setTimestamp(1, agora);
+                ps.setArray(2, con.createArrayOf("bigint", ids));
+                ps.setTimestamp(3, primeira);
+                ps.setTimestamp(4, ultima);
+                return ps;
+            });
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(EXCLUIR);
+                ps.setArray(1, con.createArrayOf("bigint", ids));
+                ps.setTimestamp(2, primeira);
+                ps.setTimestamp(3, ultima);
+                return ps;
+            });
+            bloco.forEach(avaliacao -> eventPublisher.publishEvent(AvaliacaoFisicaAlteradaEvent.removida(avaliacao)));
+            return bloco;
+        });
+    }
+
+    /**
+     * Aguarda enquanto o atraso das réplicas do PostgreSQL for maior que o permitido.
+     */
+    private void aguardarReplicacao(ArquivamentoStatus status) throws InterruptedException {
+        if (!postgres || atrasoMaximoReplicacao.isZero()) {
+            return;
+        }
+        while (!status.isCancelamentoSolicitado()) {
+            Double atraso = jdbcTemplate.queryForObject(ATRASO_REPLICACAO, Double.class);
+            if (atraso == null || atraso * 1000 <= atrasoMaximoReplicacao.toMillis()) {
+                return;
+            }
+            log.debug("Arquivamento {}: aguardando réplicas com {} s de atraso", status.getId(), atraso);
+            dormir(status, VERIFICACAO_REPLICACAO_MS);
+        }
+    }
+
+    /**
+     * Pausa após um bloco pelo tempo necessário para que o arquivamento ocupe o banco de dados no
+     * máximo a fração <code>ocupacaoMaxima</code> do tempo.
+     */
+    private void pausar(ArquivamentoStatus status, long duracaoBlocoNanos) throws InterruptedException {
+        if (ocupacaoMaxima >= 1) {
+            return;
+        }
+        long duracaoMillis = TimeUnit.NANOSECONDS.toMillis(duracaoBlocoNanos);
+        dormir(status, (long) (duracaoMillis * (1 - ocupacaoMaxima) / ocupacaoMaxima));
+    }
+
+    private static void dormir(ArquivamentoStatus status, long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+            status.getPausaMillis().addAndGet(millis);
+        }
+    }
+
+    private static AvaliacaoFisicaDTO mapear(ResultSet rs, int linha) throws SQLException {
+        Timestamp data = rs.getTimestamp(3);
+        return new AvaliacaoFisicaDTO(rs.getLong(1), rs.getLong(2), data.toLocalDateTime(),
+                rs.getDouble(4), rs.getDouble(5), rs.getLong(6));
+    }
+}
@@ -0,0 +1,344 @@
+package me.dio.academia.digital.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.entity.dto.ImportacaoStatus;
+import me.dio.academia.digital.entity.form.AvaliacaoFisicaForm;
+import me.dio.academia.digital.infra.csv.CsvUtils;
+import me.dio.academia.digital.infra.csv.NioLineReader;
+import me.dio.academia.digital.infra.particionamento.ParticoesDeAvaliacoes;
+import me.dio.academia.digital.infra.utils.JavaTimeUtils;
+import me.dio.academia.digital.repository.AlunoRepository;
+import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
+import me.dio.academia.digital.service.IAvaliacaoFisicaImportacaoService;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementação do serviço de importação de avaliações físicas a partir de arquivos CSV,
+ * como os exportados pelas balanças inteligentes.
+ *
+ * O arquivo é processado em uma tarefa de segundo plano, bloco a bloco:
+ * <ul>
+ *  <li>as linhas são lidas com {@link NioLineReader}, sem carregar o arquivo em memória;</li>
+ *  <li>cada bloco é convertido e validado em paralelo com as restrições de {@link AvaliacaoFisicaForm};</li>
+ *  <li>a existência dos alunos do bloco é conferida com uma única consulta e, no PostgreSQL, as
+ *  partições dos meses das datas informadas são criadas se necessário
+ *  ({@link ParticoesDeAvaliacoes#garantirParticao(LocalDateTime)});</li>
+ *  <li>as avaliações válidas são gravadas em uma transação, com os inserts agrupados em lotes JDBC.
+ *  Caso a gravação falhe, o bloco é dividido ao meio e cada metade é gravada separadamente, até
+ *  isolar as linhas rejeitadas pelo banco de dados sem descartar as demais.</li>
+ * </ul>
+ *
+ * As linhas rejeitadas são gravadas em um arquivo de erros ao lado do arquivo importado. O progresso
+ * da importação e o arquivo de erros são descartados após <code>academia.importacao.expiracao</code>
+ * sem progresso.
+ */
+@Service
+public class AvaliacaoFisicaImportacaoServiceImpl implements IAvaliacaoFisicaImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvaliacaoFisicaImportacaoServiceImpl.class);
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ParticoesDeAvaliacoes particoes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${academia.importacao.tamanho-bloco:5000}")
+    private int tamanhoBloco;
+
+    @Value("${academia.importacao.expiracao:24h}")
+    private Duration expiracao;
+
+    private Cache<String, ImportacaoStatus> importacoes;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "importacao-avaliacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void configurar() {
+        importacoes = Caffeine.newBuilder()
+                .expireAfterWrite(expiracao)
+                .scheduler(Scheduler.systemScheduler())
+                .<String, ImportacaoStatus>removalListener((id, status, causa) -> removerArquivoDeErros(status))
+                .build();
+    }
+
+    /**
+     * Agenda a importação do arquivo informado. As importações são executadas uma de cada vez,
+     * na ordem em que foram agendadas.
+     *
+     * @param arquivo Arquivo CSV a ser importado.
+     * @param nomeOriginal Nome do arquivo enviado.
+     * @return O progresso da importação.
+     */
+    @Override
+    public ImportacaoStatus importar(Path arquivo, String nomeOriginal) {
+        ImportacaoStatus status = new ImportacaoStatus(UUID.randomUUID().toString(), nomeOriginal);
+        status.setArquivoDeErros(arquivo.resolveSibling(arquivo.getFileName() + ".erros.csv").toString());
+        importacoes.put(status.getId(), status);
+        executor.submit(() -> processar(arquivo, status));
+        return status;
+    }
+
+    @Override
+    public Optional<ImportacaoStatus> get(String id) {
+        return Optional.ofNullable(importacoes.getIfPresent(id));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        importacoes.invalidateAll();
+        importacoes.cleanUp();
+    }
+
+    private void removerArquivoDeErros(ImportacaoStatus status) {
+        if (status == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(status.getArquivoDeErros()));
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo de erros {}", status.getArquivoDeErros(), e);
+        }
+    }
+
+    private void processar(Path arquivo, ImportacaoStatus status) {
+        status.setIniciadaEm(LocalDateTime.now());
+        status.setSituacao(ImportacaoStatus.Situacao.EM_ANDAMENTO);
+        try (NioLineReader reader = new NioLineReader(arquivo);
+             BufferedWriter erros = Files.newBufferedWriter(Path.of(status.getArquivoDeErros()), StandardCharsets.UTF_8)) {
+            erros.write(CsvUtils.linha("linha", "conteudo", "erro"));
+            erros.newLine();
+
+            long numeroLinha = 0;
+            List<String> bloco;
+            while (!(bloco = reader.lerLinhas(tamanhoBloco)).isEmpty()) {
+                processarBloco(bloco, numeroLinha, status, erros);
+                numeroLinha += bloco.size();
+                status.getLinhasLidas().set(numeroLinha);
+                // Reinicia a contagem da expiração a cada bloco processado
+                importacoes.put(status.getId(), status);
+                log.info("Importação {}: {} linhas lidas, {} importadas, {} rejeitadas ({} linhas/s)",
+                        status.getId(), numeroLinha, status.getImportadas(), status.getRejeitadas(),
+                        status.getLinhasPorSegundo());
+            }
+            status.setSituacao(ImportacaoStatus.Situacao.CONCLUIDA);
+        } catch (Exception e) {
+            log.error("Importação {} interrompida", status.getId(), e);
+            status.setMensagem(e.getMessage());
+            status.setSituacao(ImportacaoStatus.Situacao.FALHOU);
+        } finally {
+            status.setFinalizadaEm(LocalDateTime.now());
+            importacoes.put(status.getId(), status);
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                log.warn("Não foi possível remover o arquivo temporário {}", arquivo, e);
+            }
+        }
+    }
+
+    private void processarBloco(List<String> bloco, long deslocamento, ImportacaoStatus status,
+                                BufferedWriter erros) throws IOException {
+        List<LinhaImportada> linhas = IntStream.range(0, bloco.size())
+                .parallel()
+                .mapToObj(i -> converter(deslocamento + i + 1, bloco.get(i)))
+                .collect(Collectors.toList());
+
+        Set<Long> alunoIds = linhas.stream()
+                .filter(LinhaImportada::isValida)
+                .map(linha -> linha.form.getAlunoId())
+                .collect(Collectors.toSet());
+        Set<Long> alunosExistentes = alunoIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(alunoRepository.findExistingIds(alunoIds));
+
+        List<LinhaImportada> validas = linhas.stream()
+                .filter(LinhaImportada::isValida)
+                .filter(linha -> {
+                    if (!alunosExistentes.contains(linha.form.getAlunoId())) {
+                        linha.erro = "Aluno com o ID " + linha.form.getAlunoId() + " não encontrado!";
+                        return false;
+                    }
+                    if (linha.dataDaAvaliacao != null && !particoes.garantirParticao(linha.dataDaAvaliacao)) {
+                        linha.erro = "Não há partição de avaliações para a data " + linha.dataDaAvaliacao + ".";
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+
+        if (!validas.isEmpty()) {
+            status.getImportadas().addAndGet(gravarDividindo(validas));
+        }
+
+        for (LinhaImportada linha : linhas) {
+            if (linha.erro != null) {
+                status.getRejeitadas().incrementAndGet();
+                erros.write(CsvUtils.linha(String.valueOf(linha.numero), linha.conteudo, linha.erro));
+                erros.newLine();
+            }
+        }
+        erros.flush();
+    }
+
+    /**
+     * Grava as linhas em uma transação. Caso a gravação falhe, divide as linhas ao meio e grava cada
+     * metade separadamente; uma linha que falha sozinha é marcada com o erro.
+     *
+     * @return A quantidade de linhas gravadas.
+     */
+    private int gravarDividindo(List<LinhaImportada> linhas) {
+        try {
+            gravar(linhas);
+            return linhas.size();
+        } catch (RuntimeException e) {
+            if (linhas.size() == 1) {
+                LinhaImportada linha = linhas.get(0);
+                log.debug("Falha ao gravar a linha {}", linha.numero, e);
+                linha.erro = "Falha ao gravar: " + (e instanceof DataAccessException
+                        ? ((DataAccessException) e).getMostSpecificCause().getMessage()
+                        : e.getMessage());
+                return 0;
+            }
+            log.debug("Falha ao gravar {} linhas a partir da linha {}; gravando em partes menores",
+                    linhas.size(), linhas.get(0).numero, e);
+            int metade = linhas.size() / 2;
+            return gravarDividindo(linhas.subList(0, metade)) + gravarDividindo(linhas.subList(metade, linhas.size()));
+        }
+    }
+
+    private void gravar(List<LinhaImportada> linhas) {
+        transactionTemplate.executeWithoutResult(transactionStatus -> {
+            List<AvaliacaoFisica> avaliacoes = linhas.stream().map(linha -> {
+                AvaliacaoFisica avaliacaoFisica = new AvaliacaoFisica();
+                avaliacaoFisica.setAluno(alunoRepository.getReferenceById(linha.form.getAlunoId()));
+                avaliacaoFisica.setPeso(linha.form.getPeso());
+                avaliacaoFisica.setAltura(linha.form.getAltura());
+                if (linha.dataDaAvaliacao != null) {
+                    avaliacaoFisica.setDataDaAvaliacao(linha.dataDaAvaliacao);
+                }
+                return avaliacaoFisica;
+            }).collect(Collectors.toList());
+            avaliacaoFisicaRepository.saveAll(avaliacoes);
+            avaliacaoFisicaRepository.flush();
+            avaliacoes.forEach(avaliacaoFisica -> eventPublisher.publishEvent(
+                    AvaliacaoFisicaAlteradaEvent.criada(AvaliacaoFisicaDTO.of(avaliacaoFisica))));
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Converte uma linha do CSV (alunoId, peso, altura e, opcionalmente, dataDaAvaliacao no
+     * formato dd/MM/yyyy HH:mm:ss) e valida os dados com as restrições de {@link AvaliacaoFisicaForm}.
+     */
+    private LinhaImportada converter(long numero, String conteudo) {
+        LinhaImportada linha = new LinhaImportada(numero, conteudo);
+        if (conteudo.isBlank() || (numero == 1 && CsvUtils.isCabecalho(conteudo, "alunoId"))) {
+            return linha;
+        }
+        try {
+            String[] campos = CsvUtils.separar(conteudo);
+            String alunoId = CsvUtils.campo(campos, 0);
+            String peso = CsvUtils.campo(campos, 1);
+            String altura = CsvUtils.campo(campos, 2);
+            String data = CsvUtils.campo(campos, 3);
+            if (alunoId == null || peso == null || altura == null) {
+                linha.erro = "Linha incompleta: informe alunoId, peso e altura.";
+                return linha;
+            }
+            AvaliacaoFisicaForm form = new AvaliacaoFisicaForm(Long.valueOf(alunoId),
+                    Double.parseDouble(peso.replace(',', '.')), Double.parseDouble(altura.replace(',', '.')));
+            Set<ConstraintViolation<AvaliacaoFisicaForm>> violacoes = validator.validate(form);
+            if (!violacoes.isEmpty()) {
+                linha.erro = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                return linha;
+            }
+            linha.dataDaAvaliacao = data == null ? null : LocalDateTime.parse(data, JavaTimeUtils.LOCAL_DATE_TIME_FORMATTER);
+            linha.form = form;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            linha.erro = "Valor inválido: " + e.getMessage();
+        }
+        return linha;
+    }
+
+    private static class LinhaImportada {
+
+        private final long numero;
+
+        private final String conteudo;
+
+        private AvaliacaoFisicaForm form;
+
+        private LocalDateTime dataDaAvaliacao;
+
+        private String erro;
+
+        private LinhaImportada(long numero, String conteudo) {
+            this.numero = numero;
+            this.conteudo = conteudo;
+        }
+
+        private boolean isValida() {
+            return form != null && erro == null;
+        }
+    }
+}
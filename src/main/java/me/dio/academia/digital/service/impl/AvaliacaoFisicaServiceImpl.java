@@ -1,19 +1,36 @@
 package me.dio.academia.digital.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.annotation.Timed;
 import me.dio.academia.digital.entity.Aluno;
 import me.dio.academia.digital.entity.AvaliacaoFisica;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaForm;
 import me.dio.academia.digital.entity.form.AvaliacaoFisicaUpdateForm;
+import me.dio.academia.digital.exception.AlunoNotFoundException;
+import me.dio.academia.digital.infra.metrics.MetricsConfig;
 import me.dio.academia.digital.repository.AlunoRepository;
 import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
 import me.dio.academia.digital.service.IAvaliacaoFisicaService;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço responsável por gerenciar as Avaliações Físicas.
@@ -34,82 +51,170 @@ import java.util.Optional;
  * @version 1.0
  */
 @Service
+@Timed(MetricsConfig.SERVICO)
 public class AvaliacaoFisicaServiceImpl implements IAvaliacaoFisicaService {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
+    private static final LocalDateTime DATA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private static final LocalDateTime DATA_MAXIMA = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @Autowired
     private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
 
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @Autowired
+    private AlunoServiceImpl alunoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${academia.paginacao.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    @Value("${academia.paginacao.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
     /**
      * Cria uma nova avaliação física com base nos dados fornecidos no formulário.
      *
      * @param form Objeto {@link AvaliacaoFisicaForm} contendo os dados necessários para criação.
-     * @return A instância criada de {@link AvaliacaoFisica}.
+     * @return Os dados da avaliação física criada.
      * @throws IllegalArgumentException Se o ID do aluno fornecido no formulário não for encontrado.
      */
     @Override
-    public AvaliacaoFisica create(AvaliacaoFisicaForm form) {
+    @Transactional
+    public AvaliacaoFisicaDTO create(AvaliacaoFisicaForm form) {
         AvaliacaoFisica avaliacaoFisica = new AvaliacaoFisica();
 
-        // Recupera o aluno pelo ID especificado no formulário
-        Optional<Aluno> alunoOptional = alunoRepository.findById(form.getAlunoId());
-        if (!alunoOptional.isPresent()) {
+        // Confere a existência do aluno pelo cache de alunos e usa apenas uma referência à
+        // entidade, sem consultá-la novamente no banco de dados
+        try {
+            alunoService.get(form.getAlunoId());
+        } catch (AlunoNotFoundException e) {
             throw new IllegalArgumentException("Aluno com o ID " + form.getAlunoId() + " não encontrado!");
         }
 
-        Aluno aluno = alunoOptional.get();
+        Aluno aluno = alunoRepository.getReferenceById(form.getAlunoId());
 
         // Define os dados da avaliação física
         avaliacaoFisica.setAluno(aluno);
         avaliacaoFisica.setPeso(form.getPeso());
         avaliacaoFisica.setAltura(form.getAltura());
 
-        // Salva a avaliação e retorna a instância criada
-        return avaliacaoFisicaRepository.save(avaliacaoFisica);
+        // Salva a avaliação e retorna os dados da instância criada
+        AvaliacaoFisicaDTO criada = AvaliacaoFisicaDTO.of(avaliacaoFisicaRepository.save(avaliacaoFisica));
+        eventPublisher.publishEvent(AvaliacaoFisicaAlteradaEvent.criada(criada));
+        return criada;
     }
 
     /**
      * Retorna uma avaliação física com base no ID fornecido.
      *
      * @param id ID da avaliação física a ser recuperada.
-     * @return A instância correspondente de {@link AvaliacaoFisica}.
+     * @return Os dados da avaliação física correspondente, lidos sem carregar o aluno associado.
      * @throws IllegalArgumentException Se nenhuma avaliação física for encontrada com o ID fornecido.
      */
     @Override
-    public AvaliacaoFisica get(Long id) {
-        return avaliacaoFisicaRepository.findById(id)
+    public AvaliacaoFisicaDTO get(Long id) {
+        return avaliacaoFisicaRepository.findDTOById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Avaliação Física com o ID " + id + " não encontrada!"));
     }
 
     /**
-     * Retorna uma lista com todas as avaliações físicas registradas no sistema.
+     * Retorna uma página de avaliações físicas, das mais recentes para as mais antigas.
      *
-     * @return Uma lista de instâncias {@link AvaliacaoFisica}.
+     * Cada combinação de filtros usa uma consulta própria, para que o banco sempre utilize o
+     * índice adequado (por aluno e data, ou apenas por data). Apenas as colunas da
+     * {@link AvaliacaoFisicaDTO} são selecionadas e não há contagem do total de registros.
+     *
+     * @param alunoId ID do aluno, ou null para todos os alunos.
+     * @param de Primeiro dia do período (inclusive), ou null.
+     * @param ate Último dia do período (inclusive), ou null.
+     * @param pagina Número da página, a partir de 0.
+     * @param tamanho Quantidade de avaliações por página, limitada a {@code tamanhoMaximoPagina}.
+     * @return Uma página de {@link AvaliacaoFisicaDTO}.
      */
     @Override
-    public List<AvaliacaoFisica> getAll() {
-        return List.of();
+    public Slice<AvaliacaoFisicaDTO> getAll(Long alunoId, LocalDate de, LocalDate ate, int pagina, Integer tamanho) {
+        int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+        Pageable pageable = PageRequest.of(Math.max(0, pagina), tamanhoPagina);
+
+        if (de == null && ate == null) {
+            return alunoId == null
+                    ? avaliacaoFisicaRepository.findAllDTO(pageable)
+                    : avaliacaoFisicaRepository.findByAluno(alunoId, pageable);
+        }
+
+        LocalDateTime inicio = de == null ? DATA_MINIMA : de.atStartOfDay();
+        LocalDateTime fim = ate == null ? DATA_MAXIMA : ate.plusDays(1).atStartOfDay();
+        return alunoId == null
+                ? avaliacaoFisicaRepository.findByPeriodo(inicio, fim, pageable)
+                : avaliacaoFisicaRepository.findByAlunoAndPeriodo(alunoId, inicio, fim, pageable);
     }
-    
+
+    /**
+     * Exporta todas as avaliações físicas em NDJSON, escrevendo diretamente no stream de saída.
+     *
+     * As avaliações são lidas como projeções por um cursor do banco de dados, sem entidades no
+     * contexto de persistência, mantendo o consumo de memória constante independentemente da
+     * quantidade de registros.
+     *
+     * @param saida Stream de saída da resposta.
+     * @return A quantidade de avaliações físicas exportadas.
+     * @throws IOException Se ocorrer um erro ao escrever no stream de saída.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream saida) throws IOException {
+        long total = 0;
+        try (Stream<AvaliacaoFisicaDTO> avaliacoes = avaliacaoFisicaRepository.streamAll();
+             SequenceWriter writer = objectMapper.writer()
+                     .withRootValueSeparator("\n")
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .writeValues(saida)) {
+            Iterator<AvaliacaoFisicaDTO> iterator = avaliacoes.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++total % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (total > 0) {
+            saida.write('\n');
+        }
+        saida.flush();
+        return total;
+    }
+
 
     /**
      * Atualiza uma AvaliacaoFisica existente baseado no ID e no form de atualização.
      *
      * @param id o ID que vai ter a AvaliacaoFisica atualizado.
      * @param formUpdate os dados para serem atualizados.
-     * @return a AvaliacaoFisica atualizada.
+     * @return os dados da AvaliacaoFisica atualizada.
      * @throws EntityNotFoundException se nenhuma avaliação com aquele ID for encontrada.
      * @throws IllegalArgumentException se o form de atualização for null ou inválido.
      */
     @Override
-    public AvaliacaoFisica update(Long id, AvaliacaoFisicaUpdateForm formUpdate) {
+    @Transactional
+    public AvaliacaoFisicaDTO update(Long id, AvaliacaoFisicaUpdateForm formUpdate) {
         AvaliacaoFisica avaliacaoFisica = avaliacaoFisicaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Avaliação Física com o ID " + id + " não encontrada!"));
 
         if (formUpdate != null) {
-            return avaliacaoFisicaRepository.save(avaliacaoFisica);
+            AvaliacaoFisicaDTO anterior = AvaliacaoFisicaDTO.of(avaliacaoFisica);
+            AvaliacaoFisicaDTO atualizada = AvaliacaoFisicaDTO.of(avaliacaoFisicaRepository.save(avaliacaoFisica));
+            eventPublisher.publishEvent(AvaliacaoFisicaAlteradaEvent.atualizada(anterior, atualizada));
+            return atualizada;
         } else {
             throw new IllegalArgumentException("Verifique os dados informados e tente novamente.");
         }
@@ -118,20 +223,27 @@ public class AvaliacaoFisicaServiceImpl implements IAvaliacaoFisicaService {
     /**
      * Exclui uma avaliação física com base no ID fornecido.
      *
+     * Os dados da avaliação são lidos como projeção, para o evento de remoção, e a exclusão é feita
+     * com um único comando: nem a avaliação nem o aluno são carregados, e a exclusão não é
+     * propagada para o aluno.
+     *
      * @param id ID da avaliação física a ser excluída.
      * @throws IllegalArgumentException Se nenhuma avaliação física for encontrada com o ID fornecido.
      */
         @Override
+        @Transactional
         public void delete(Long id) {
             if (id == null) {
                 throw new IllegalArgumentException("O ID fornecido não pode ser nulo.");
             }
 
-            AvaliacaoFisica avaliacaoFisica = avaliacaoFisicaRepository.findById(id)
+            AvaliacaoFisicaDTO avaliacaoFisica = avaliacaoFisicaRepository.findDTOById(id)
                     .orElseThrow(() -> new EntityNotFoundException(
                             "Erro ao tentar deletar: Avaliação Física com o ID " + id + " não encontrada no banco de dados."
                     ));
 
-            avaliacaoFisicaRepository.delete(avaliacaoFisica);
+            if (avaliacaoFisicaRepository.deleteDirectlyById(id) > 0) {
+                eventPublisher.publishEvent(AvaliacaoFisicaAlteradaEvent.removida(avaliacaoFisica));
+            }
         }
     }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.exception.BuscaInvalidaException;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.utils.TextoUtils;
+import me.dio.academia.digital.repository.AlunoRepository;
+import me.dio.academia.digital.service.IBuscaAlunosService;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação da busca de alunos pelo nome, servida por um {@link IndiceDeNomes} em memória.
+ *
+ * Na inicialização, o nome e o bairro de todos os alunos são lidos uma única vez. A partir daí, o
+ * índice acompanha as alterações feitas pela camada de serviço através do {@link AlunoAlteradoEvent}.
+ * Somente os ids dos alunos encontrados vêm do índice; os dados retornados são lidos do banco de
+ * dados em uma única consulta pela chave primária.
+ */
+@Service
+public class BuscaAlunosServiceImpl implements IBuscaAlunosService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaAlunosServiceImpl.class);
+
+    private static final int TAMANHO_MINIMO_BUSCA = 2;
+
+    @Autowired
+    private AlunoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${academia.alunos.busca.limite-padrao:20}")
+    private int limitePadrao;
+
+    @Value("${academia.alunos.busca.limite-maximo:100}")
+    private int limiteMaximo;
+
+    private final IndiceDeNomes indice = new IndiceDeNomes();
+
+    // Alunos criados, atualizados ou removidos enquanto a carga está em andamento: o índice já
+    // reflete o evento, e a linha lida pela carga, possivelmente anterior a ele, é ignorada
+    private final Set<Long> alteradosDuranteCarga = new HashSet<>();
+
+    // Protege alteradosDuranteCarga e carregando, e torna atômicas a verificação e a inclusão de
+    // cada linha da carga em relação aos eventos
+    private final Lock lock = new ReentrantLock();
+
+    private boolean carregando = true;
+
+    /**
+     * Carrega o nome e o bairro de todos os alunos no índice após a inicialização da aplicação e
+     * após a geração da massa de dados, que grava diretamente no banco de dados.
+     */
+    @EventListener({ApplicationReadyEvent.class, DadosGeradosEvent.class})
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        lock.lock();
+        try {
+            carregando = true;
+        } finally {
+            lock.unlock();
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("select id, nome, bairro from tb_alunos");
+                ps.setFetchSize(10_000);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                long id = rs.getLong(1);
+                String nome = rs.getString(2);
+                String bairro = rs.getString(3);
+                lock.lock();
+                try {
+                    if (!alteradosDuranteCarga.contains(id)) {
+                        indice.adicionar(id, nome, bairro);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            });
+        });
+        lock.lock();
+        try {
+            carregando = false;
+            alteradosDuranteCarga.clear();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Índice de nomes carregado: {} alunos em {} ms", indice.tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Busca alunos pelo nome. Enquanto a carga inicial do índice está em andamento, a busca
+     * considera apenas os alunos já carregados.
+     *
+     * @throws BuscaInvalidaException Caso o nome tenha menos de 2 letras ou dígitos.
+     */
+    @Override
+    public List<AlunoDTO> buscar(String nome, String bairro, Integer limite) {
+        if (TextoUtils.normalizar(nome).replace(" ", "").length() < TAMANHO_MINIMO_BUSCA) {
+            throw new BuscaInvalidaException("Informe ao menos " + TAMANHO_MINIMO_BUSCA + " letras do nome.");
+        }
+        int quantidade = limite == null ? limitePadrao : Math.max(1, Math.min(limite, limiteMaximo));
+        List<Long> ids = indice.buscar(nome, bairro, quantidade);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, AlunoDTO> alunos = repository.findDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(AlunoDTO::getId, Function.identity()));
+        // Mantém a ordem de relevância do índice; alunos removidos após a busca são descartados
+        return ids.stream()
+                .map(alunos::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mantém o índice sincronizado com os alunos criados, atualizados ou removidos,
+     * após a confirmação da transação.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        AlunoDTO atual = event.getAtual();
+        AlunoDTO anterior = event.getAnterior();
+        if (atual == null && anterior == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (carregando) {
+                alteradosDuranteCarga.add(atual != null ? atual.getId() : anterior.getId());
+            }
+            if (atual != null) {
+                indice.adicionar(atual.getId(), atual.getNome(), atual.getBairro());
+            } else {
+                indice.remover(anterior.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
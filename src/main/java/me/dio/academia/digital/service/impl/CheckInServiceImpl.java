@@ -0,0 +1,208 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.CheckIn;
+import me.dio.academia.digital.entity.dto.PresencaDTO;
+import me.dio.academia.digital.entity.form.CheckInForm;
+import me.dio.academia.digital.exception.CheckInsSobrecarregadosException;
+import me.dio.academia.digital.exception.MatriculaNotFoundException;
+import me.dio.academia.digital.infra.datasource.LeituraNoPrimario;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.repository.MatriculaRepository;
+import me.dio.academia.digital.service.ICheckInService;
+import me.dio.academia.digital.service.event.MatriculaAlteradaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementação do serviço de check-ins.
+ *
+ * O registro de um check-in não acessa o banco de dados: a matrícula é validada pelo conjunto
+ * {@link MatriculasAtivas}, o check-in é entregue ao {@link GravadorDeCheckIns}, que o grava em
+ * lote, e a presença do aluno e os {@link ContadoresDeOcupacao} são atualizados em memória. A lista
+ * de presentes é respondida a partir dessa memória, que na inicialização é reconstruída com os
+ * check-ins das últimas <code>academia.checkins.janela-presenca</code> horas.
+ *
+ * Um aluno que não registra a saída deixa a lista de presentes, e a ocupação da unidade, quando a
+ * sua entrada sai da janela de presença. A verificação é feita a cada
+ * <code>academia.checkins.intervalo-expiracao</code>.
+ */
+@Service
+public class CheckInServiceImpl implements ICheckInService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInServiceImpl.class);
+
+    @Autowired
+    private MatriculasAtivas matriculasAtivas;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private GravadorDeCheckIns gravador;
+
+    @Autowired
+    private ContadoresDeOcupacao contadores;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${academia.checkins.janela-presenca:12h}")
+    private Duration janelaPresenca;
+
+    @Value("${academia.checkins.intervalo-expiracao:1m}")
+    private Duration intervaloExpiracao;
+
+    private final Map<Long, PresencaDTO> presentes = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService agendador;
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presenca-expiracao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = intervaloExpiracao.toMillis();
+        agendador.scheduleWithFixedDelay(this::expirar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * Registra a passagem de um aluno pela catraca.
+     *
+     * @param form Formulário com a matrícula, o sentido da passagem e a catraca.
+     * @throws MatriculaNotFoundException Caso a matrícula não exista.
+     * @throws CheckInsSobrecarregadosException Caso a gravação esteja atrasada e a fila, cheia.
+     */
+    @Override
+    public void registrar(CheckInForm form) {
+        long matriculaId = form.getMatriculaId();
+        boolean existe = matriculasAtivas.isCarregado()
+                ? matriculasAtivas.contem(matriculaId)
+                : LeituraNoPrimario.executar(() -> matriculaRepository.existsById(matriculaId));
+        if (!existe) {
+            throw new MatriculaNotFoundException("Matricula com ID " + matriculaId + " não encontrada");
+        }
+        String unidade = form.getUnidade() != null && !form.getUnidade().isBlank()
+                ? form.getUnidade() : CheckIn.UNIDADE_PADRAO;
+        LocalDateTime agora = LocalDateTime.now();
+        gravador.enfileirar(new GravadorDeCheckIns.Pendente(matriculaId, form.getTipo(), unidade, form.getCatraca(), agora));
+        atualizarPresenca(matriculaId, form.getTipo(), unidade, form.getCatraca(), agora, true);
+    }
+
+    @Override
+    public List<PresencaDTO> getPresentes() {
+        List<PresencaDTO> lista = new ArrayList<>(presentes.values());
+        lista.sort(Comparator.comparing(PresencaDTO::getEntrada).thenComparing(PresencaDTO::getMatriculaId));
+        return lista;
+    }
+
+    /**
+     * Reconstrói a presença a partir dos check-ins gravados dentro da janela de presença, após a
+     * inicialização da aplicação e após a geração da massa de dados.
+     */
+    @EventListener({ApplicationReadyEvent.class, DadosGeradosEvent.class})
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        presentes.clear();
+        contadores.zerarPresentes();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "select matricula_id, tipo, unidade, catraca, data_hora from tb_checkins where data_hora >= ? order by id");
+                ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minus(janelaPresenca)));
+                ps.setFetchSize(10_000);
+                return ps;
+            }, (RowCallbackHandler) rs -> atualizarPresenca(rs.getLong(1), CheckIn.Tipo.valueOf(rs.getString(2)),
+                    rs.getString(3), rs.getString(4), rs.getTimestamp(5).toLocalDateTime(), false));
+        });
+        log.info("Presença carregada: {} alunos presentes em {} ms", presentes.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Retira da lista de presentes as matrículas removidas.
+     *
+     * @param event Evento da matrícula alterada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatriculaAlterada(MatriculaAlteradaEvent event) {
+        if (event.getTipo() == MatriculaAlteradaEvent.Tipo.REMOVIDA) {
+            PresencaDTO anterior = presentes.remove(event.getMatricula().getId());
+            if (anterior != null) {
+                contadores.saiu(anterior.getUnidade());
+            }
+        }
+    }
+
+    /**
+     * Retira da lista de presentes, e da ocupação das unidades, os alunos cuja entrada saiu da janela
+     * de presença sem o registro da saída.
+     */
+    void expirar() {
+        LocalDateTime limite = LocalDateTime.now().minus(janelaPresenca);
+        int expirados = 0;
+        for (PresencaDTO presenca : presentes.values()) {
+            // Só retira a mesma entrada: uma entrada nova registrada nesse meio tempo é mantida
+            if (presenca.getEntrada().isBefore(limite) && presentes.remove(presenca.getMatriculaId(), presenca)) {
+                contadores.saiu(presenca.getUnidade());
+                expirados++;
+            }
+        }
+        if (expirados > 0) {
+            log.info("Presença expirada de {} alunos sem registro de saída", expirados);
+        }
+    }
+
+    /**
+     * Atualiza a presença do aluno e a ocupação das unidades. Uma entrada repetida, sem a saída,
+     * não conta o aluno duas vezes, e uma saída sem entrada é ignorada na ocupação.
+     *
+     * @param contarNoMapa false ao reconstruir a presença a partir de check-ins já contados no mapa de calor.
+     */
+    private void atualizarPresenca(long matriculaId, CheckIn.Tipo tipo, String unidade, String catraca,
+                                   LocalDateTime dataHora, boolean contarNoMapa) {
+        PresencaDTO anterior;
+        if (tipo == CheckIn.Tipo.ENTRADA) {
+            anterior = presentes.put(matriculaId, new PresencaDTO(matriculaId, unidade, catraca, dataHora));
+            contadores.entrou(unidade, dataHora, contarNoMapa);
+        } else {
+            anterior = presentes.remove(matriculaId);
+        }
+        if (anterior != null) {
+            contadores.saiu(anterior.getUnidade());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.MapaDeCalorDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores em memória da ocupação de cada unidade da academia.
+ *
+ * Para cada unidade são mantidos a quantidade de alunos presentes e o total de entradas por dia
+ * da semana e hora do dia (o mapa de calor). Os contadores são {@link LongAdder}, que distribuem
+ * os incrementos concorrentes de várias catracas entre células separadas em vez de disputar uma
+ * única variável; a soma só é feita na leitura, que é bem menos frequente.
+ *
+ * O mapa de calor é gravado em <code>tb_ocupacao_horaria</code> a cada
+ * <code>academia.ocupacao.intervalo-checkpoint</code> (somente as células alteradas) e no
+ * encerramento, e é recarregado na inicialização: uma queda da aplicação perde no máximo as
+ * entradas de um intervalo. A quantidade de presentes não é gravada, pois é reconstruída junto com
+ * a presença a partir dos check-ins.
+ */
+@Component
+public class ContadoresDeOcupacao {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresDeOcupacao.class);
+
+    private static final int DIAS = 7;
+
+    private static final int HORAS = 24;
+
+    private static final String ATUALIZAR =
+            "update tb_ocupacao_horaria set entradas = ? where unidade = ? and dia_semana = ? and hora = ?";
+
+    private static final String INSERIR =
+            "insert into tb_ocupacao_horaria (unidade, dia_semana, hora, entradas) values (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${academia.ocupacao.intervalo-checkpoint:1m}")
+    private Duration intervaloCheckpoint;
+
+    private final Map<String, Unidade> unidades = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService agendador;
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ocupacao-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Carrega o mapa de calor gravado e inicia a gravação periódica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        jdbcTemplate.query("select unidade, dia_semana, hora, entradas from tb_ocupacao_horaria", rs -> {
+            Unidade unidade = unidade(rs.getString(1));
+            int celula = celula(rs.getInt(2), rs.getInt(3));
+            long entradas = rs.getLong(4);
+            // Somado, e não atribuído, para preservar as entradas contadas antes da carga
+            unidade.entradas[celula].add(entradas);
+            unidade.gravadas[celula] = entradas;
+        });
+        long intervalo = intervaloCheckpoint.toMillis();
+        agendador.scheduleWithFixedDelay(this::gravar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        agendador.shutdown();
+        agendador.awaitTermination(10, TimeUnit.SECONDS);
+        gravar();
+    }
+
+    /**
+     * Registra a entrada de um aluno na unidade.
+     *
+     * @param nomeUnidade Unidade da academia.
+     * @param dataHora Horário da entrada.
+     * @param contarNoMapa false quando a entrada já foi contada no mapa de calor, como ao
+     *                     reconstruir a presença a partir dos check-ins gravados.
+     */
+    public void entrou(String nomeUnidade, LocalDateTime dataHora, boolean contarNoMapa) {
+        Unidade unidade = unidade(nomeUnidade);
+        unidade.presentes.increment();
+        if (contarNoMapa) {
+            unidade.entradas[celula(dataHora.getDayOfWeek().getValue(), dataHora.getHour())].increment();
+        }
+    }
+
+    /**
+     * Registra a saída de um aluno da unidade.
+     */
+    public void saiu(String nomeUnidade) {
+        unidade(nomeUnidade).presentes.decrement();
+    }
+
+    /**
+     * Zera a quantidade de presentes de todas as unidades, antes de reconstruir a presença.
+     */
+    public void zerarPresentes() {
+        unidades.values().forEach(unidade -> unidade.presentes.reset());
+    }
+
+    /**
+     * @return a quantidade de alunos presentes em cada unidade, em ordem alfabética.
+     */
+    public Map<String, Long> getPresentes() {
+        Map<String, Long> presentes = new TreeMap<>();
+        unidades.forEach((nome, unidade) -> presentes.put(nome, unidade.presentes.sum()));
+        return presentes;
+    }
+
+    /**
+     * @return o mapa de calor da unidade, ou null se a unidade não tiver registros.
+     */
+    public MapaDeCalorDTO getMapa(String nomeUnidade) {
+        Unidade unidade = unidades.get(nomeUnidade);
+        if (unidade == null) {
+            return null;
+        }
+        long[][] entradas = new long[DIAS][HORAS];
+        for (int dia = 0; dia < DIAS; dia++) {
+            for (int hora = 0; hora < HORAS; hora++) {
+                entradas[dia][hora] = unidade.entradas[dia * HORAS + hora].sum();
+            }
+        }
+        return new MapaDeCalorDTO(nomeUnidade, entradas);
+    }
+
+    /**
+     * Grava as células do mapa de calor alteradas desde a última gravação.
+     */
+    void gravar() {
+        List<Object[]> alteradas = new ArrayList<>();
+        Map<Unidade, long[]> valores = new HashMap<>();
+        unidades.forEach((nome, unidade) -> {
+            long[] atuais = new long[DIAS * HORAS];
+            for (int celula = 0; celula < atuais.length; celula++) {
+                atuais[celula] = unidade.entradas[celula].sum();
+                if (atuais[celula] != unidade.gravadas[celula]) {
+                    alteradas.add(new Object[]{atuais[celula], nome, celula / HORAS + 1, celula % HORAS});
+                }
+            }
+            valores.put(unidade, atuais);
+        });
+        if (alteradas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] atualizadas = jdbcTemplate.batchUpdate(ATUALIZAR, alteradas);
+                List<Object[]> novas = new ArrayList<>();
+                for (int i = 0; i < atualizadas.length; i++) {
+                    if (atualizadas[i] == 0) {
+                        Object[] celula = alteradas.get(i);
+                        novas.add(new Object[]{celula[1], celula[2], celula[3], celula[0]});
+                    }
+                }
+                if (!novas.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERIR, novas);
+                }
+            });
+            valores.forEach((unidade, atuais) -> System.arraycopy(atuais, 0, unidade.gravadas, 0, atuais.length));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Falha ao gravar o mapa de ocupação ({} células); nova tentativa no próximo intervalo",
+                    alteradas.size(), e);
+        }
+    }
+
+    private Unidade unidade(String nome) {
+        return unidades.computeIfAbsent(nome, n -> new Unidade());
+    }
+
+    private static int celula(int diaSemana, int hora) {
+        return (diaSemana - 1) * HORAS + hora;
+    }
+
+    private static final class Unidade {
+
+        private final LongAdder presentes = new LongAdder();
+
+        private final LongAdder[] entradas = new LongAdder[DIAS * HORAS];
+
+        // Valores de cada célula na última gravação; acessados somente pela gravação e pela carga
+        private final long[] gravadas = new long[DIAS * HORAS];
+
+        private Unidade() {
+            for (int i = 0; i < entradas.length; i++) {
+                entradas[i] = new LongAdder();
+            }
+        }
+    }
+}
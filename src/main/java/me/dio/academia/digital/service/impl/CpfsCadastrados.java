@@ -0,0 +1,227 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.utils.CpfUtils;
+import me.dio.academia.digital.infra.utils.LongHashSet;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Conjunto em memória dos CPFs cadastrados, normalizados como número.
+ *
+ * Permite que o cadastro individual e em lote rejeite CPFs repetidos sem acessar o banco de dados.
+ * Como é atualizado somente após o commit, não serve para concluir que um CPF não está cadastrado;
+ * a busca por CPF consulta sempre o banco de dados. O conjunto é exato (não há falsos positivos, como em um
+ * filtro de Bloom) e ocupa cerca de 16 bytes por aluno. O banco de dados continua sendo a
+ * garantia final, através do índice único de <code>cpf_numero</code>.
+ *
+ * Na inicialização, os alunos gravados antes da existência da coluna <code>cpf_numero</code> têm
+ * o CPF normalizado e, com <code>academia.alunos.filtro-cpf.habilitado=true</code>, todos os CPFs
+ * são carregados. Até o fim da carga, {@link #isCarregado()} retorna false e o cadastro deve
+ * recorrer ao banco de dados.
+ */
+@Component
+public class CpfsCadastrados {
+
+    private static final Logger log = LoggerFactory.getLogger(CpfsCadastrados.class);
+
+    private static final int TAMANHO_BLOCO = 1000;
+
+    private static final String NORMALIZAR = "update tb_alunos set cpf_numero = ? where id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${academia.alunos.filtro-cpf.habilitado:true}")
+    private boolean habilitado;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongHashSet cpfs = new LongHashSet(1024);
+
+    // CPFs removidos enquanto a carga inicial está em andamento, que não devem permanecer no conjunto
+    private final Set<Long> removidosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean carregado;
+
+    /**
+     * Normaliza os CPFs pendentes e, se habilitado, carrega o conjunto após a inicialização da aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        int normalizados = normalizarPendentes();
+        if (normalizados > 0) {
+            log.info("CPF normalizado de {} alunos em {} ms", normalizados, System.currentTimeMillis() - inicio);
+        }
+        recarregar();
+    }
+
+    /**
+     * Lê todos os CPFs do banco de dados e os acrescenta ao conjunto, inclusive após a geração da
+     * massa de dados, que grava diretamente no banco de dados sem publicar {@link AlunoAlteradoEvent}.
+     */
+    @EventListener(DadosGeradosEvent.class)
+    public void recarregar() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        carregado = false;
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("select cpf_numero from tb_alunos where cpf_numero is not null");
+                ps.setFetchSize(10_000);
+                return ps;
+            }, (RowCallbackHandler) rs -> adicionar(rs.getLong(1)));
+        });
+        lock.writeLock().lock();
+        try {
+            removidosDuranteCarga.forEach(cpfs::remove);
+            removidosDuranteCarga.clear();
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("CPFs cadastrados carregados: {} em {} ms", tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indica se o conjunto está completo e pode ser consultado no lugar do banco de dados.
+     */
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Indica se o CPF, normalizado como número, pertence a algum aluno.
+     * O resultado só é confiável quando {@link #isCarregado()} retorna true.
+     */
+    public boolean contem(long cpf) {
+        lock.readLock().lock();
+        try {
+            return cpfs.contains(cpf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return cpfs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mantém o conjunto sincronizado com os alunos criados, atualizados ou removidos,
+     * após a confirmação da transação.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        if (!habilitado) {
+            return;
+        }
+        Long anterior = event.getAnterior() != null ? CpfUtils.paraNumero(event.getAnterior().getCpf()) : null;
+        Long atual = event.getAtual() != null ? CpfUtils.paraNumero(event.getAtual().getCpf()) : null;
+        if (anterior != null && !anterior.equals(atual)) {
+            lock.writeLock().lock();
+            try {
+                if (!carregado) {
+                    removidosDuranteCarga.add(anterior);
+                }
+                cpfs.remove(anterior);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (atual != null) {
+            removidosDuranteCarga.remove(atual);
+            adicionar(atual);
+        }
+    }
+
+    private void adicionar(long cpf) {
+        if (cpf <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            cpfs.add(cpf);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Preenche <code>cpf_numero</code> dos alunos gravados antes da existência da coluna, em blocos
+     * percorridos pelo id, cada um em sua própria transação.
+     */
+    private int normalizarPendentes() {
+        int total = 0;
+        long ultimoId = 0;
+        while (true) {
+            List<AlunoDTO> pendentes = jdbcTemplate.query(
+                    "select id, cpf from tb_alunos where cpf_numero is null and id > ? order by id fetch first "
+                            + TAMANHO_BLOCO + " rows only",
+                    (rs, i) -> new AlunoDTO(rs.getLong(1), null, rs.getString(2), null, null, null), ultimoId);
+            if (pendentes.isEmpty()) {
+                return total;
+            }
+            List<Object[]> atualizacoes = new ArrayList<>(pendentes.size());
+            for (AlunoDTO aluno : pendentes) {
+                Long cpf = CpfUtils.paraNumero(aluno.getCpf());
+                if (cpf != null) {
+                    atualizacoes.add(new Object[]{cpf, aluno.getId()});
+                } else {
+                    log.warn("Aluno {} com CPF fora do formato esperado; não será encontrado pela busca por CPF",
+                            aluno.getId());
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(NORMALIZAR, atualizacoes));
+                total += atualizacoes.size();
+            } catch (DataIntegrityViolationException e) {
+                // O mesmo CPF gravado com e sem pontuação: normaliza um a um e mantém o primeiro
+                for (Object[] atualizacao : atualizacoes) {
+                    try {
+                        jdbcTemplate.update(NORMALIZAR, atualizacao);
+                        total++;
+                    } catch (DataIntegrityViolationException duplicado) {
+                        log.warn("Aluno {} com CPF já cadastrado em outro aluno; não será encontrado pela busca por CPF",
+                                atualizacao[1]);
+                    }
+                }
+            }
+            ultimoId = pendentes.get(pendentes.size() - 1).getId();
+        }
+    }
+}
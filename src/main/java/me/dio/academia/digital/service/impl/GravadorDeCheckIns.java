@@ -0,0 +1,233 @@
+package me.dio.academia.digital.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.dio.academia.digital.entity.CheckIn;
+import me.dio.academia.digital.exception.CheckInsSobrecarregadosException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava os check-ins em lote, em uma thread própria.
+ *
+ * A requisição apenas coloca o check-in em uma fila circular de
+ * <code>academia.checkins.capacidade-fila</code> posições, que absorve os picos de movimento. A
+ * thread de gravação retira da fila tudo o que se acumulou (até <code>tamanho-lote</code>
+ * check-ins) e grava com um único <code>insert</code> em lote: quanto maior o movimento, maiores
+ * os lotes e menor o custo por check-in.
+ *
+ * Nenhum check-in aceito é descartado por lentidão do banco de dados: as falhas de gravação são
+ * repetidas com espera crescente, e enquanto isso a fila enche. Com a fila cheia, a requisição
+ * aguarda até <code>espera-maxima</code> por uma posição e, se não houver, é recusada com
+ * {@link CheckInsSobrecarregadosException} para que a catraca reenvie o check-in. Só são
+ * descartados os check-ins rejeitados pelo banco de dados (de matrículas já removidas).
+ */
+@Component
+public class GravadorDeCheckIns {
+
+    private static final Logger log = LoggerFactory.getLogger(GravadorDeCheckIns.class);
+
+    private static final String INSERT =
+            "insert into tb_checkins (matricula_id, tipo, unidade, catraca, data_hora) values (?, ?, ?, ?, ?)";
+
+    private static final long ESPERA_INICIAL_MS = 100;
+
+    private static final long ESPERA_MAXIMA_MS = 5_000;
+
+    private static final int TENTATIVAS_NO_ENCERRAMENTO = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${academia.checkins.capacidade-fila:65536}")
+    private int capacidadeFila;
+
+    @Value("${academia.checkins.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${academia.checkins.espera-maxima:2s}")
+    private Duration esperaMaxima;
+
+    private BlockingQueue<Pendente> fila;
+
+    private Counter gravados;
+
+    private Counter descartados;
+
+    private Thread escritor;
+
+    private volatile boolean encerrando;
+
+    @PostConstruct
+    void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        meterRegistry.gauge("academia.checkins.fila", fila, BlockingQueue::size);
+        gravados = meterRegistry.counter("academia.checkins.gravados");
+        descartados = meterRegistry.counter("academia.checkins.descartados");
+        escritor = new Thread(this::escrever, "checkin-writer");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Grava os check-ins que ainda estão na fila antes de encerrar.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        encerrando = true;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+        if (!fila.isEmpty()) {
+            log.error("{} check-ins não gravados no encerramento", fila.size());
+        }
+    }
+
+    /**
+     * Coloca o check-in na fila de gravação, aguardando até <code>espera-maxima</code> se a fila
+     * estiver cheia.
+     *
+     * @throws CheckInsSobrecarregadosException Caso a fila continue cheia.
+     */
+    void enfileirar(Pendente checkIn) {
+        boolean aceito;
+        try {
+            aceito = !encerrando && fila.offer(checkIn, esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aceito = false;
+        }
+        if (!aceito) {
+            throw new CheckInsSobrecarregadosException("Check-ins em excesso; reenvie em alguns instantes.");
+        }
+    }
+
+    int pendentes() {
+        return fila.size();
+    }
+
+    private void escrever() {
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        while (!encerrando || !fila.isEmpty()) {
+            Pendente primeiro;
+            try {
+                primeiro = fila.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // O encerramento é sinalizado por "encerrando", e a fila é esvaziada antes de sair
+                continue;
+            }
+            if (primeiro == null) {
+                continue;
+            }
+            lote.add(primeiro);
+            fila.drainTo(lote, tamanhoLote - 1);
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    private void gravar(List<Pendente> lote) {
+        long espera = ESPERA_INICIAL_MS;
+        boolean umAUm = false;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                if (umAUm) {
+                    gravarUmAUm(lote);
+                } else {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), GravadorDeCheckIns::preencher));
+                    gravados.increment(lote.size());
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                umAUm = true;
+            } catch (DataAccessException | TransactionException e) {
+                if (encerrando && tentativa >= TENTATIVAS_NO_ENCERRAMENTO) {
+                    log.error("{} check-ins não gravados no encerramento", lote.size(), e);
+                    return;
+                }
+                log.warn("Falha ao gravar {} check-ins ({}); nova tentativa em {} ms",
+                        lote.size(), e.getMostSpecificCause().getMessage(), espera);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrompido) {
+                    // A gravação é tentada novamente; o limite de tentativas vale apenas no encerramento
+                }
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            }
+        }
+    }
+
+    /**
+     * Grava um a um os check-ins de um lote rejeitado, descartando os de matrículas inexistentes.
+     * Os check-ins processados saem do lote, para que uma nova tentativa continue do ponto em que
+     * esta parou.
+     */
+    private void gravarUmAUm(List<Pendente> lote) {
+        for (Iterator<Pendente> pendentes = lote.iterator(); pendentes.hasNext(); ) {
+            Pendente checkIn = pendentes.next();
+            try {
+                jdbcTemplate.update(INSERT, ps -> preencher(ps, checkIn));
+                gravados.increment();
+            } catch (DataIntegrityViolationException e) {
+                descartados.increment();
+                log.warn("Check-in descartado: matrícula {} não encontrada", checkIn.getMatriculaId());
+            }
+            pendentes.remove();
+        }
+    }
+
+    private static void preencher(PreparedStatement ps, Pendente checkIn) throws SQLException {
+        ps.setLong(1, checkIn.getMatriculaId());
+        ps.setString(2, checkIn.getTipo().name());
+        ps.setString(3, checkIn.getUnidade());
+        ps.setString(4, checkIn.getCatraca());
+        ps.setTimestamp(5, Timestamp.valueOf(checkIn.getDataHora()));
+    }
+
+    /**
+     * Check-in aceito e ainda não gravado.
+     */
+    @Getter
+    @AllArgsConstructor
+    static class Pendente {
+
+        private final long matriculaId;
+
+        private final CheckIn.Tipo tipo;
+
+        private final String unidade;
+
+        private final String catraca;
+
+        private final LocalDateTime dataHora;
+    }
+}
@@ -0,0 +1,173 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.entity.dto.HistoricoDTO;
+import me.dio.academia.digital.entity.dto.TendenciaDTO;
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.particionamento.AvaliacoesDescartadasEvent;
+import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
+import me.dio.academia.digital.service.IHistoricoAvaliacoesService;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do armazenamento em memória do histórico de avaliações físicas.
+ *
+ * Habilitado com <code>academia.historico.habilitado=true</code>. Na inicialização, todas as
+ * avaliações são lidas uma única vez e organizadas por aluno em uma {@link SerieHistorica}, com
+ * colunas de tipos primitivos. A partir daí, o armazenamento acompanha as alterações feitas pela
+ * camada de serviço através do {@link AvaliacaoFisicaAlteradaEvent}, e as consultas de histórico
+ * e tendência são respondidas sem acessar o banco de dados.
+ */
+@Service
+@ConditionalOnProperty(prefix = "academia.historico", name = "habilitado", havingValue = "true")
+public class HistoricoAvaliacoesServiceImpl implements IHistoricoAvaliacoesService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoricoAvaliacoesServiceImpl.class);
+
+    private static final long SEM_LIMITE_INICIO = Long.MIN_VALUE;
+
+    private static final long SEM_LIMITE_FIM = Long.MAX_VALUE;
+
+    @Autowired
+    private AvaliacaoFisicaRepository avaliacaoFisicaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, SerieHistorica> series = new ConcurrentHashMap<>();
+
+    // Avaliações removidas enquanto a carga inicial está em andamento, que não devem ser recarregadas
+    private final Set<Long> removidasDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    // Alunos removidos enquanto a carga inicial está em andamento, cujas avaliações não devem ser recarregadas
+    private final Set<Long> alunosRemovidosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean carregando = true;
+
+    /**
+     * Carrega todas as avaliações físicas na memória após a inicialização da aplicação e após a
+     * geração da massa de dados, que grava diretamente no banco de dados.
+     */
+    @EventListener({ApplicationReadyEvent.class, DadosGeradosEvent.class})
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        carregando = true;
+        long total = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            try (Stream<AvaliacaoFisicaDTO> avaliacoes = avaliacaoFisicaRepository.streamAll()) {
+                return avaliacoes
+                        .filter(avaliacao -> !removidasDuranteCarga.contains(avaliacao.getId())
+                                && !alunosRemovidosDuranteCarga.contains(avaliacao.getAlunoId()))
+                        .peek(this::adicionar)
+                        .count();
+            }
+        });
+        carregando = false;
+        removidasDuranteCarga.clear();
+        alunosRemovidosDuranteCarga.clear();
+        log.info("Histórico de avaliações carregado: {} avaliações de {} alunos em {} ms",
+                total, series.size(), System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    public HistoricoDTO getHistorico(Long alunoId, LocalDate de, LocalDate ate) {
+        return serie(alunoId).intervalo(inicio(de), fim(ate));
+    }
+
+    @Override
+    public TendenciaDTO getTendencia(Long alunoId, LocalDate de, LocalDate ate) {
+        return serie(alunoId).tendencia(inicio(de), fim(ate));
+    }
+
+    /**
+     * Mantém o histórico sincronizado com as avaliações criadas, atualizadas ou removidas,
+     * após a confirmação da transação.
+     *
+     * @param event Evento da avaliação física alterada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent event) {
+        if (event.getAnterior() != null) {
+            if (carregando) {
+                removidasDuranteCarga.add(event.getAnterior().getId());
+            }
+            SerieHistorica serie = series.get(event.getAnterior().getAlunoId());
+            if (serie != null) {
+                serie.remover(event.getAnterior().getId());
+            }
+        }
+        if (event.getAtual() != null) {
+            adicionar(event.getAtual());
+        }
+    }
+
+    /**
+     * Descarta a série de um aluno removido, após a confirmação da transação. As avaliações são
+     * excluídas pelo banco de dados junto com o aluno, sem publicar {@link AvaliacaoFisicaAlteradaEvent}.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        if (event.getTipo() != AlunoAlteradoEvent.Tipo.REMOVIDO) {
+            return;
+        }
+        Long alunoId = event.getAnterior().getId();
+        if (carregando) {
+            alunosRemovidosDuranteCarga.add(alunoId);
+        }
+        series.remove(alunoId);
+    }
+
+    /**
+     * Retira do histórico as avaliações excluídas junto com as partições descartadas.
+     *
+     * @param event Evento com o limite das avaliações descartadas.
+     */
+    @EventListener
+    public void onAvaliacoesDescartadas(AvaliacoesDescartadasEvent event) {
+        long ate = epochMillis(event.getAte());
+        series.values().forEach(serie -> serie.removerAnteriores(ate));
+    }
+
+    private void adicionar(AvaliacaoFisicaDTO avaliacao) {
+        series.computeIfAbsent(avaliacao.getAlunoId(), SerieHistorica::new)
+                .adicionar(avaliacao.getId(), epochMillis(avaliacao.getDataDaAvaliacao()),
+                        avaliacao.getPeso(), avaliacao.getAltura());
+    }
+
+    private SerieHistorica serie(Long alunoId) {
+        SerieHistorica serie = series.get(alunoId);
+        return serie != null ? serie : new SerieHistorica(alunoId);
+    }
+
+    private static long inicio(LocalDate de) {
+        return de == null ? SEM_LIMITE_INICIO : epochMillis(de.atStartOfDay());
+    }
+
+    private static long fim(LocalDate ate) {
+        return ate == null ? SEM_LIMITE_FIM : epochMillis(ate.plusDays(1).atStartOfDay());
+    }
+
+    private static long epochMillis(LocalDateTime data) {
+        return data.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,482 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.infra.utils.TextoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido dos nomes dos alunos, normalizados sem acentos e em minúsculas.
+ *
+ * Cada palavra dos nomes fica em um vocabulário ordenado, associada aos ids dos alunos que a
+ * contêm, em ordem crescente. Uma palavra da busca corresponde às palavras do vocabulário que
+ * começam por ela (um intervalo do vocabulário) e, a partir de 4 letras, também às que diferem
+ * dela por até uma letra (duas, a partir de 7 letras) trocada, inserida, removida ou transposta,
+ * mantendo a primeira letra.
+ *
+ * A busca percorre apenas os alunos do termo com menos correspondências, das correspondências de
+ * maior nota para as de menor e, em cada nota, em ordem crescente de id, conferindo os demais
+ * termos e o bairro em cada aluno. Como os empates são resolvidos pelo id, a busca para assim que
+ * nenhum aluno restante pode superar os resultados já encontrados, o que costuma acontecer após
+ * conferir poucas dezenas de alunos.
+ */
+class IndiceDeNomes {
+
+    private static final int EXATA = 4;
+
+    private static final int PREFIXO = 3;
+
+    private static final int APROXIMADA = 2;
+
+    private static final int TAMANHO_MINIMO_APROXIMADA = 4;
+
+    private static final int TAMANHO_MINIMO_DUAS_DIFERENCAS = 7;
+
+    private static final Comparator<Resultado> MELHOR_PRIMEIRO = Comparator
+            .comparingInt((Resultado resultado) -> -resultado.pontos)
+            .thenComparingLong(resultado -> resultado.id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Ids> vocabulario = new TreeMap<>();
+
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+
+    // Ids dos alunos de cada bairro normalizado, em ordem crescente
+    private final Map<String, Ids> bairros = new HashMap<>();
+
+    /**
+     * Inclui o aluno no índice, substituindo o nome e o bairro anteriores, se houver.
+     */
+    void adicionar(long id, String nome, String bairro) {
+        String[] palavras = TextoUtils.palavras(nome);
+        String bairroNormalizado = TextoUtils.normalizar(bairro);
+        lock.writeLock().lock();
+        try {
+            removerEntrada(id);
+            for (int i = 0; i < palavras.length; i++) {
+                String palavra = palavras[i];
+                Ids ids = vocabulario.get(palavra);
+                if (ids == null) {
+                    ids = new Ids();
+                    vocabulario.put(palavra, ids);
+                } else {
+                    // Reaproveita a instância do vocabulário em vez de manter uma cópia por aluno
+                    palavra = vocabulario.ceilingKey(palavra);
+                }
+                palavras[i] = palavra;
+                ids.adicionar(id);
+            }
+            bairros.computeIfAbsent(bairroNormalizado, b -> new Ids()).adicionar(id);
+            entradas.put(id, new Entrada(palavras, bairroNormalizado));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remover(long id) {
+        lock.writeLock().lock();
+        try {
+            removerEntrada(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int tamanho() {
+        lock.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os alunos cujo nome contém todas as palavras informadas, por prefixo ou aproximação.
+     *
+     * @param nome - palavras a buscar, em qualquer ordem.
+     * @param bairro - bairro dos alunos, ou null para não filtrar.
+     * @param limite - quantidade máxima de resultados.
+     * @return - os ids dos alunos encontrados, dos mais para os menos relevantes. Cada termo vale 4
+     * pontos se for igual a uma palavra do nome, 3 se for o início de uma palavra e 2 ou 1 se for
+     * aproximado; em caso de empate, vêm primeiro os alunos cadastrados há mais tempo.
+     */
+    List<Long> buscar(String nome, String bairro, int limite) {
+        String[] termos = TextoUtils.palavras(nome);
+        String bairroNormalizado = bairro == null || bairro.isBlank() ? null : TextoUtils.normalizar(bairro);
+        if (termos.length == 0 || limite <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Ids doBairro = null;
+            if (bairroNormalizado != null) {
+                doBairro = bairros.get(bairroNormalizado);
+                if (doBairro == null) {
+                    return new ArrayList<>();
+                }
+            }
+
+            // O termo com menos alunos correspondentes por prefixo conduz a busca
+            int condutor = 0;
+            long menorQuantidade = Long.MAX_VALUE;
+            int pontosMaximos = 0;
+            int[] notasMaximas = new int[termos.length];
+            for (int i = 0; i < termos.length; i++) {
+                NavigableMap<String, Ids> prefixo = porPrefixo(termos[i]);
+                long quantidade = prefixo.values().stream().mapToLong(ids -> ids.tamanho).sum();
+                if (quantidade < menorQuantidade) {
+                    condutor = i;
+                    menorQuantidade = quantidade;
+                }
+                notasMaximas[i] = prefixo.containsKey(termos[i]) ? EXATA
+                        : !prefixo.isEmpty() ? PREFIXO
+                        : termos[i].length() >= TAMANHO_MINIMO_APROXIMADA ? APROXIMADA : 0;
+                if (notasMaximas[i] == 0) {
+                    return new ArrayList<>();
+                }
+                pontosMaximos += notasMaximas[i];
+            }
+
+            Coleta coleta = new Coleta(termos, condutor, pontosMaximos - notasMaximas[condutor], doBairro, limite);
+            String termo = termos[condutor];
+            Ids exata = vocabulario.get(termo);
+            boolean continuar = exata == null || coleta.percorrer(EXATA, List.of(exata));
+            if (continuar) {
+                List<Ids> prefixo = new ArrayList<>(porPrefixo(termo).tailMap(termo, false).values());
+                continuar = coleta.percorrer(PREFIXO, prefixo);
+            }
+            // As palavras aproximadas só são procuradas se puderem superar os resultados já encontrados
+            if (continuar && termo.length() >= TAMANHO_MINIMO_APROXIMADA && coleta.podeSuperar(APROXIMADA)) {
+                List<List<Ids>> aproximadas = aproximadas(termo);
+                for (int nota = APROXIMADA; nota > 0 && continuar; nota--) {
+                    continuar = coleta.percorrer(nota, aproximadas.get(APROXIMADA - nota));
+                }
+            }
+            return coleta.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, Ids> porPrefixo(String termo) {
+        return vocabulario.subMap(termo, true, termo + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Retorna os alunos de cada palavra do vocabulário que se aproxima do termo sem começar por ele,
+     * separados pela nota da correspondência (2 e 1). Como em outros mecanismos de busca, a primeira
+     * letra deve ser igual, o que restringe a procura a um intervalo do vocabulário.
+     */
+    private List<List<Ids>> aproximadas(String termo) {
+        List<List<Ids>> porNota = List.of(new ArrayList<>(), new ArrayList<>());
+        for (Map.Entry<String, Ids> palavra : porPrefixo(termo.substring(0, 1)).entrySet()) {
+            if (!palavra.getKey().startsWith(termo)) {
+                int nota = nota(termo, palavra.getKey());
+                if (nota > 0) {
+                    porNota.get(APROXIMADA - nota).add(palavra.getValue());
+                }
+            }
+        }
+        return porNota;
+    }
+
+    /**
+     * Nota da correspondência entre um termo buscado e uma palavra do nome: 4 se forem iguais, 3 se
+     * a palavra começar pelo termo, 2 ou 1 se a palavra (ou o seu início) diferir do termo por uma ou
+     * duas letras, e 0 se não corresponderem.
+     */
+    static int nota(String termo, String palavra) {
+        if (palavra.startsWith(termo)) {
+            return palavra.length() == termo.length() ? EXATA : PREFIXO;
+        }
+        if (termo.length() < TAMANHO_MINIMO_APROXIMADA) {
+            return 0;
+        }
+        int maximo = termo.length() >= TAMANHO_MINIMO_DUAS_DIFERENCAS ? 2 : 1;
+        if (palavra.charAt(0) != termo.charAt(0) || palavra.length() < termo.length() - maximo) {
+            return 0;
+        }
+        int distancia = distancia(termo, palavra, palavra.length(), maximo);
+        // Compara também com o início da palavra, para que "slva" corresponda a "silvana"
+        for (int tamanho = termo.length() - 1; tamanho <= termo.length() + 1 && distancia > 0; tamanho++) {
+            if (tamanho > 0 && tamanho < palavra.length()) {
+                distancia = Math.min(distancia, distancia(termo, palavra, tamanho, maximo));
+            }
+        }
+        return distancia <= maximo ? APROXIMADA + 1 - distancia : 0;
+    }
+
+    /**
+     * Distância de edição (Damerau-Levenshtein restrita) entre o termo e as primeiras
+     * <code>tamanho</code> letras da palavra, interrompida assim que ultrapassa <code>maximo</code>.
+     */
+    private static int distancia(String termo, String palavra, int tamanho, int maximo) {
+        int n = termo.length();
+        if (Math.abs(n - tamanho) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior2 = new int[tamanho + 1];
+        int[] anterior = new int[tamanho + 1];
+        int[] atual = new int[tamanho + 1];
+        for (int j = 0; j <= tamanho; j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            atual[0] = i;
+            int menor = i;
+            char a = termo.charAt(i - 1);
+            for (int j = 1; j <= tamanho; j++) {
+                char b = palavra.charAt(j - 1);
+                int custo = a == b ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, atual[j - 1] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a == palavra.charAt(j - 2) && termo.charAt(i - 2) == b) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                atual[j] = valor;
+                menor = Math.min(menor, valor);
+            }
+            if (menor > maximo) {
+                return maximo + 1;
+            }
+            int[] descartada = anterior2;
+            anterior2 = anterior;
+            anterior = atual;
+            atual = descartada;
+        }
+        return anterior[tamanho];
+    }
+
+    private void removerEntrada(long id) {
+        Entrada entrada = entradas.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        for (String palavra : entrada.palavras) {
+            Ids ids = vocabulario.get(palavra);
+            if (ids != null && ids.remover(id) && ids.tamanho == 0) {
+                vocabulario.remove(palavra);
+            }
+        }
+        Ids doBairro = bairros.get(entrada.bairro);
+        if (doBairro != null && doBairro.remover(id) && doBairro.tamanho == 0) {
+            bairros.remove(entrada.bairro);
+        }
+    }
+
+    /**
+     * Seleção dos melhores resultados de uma busca, à medida que os alunos candidatos são conferidos.
+     */
+    private final class Coleta {
+
+        private final String[] termos;
+
+        private final int condutor;
+
+        // Soma das notas máximas possíveis dos termos que não conduzem a busca
+        private final int pontosMaximosDemais;
+
+        // Alunos do bairro buscado, ou null para não filtrar
+        private final Ids doBairro;
+
+        private final int limite;
+
+        // Mantém os melhores resultados, com o pior deles no topo da fila
+        private final PriorityQueue<Resultado> melhores;
+
+        private Coleta(String[] termos, int condutor, int pontosMaximosDemais, Ids doBairro, int limite) {
+            this.termos = termos;
+            this.condutor = condutor;
+            this.pontosMaximosDemais = pontosMaximosDemais;
+            this.doBairro = doBairro;
+            this.limite = limite;
+            this.melhores = new PriorityQueue<>(limite + 1, MELHOR_PRIMEIRO.reversed());
+        }
+
+        /**
+         * Indica se um aluno cujo termo condutor tem a nota informada pode entrar nos resultados.
+         */
+        private boolean podeSuperar(int nota) {
+            return melhores.size() < limite || melhores.peek().pontos <= nota + pontosMaximosDemais;
+        }
+
+        /**
+         * Confere, em ordem crescente de id, os alunos das listas em que o termo condutor tem a nota informada.
+         *
+         * @return - false se nenhum aluno com nota menor ou igual pode mais entrar nos resultados.
+         */
+        private boolean percorrer(int nota, List<Ids> listas) {
+            int pontosMaximos = nota + pontosMaximosDemais;
+            PriorityQueue<Cursor> cursores = new PriorityQueue<>(Math.max(1, listas.size()),
+                    Comparator.comparingLong(Cursor::atual));
+            for (Ids ids : listas) {
+                if (ids.tamanho > 0) {
+                    cursores.offer(new Cursor(ids));
+                }
+            }
+            long anterior = 0;
+            while (!cursores.isEmpty()) {
+                Cursor cursor = cursores.poll();
+                long id = cursor.atual();
+                if (cursor.avancar()) {
+                    cursores.offer(cursor);
+                }
+                if (id == anterior) {
+                    continue;
+                }
+                anterior = id;
+                if (melhores.size() == limite) {
+                    // Os próximos alunos têm ids maiores e, portanto, perdem os empates
+                    Resultado pior = melhores.peek();
+                    if (pior.pontos > pontosMaximos || (pior.pontos == pontosMaximos && pior.id < id)) {
+                        return false;
+                    }
+                }
+                conferir(id, nota);
+            }
+            return true;
+        }
+
+        private void conferir(long id, int nota) {
+            if (doBairro != null && !doBairro.contem(id)) {
+                return;
+            }
+            Entrada entrada = entradas.get(id);
+            // Alunos em que o termo condutor tem nota maior já foram conferidos em uma etapa anterior
+            if (melhorNota(termos[condutor], entrada.palavras) != nota) {
+                return;
+            }
+            int pontos = nota;
+            for (int i = 0; i < termos.length; i++) {
+                if (i != condutor) {
+                    int melhor = melhorNota(termos[i], entrada.palavras);
+                    if (melhor == 0) {
+                        return;
+                    }
+                    pontos += melhor;
+                }
+            }
+            Resultado resultado = new Resultado(id, pontos);
+            if (melhores.size() < limite) {
+                melhores.offer(resultado);
+            } else if (MELHOR_PRIMEIRO.compare(resultado, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.offer(resultado);
+            }
+        }
+
+        private int melhorNota(String termo, String[] palavras) {
+            int melhor = 0;
+            for (int i = 0; i < palavras.length && melhor < EXATA; i++) {
+                melhor = Math.max(melhor, nota(termo, palavras[i]));
+            }
+            return melhor;
+        }
+
+        private List<Long> ids() {
+            Resultado[] ordenados = melhores.toArray(new Resultado[0]);
+            Arrays.sort(ordenados, MELHOR_PRIMEIRO);
+            List<Long> ids = new ArrayList<>(ordenados.length);
+            for (Resultado resultado : ordenados) {
+                ids.add(resultado.id);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Ids dos alunos que contêm uma palavra, em ordem crescente. Como os ids novos são maiores que
+     * os existentes, a inclusão normalmente acontece no fim da lista.
+     */
+    private static final class Ids {
+
+        private long[] valores = new long[2];
+
+        private int tamanho;
+
+        private void adicionar(long id) {
+            int posicao = tamanho;
+            if (tamanho > 0 && valores[tamanho - 1] >= id) {
+                posicao = Arrays.binarySearch(valores, 0, tamanho, id);
+                if (posicao >= 0) {
+                    return;
+                }
+                posicao = -posicao - 1;
+            }
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+            }
+            System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+            valores[posicao] = id;
+            tamanho++;
+        }
+
+        private boolean contem(long id) {
+            return Arrays.binarySearch(valores, 0, tamanho, id) >= 0;
+        }
+
+        private boolean remover(long id) {
+            int posicao = Arrays.binarySearch(valores, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+    }
+
+    private static final class Cursor {
+
+        private final Ids ids;
+
+        private int posicao;
+
+        private Cursor(Ids ids) {
+            this.ids = ids;
+        }
+
+        private long atual() {
+            return ids.valores[posicao];
+        }
+
+        private boolean avancar() {
+            return ++posicao < ids.tamanho;
+        }
+    }
+
+    private static final class Entrada {
+
+        private final String[] palavras;
+
+        private final String bairro;
+
+        private Entrada(String[] palavras, String bairro) {
+            this.palavras = palavras;
+            this.bairro = bairro;
+        }
+    }
+
+    private static final class Resultado {
+
+        private final long id;
+
+        private final int pontos;
+
+        private Resultado(long id, int pontos) {
+            this.id = id;
+            this.pontos = pontos;
+        }
+    }
+}
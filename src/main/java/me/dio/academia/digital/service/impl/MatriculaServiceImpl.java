@@ -1,43 +1,254 @@
 package me.dio.academia.digital.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import me.dio.academia.digital.entity.Matricula;
+import me.dio.academia.digital.entity.dto.MatriculaDTO;
 import me.dio.academia.digital.entity.form.MatriculaForm;
+import me.dio.academia.digital.exception.AlunoNotFoundException;
+import me.dio.academia.digital.exception.ChaveIdempotenciaInvalidaException;
+import me.dio.academia.digital.exception.MatriculaExistenteException;
+import me.dio.academia.digital.exception.MatriculaNotFoundException;
+import me.dio.academia.digital.exception.VersaoDesatualizadaException;
+import me.dio.academia.digital.infra.datasource.LeituraNoPrimario;
+import me.dio.academia.digital.infra.metrics.MetricsConfig;
+import me.dio.academia.digital.repository.AlunoRepository;
 import me.dio.academia.digital.repository.MatriculaRepository;
 import me.dio.academia.digital.service.IMatriculaService;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import me.dio.academia.digital.service.event.MatriculaAlteradaEvent;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Implementação do serviço de Matrículas.
+ *
+ * A matrícula é gravada com um único <code>insert</code>, sem consultar antes o aluno nem uma
+ * matrícula existente: a restrição única de <code>aluno_id</code> garante que, entre requisições
+ * concorrentes para o mesmo aluno, apenas uma seja aceita. As consultas adicionais só acontecem
+ * quando o <code>insert</code> é rejeitado, para informar o motivo.
+ *
+ * As requisições com a mesma chave de idempotência são atendidas uma única vez: o resultado (a
+ * matrícula criada ou a rejeição por matrícula existente ou aluno inexistente) fica em memória pelo
+ * tempo configurado e é devolvido às repetições sem acessar o banco de dados. Repetições que chegam enquanto a primeira ainda está
+ * em andamento aguardam o seu resultado.
+ */
 @Service
+@Timed(MetricsConfig.SERVICO)
 public class MatriculaServiceImpl implements IMatriculaService {
 
     @Autowired
     private MatriculaRepository repository;
 
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${academia.matriculas.idempotencia.expiracao:10m}")
+    private Duration expiracaoIdempotencia;
+
+    @Value("${academia.matriculas.idempotencia.max-chaves:100000}")
+    private long maximoChavesIdempotencia;
+
+    private ConcurrentMap<String, CompletableFuture<Resultado>> resultadosPorChave;
+
+    @PostConstruct
+    void configurar() {
+        Cache<String, CompletableFuture<Resultado>> cache = Caffeine.newBuilder()
+                .expireAfterWrite(expiracaoIdempotencia)
+                .maximumSize(maximoChavesIdempotencia)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "matriculas.idempotencia");
+        resultadosPorChave = cache.asMap();
+    }
+
+    /**
+     * Matricula um aluno.
+     *
+     * @param form Formulário com o id do aluno.
+     * @param chaveIdempotencia Chave enviada pelo cliente para identificar as repetições da mesma
+     *                          requisição, ou null para não deduplicar.
+     * @return A matrícula criada.
+     * @throws MatriculaExistenteException Caso o aluno já esteja matriculado.
+     * @throws AlunoNotFoundException Caso o aluno não seja encontrado.
+     * @throws ChaveIdempotenciaInvalidaException Caso a chave já tenha sido usada para outro aluno.
+     */
     @Override
-    public Matricula create(MatriculaForm form) {
-        Matricula matricula = new Matricula();
-        matricula.setId(form.getAlunoId());
-        return matricula;
+    public MatriculaDTO create(MatriculaForm form, String chaveIdempotencia) {
+        Long alunoId = form.getAlunoId();
+        if (chaveIdempotencia == null || chaveIdempotencia.isBlank()) {
+            return matricular(alunoId).obter();
+        }
+
+        CompletableFuture<Resultado> novo = new CompletableFuture<>();
+        CompletableFuture<Resultado> existente = resultadosPorChave.putIfAbsent(chaveIdempotencia, novo);
+        if (existente == null) {
+            try {
+                novo.complete(matricular(alunoId));
+            } catch (RuntimeException e) {
+                // Falhas inesperadas (banco indisponível, por exemplo) não são memorizadas: a repetição tenta novamente
+                resultadosPorChave.remove(chaveIdempotencia, novo);
+                novo.completeExceptionally(e);
+                throw e;
+            }
+            existente = novo;
+        }
+
+        Resultado resultado;
+        try {
+            resultado = existente.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        if (!resultado.alunoId.equals(alunoId)) {
+            throw new ChaveIdempotenciaInvalidaException("A chave de idempotência " + chaveIdempotencia
+                    + " já foi usada para matricular o aluno " + resultado.alunoId + ".");
+        }
+        return resultado.obter();
+    }
+
+    private Resultado matricular(Long alunoId) {
+        try {
+            MatriculaDTO matricula = transactionTemplate.execute(status -> {
+                Matricula nova = new Matricula();
+                nova.setAluno(alunoRepository.getReferenceById(alunoId));
+                MatriculaDTO criada = MatriculaDTO.of(repository.saveAndFlush(nova));
+                eventPublisher.publishEvent(MatriculaAlteradaEvent.criada(criada));
+                return criada;
+            });
+            return new Resultado(alunoId, matricula, null);
+        } catch (DataIntegrityViolationException e) {
+            // Uma violação que não seja a matrícula existente nem a ausência do aluno é uma falha
+            // inesperada, e não uma rejeição a memorizar
+            return new Resultado(alunoId, null, motivoDaRejeicao(alunoId).orElseThrow(() -> e));
+        }
+    }
+
+    /**
+     * Identifica a matrícula ou a ausência do aluno que impediu a gravação. A leitura é feita no
+     * primário, pois a matrícula concorrente pode ter acabado de ser confirmada.
+     *
+     * @return A {@link MatriculaExistenteException} ou a {@link AlunoNotFoundException}, ou vazio
+     * se o aluno existe e não possui matrícula.
+     */
+    private Optional<RuntimeException> motivoDaRejeicao(Long alunoId) {
+        return LeituraNoPrimario.executar(() -> {
+            Optional<MatriculaDTO> existente = repository.findDTOByAlunoId(alunoId);
+            if (existente.isPresent()) {
+                return Optional.of(new MatriculaExistenteException(
+                        "O aluno " + alunoId + " já possui a matrícula " + existente.get().getId() + "."));
+            }
+            if (!alunoRepository.existsById(alunoId)) {
+                return Optional.of(new AlunoNotFoundException("Aluno com ID " + alunoId + " não encontrado"));
+            }
+            return Optional.empty();
+        });
     }
 
     @Override
-    public Matricula get(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Matricula com ID " + id + " não encontrada"));
+    public MatriculaDTO get(Long id) {
+        return repository.findDTOById(id)
+                .orElseThrow(() -> new MatriculaNotFoundException("Matricula com ID " + id + " não encontrada"));
     }
 
     @Override
-    public List<Matricula> getAll() {
-        return repository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+    public MatriculaDTO getByAluno(Long alunoId) {
+        return repository.findDTOByAlunoId(alunoId)
+                .orElseThrow(() -> new MatriculaNotFoundException("O aluno " + alunoId + " não possui matrícula"));
     }
 
+    /**
+     * Remove uma matrícula.
+     *
+     * @param id O identificador da matrícula.
+     * @param versao A versão da matrícula conhecida pelo cliente, ou null para não conferir.
+     * @throws VersaoDesatualizadaException Caso a matrícula tenha sido alterada ou removida
+     * por outra requisição.
+     */
     @Override
-    public void delete(Long id) {
-        Matricula matricula = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("A matrícula com o ID " + id + " não foi encontrada"));
-        repository.delete(matricula);
+    public void delete(Long id, Long versao) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Matricula matricula = repository.findById(id)
+                        .orElseThrow(() -> new MatriculaNotFoundException("A matrícula com o ID " + id + " não foi encontrada"));
+                if (versao != null && !versao.equals(matricula.getVersao())) {
+                    throw new VersaoDesatualizadaException("A matrícula " + id + " está na versão "
+                            + matricula.getVersao() + ", e não na versão " + versao + ".");
+                }
+                repository.delete(matricula);
+                repository.flush();
+                eventPublisher.publishEvent(MatriculaAlteradaEvent.removida(MatriculaDTO.of(matricula)));
+            });
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersaoDesatualizadaException("A matrícula " + id + " foi alterada ou removida por outra requisição.");
+        }
+    }
+
+    /**
+     * Publica a remoção da matrícula de um aluno que está sendo removido.
+     *
+     * A matrícula é excluída pelo banco de dados junto com o aluno (<code>ON DELETE CASCADE</code>),
+     * sem passar por {@link #delete(Long, Long)}. Este listener é executado na transação da remoção
+     * do aluno, antes da exclusão, e o {@link MatriculaAlteradaEvent} publicado aqui só é entregue
+     * aos interessados após a confirmação dessa transação.
+     *
+     * @param event Evento do aluno alterado.
+     */
+    @EventListener
+    public void onAlunoAlterado(AlunoAlteradoEvent event) {
+        if (event.getTipo() == AlunoAlteradoEvent.Tipo.REMOVIDO) {
+            repository.findDTOByAlunoId(event.getAnterior().getId())
+                    .ifPresent(matricula -> eventPublisher.publishEvent(MatriculaAlteradaEvent.removida(matricula)));
+        }
+    }
+
+    /**
+     * Resultado de uma matrícula: a matrícula criada ou o motivo da rejeição.
+     */
+    private static final class Resultado {
+
+        private final Long alunoId;
+
+        private final MatriculaDTO matricula;
+
+        private final RuntimeException rejeicao;
+
+        private Resultado(Long alunoId, MatriculaDTO matricula, RuntimeException rejeicao) {
+            this.alunoId = alunoId;
+            this.matricula = matricula;
+            this.rejeicao = rejeicao;
+        }
+
+        private MatriculaDTO obter() {
+            if (rejeicao != null) {
+                throw rejeicao;
+            }
+            return matricula;
+        }
     }
 }
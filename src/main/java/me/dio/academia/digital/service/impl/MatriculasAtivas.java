@@ -0,0 +1,142 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.infra.gerador.DadosGeradosEvent;
+import me.dio.academia.digital.infra.utils.LongHashSet;
+import me.dio.academia.digital.service.event.MatriculaAlteradaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Conjunto em memória dos ids das matrículas existentes.
+ *
+ * Permite que os check-ins sejam validados sem acessar o banco de dados. O conjunto acompanha as
+ * matrículas criadas e removidas pela camada de serviço através do {@link MatriculaAlteradaEvent},
+ * inclusive as excluídas pelo banco de dados junto com o aluno, cuja remoção é publicada pelo
+ * serviço de matrículas.
+ *
+ * Até o fim da carga, {@link #isCarregado()} retorna false e as consultas devem recorrer ao banco
+ * de dados.
+ */
+@Component
+public class MatriculasAtivas {
+
+    private static final Logger log = LoggerFactory.getLogger(MatriculasAtivas.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongHashSet ids = new LongHashSet(1024);
+
+    // Matrículas removidas enquanto a carga está em andamento, que não devem permanecer no conjunto
+    private final Set<Long> removidasDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean carregado;
+
+    /**
+     * Carrega os ids de todas as matrículas após a inicialização da aplicação e após a geração da
+     * massa de dados, que grava diretamente no banco de dados.
+     */
+    @EventListener({ApplicationReadyEvent.class, DadosGeradosEvent.class})
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        carregado = false;
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("select id from tb_matriculas");
+                ps.setFetchSize(10_000);
+                return ps;
+            }, (RowCallbackHandler) rs -> adicionar(rs.getLong(1)));
+        });
+        lock.writeLock().lock();
+        try {
+            removidasDuranteCarga.forEach(ids::remove);
+            removidasDuranteCarga.clear();
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Matrículas carregadas: {} em {} ms", tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Indica se o conjunto está completo e pode ser consultado no lugar do banco de dados.
+     */
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Indica se a matrícula existe. O resultado só é confiável quando {@link #isCarregado()} retorna true.
+     */
+    public boolean contem(long id) {
+        lock.readLock().lock();
+        try {
+            return ids.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mantém o conjunto sincronizado com as matrículas criadas ou removidas, após a confirmação
+     * da transação.
+     *
+     * @param event Evento da matrícula alterada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMatriculaAlterada(MatriculaAlteradaEvent event) {
+        long id = event.getMatricula().getId();
+        if (event.getTipo() == MatriculaAlteradaEvent.Tipo.CRIADA) {
+            removidasDuranteCarga.remove(id);
+            adicionar(id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!carregado) {
+                removidasDuranteCarga.add(id);
+            }
+            ids.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adicionar(long id) {
+        lock.writeLock().lock();
+        try {
+            ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Estado incremental dos indicadores de um aluno.
+ *
+ * Guarda apenas o necessário para atualizar os indicadores a cada avaliação criada ou removida:
+ * as avaliações extremas (primeira, última, menor e maior peso) e as avaliações das janelas de
+ * 30 e 90 dias, com as somas usadas pela regressão linear. Quando uma alteração atinge uma das
+ * avaliações extremas, o estado não consegue se recompor sozinho e deve ser recarregado.
+ */
+class MetricasAluno {
+
+    private static final Comparator<Ponto> POR_DATA = Comparator.<Ponto>comparingLong(p -> p.instante)
+            .thenComparingLong(p -> p.id);
+
+    private static final Comparator<Ponto> POR_PESO = Comparator.<Ponto>comparingDouble(p -> p.peso)
+            .thenComparing(POR_DATA);
+
+    private final Long alunoId;
+
+    private final Set<Long> ids = new HashSet<>();
+
+    private final JanelaDeslizante janela30Dias = new JanelaDeslizante(Duration.ofDays(30));
+
+    private final JanelaDeslizante janela90Dias = new JanelaDeslizante(Duration.ofDays(90));
+
+    private Ponto primeira;
+
+    private Ponto ultima;
+
+    private Ponto menorPeso;
+
+    private Ponto maiorPeso;
+
+    private volatile AlunoMetricasDTO resumo;
+
+    MetricasAluno(Long alunoId) {
+        this.alunoId = alunoId;
+        this.resumo = AlunoMetricasDTO.semAvaliacoes(alunoId);
+    }
+
+    AlunoMetricasDTO getResumo() {
+        return resumo;
+    }
+
+    /**
+     * Inclui uma avaliação nos indicadores. Avaliações já conhecidas são ignoradas.
+     */
+    synchronized void adicionar(AvaliacaoFisicaDTO avaliacao) {
+        if (!ids.add(avaliacao.getId())) {
+            return;
+        }
+        Ponto ponto = new Ponto(avaliacao);
+        if (primeira == null || POR_DATA.compare(ponto, primeira) < 0) {
+            primeira = ponto;
+        }
+        if (ultima == null || POR_DATA.compare(ponto, ultima) > 0) {
+            ultima = ponto;
+        }
+        if (menorPeso == null || POR_PESO.compare(ponto, menorPeso) < 0) {
+            menorPeso = ponto;
+        }
+        if (maiorPeso == null || POR_PESO.compare(ponto, maiorPeso) > 0) {
+            maiorPeso = ponto;
+        }
+        janela30Dias.adicionar(ponto, ultima.instante);
+        janela90Dias.adicionar(ponto, ultima.instante);
+        atualizarResumo();
+    }
+
+    /**
+     * Retira uma avaliação dos indicadores.
+     *
+     * @return false se a avaliação era uma das extremas e o estado precisa ser recarregado.
+     */
+    synchronized boolean remover(AvaliacaoFisicaDTO avaliacao) {
+        if (!ids.contains(avaliacao.getId())) {
+            return true;
+        }
+        Ponto ponto = new Ponto(avaliacao);
+        if (ponto.id == primeira.id || ponto.id == ultima.id || ponto.id == menorPeso.id || ponto.id == maiorPeso.id) {
+            return false;
+        }
+        ids.remove(ponto.id);
+        janela30Dias.remover(ponto);
+        janela90Dias.remover(ponto);
+        atualizarResumo();
+        return true;
+    }
+
+    private void atualizarResumo() {
+        double alturaEmMetros = ultima.altura / 100;
+        resumo = new AlunoMetricasDTO(
+                alunoId,
+                ids.size(),
+                ultima.data,
+                ultima.peso,
+                ultima.altura,
+                alturaEmMetros > 0 ? ultima.peso / (alturaEmMetros * alturaEmMetros) : null,
+                ultima.peso - primeira.peso,
+                janela30Dias.tendenciaPorSemana(),
+                janela90Dias.tendenciaPorSemana(),
+                menorPeso.peso,
+                maiorPeso.peso);
+    }
+
+    /**
+     * Avaliações de um período que termina na avaliação mais recente, com as somas necessárias
+     * para calcular a inclinação da regressão linear do peso em função do tempo.
+     */
+    private static class JanelaDeslizante {
+
+        private static final double MILLIS_POR_DIA = Duration.ofDays(1).toMillis();
+
+        private final long duracao;
+
+        private final TreeSet<Ponto> pontos = new TreeSet<>(POR_DATA);
+
+        private Long origem;
+
+        private double somaT;
+
+        private double somaP;
+
+        private double somaTT;
+
+        private double somaTP;
+
+        private JanelaDeslizante(Duration duracao) {
+            this.duracao = duracao.toMillis();
+        }
+
+        private void adicionar(Ponto ponto, long fimDaJanela) {
+            while (!pontos.isEmpty() && pontos.first().instante < fimDaJanela - duracao) {
+                acumular(pontos.pollFirst(), -1);
+            }
+            if (ponto.instante >= fimDaJanela - duracao && pontos.add(ponto)) {
+                acumular(ponto, 1);
+            }
+        }
+
+        private void remover(Ponto ponto) {
+            if (pontos.remove(ponto)) {
+                acumular(ponto, -1);
+            }
+        }
+
+        private void acumular(Ponto ponto, int sinal) {
+            if (origem == null) {
+                origem = ponto.instante;
+            }
+            double t = (ponto.instante - origem) / MILLIS_POR_DIA;
+            somaT += sinal * t;
+            somaP += sinal * ponto.peso;
+            somaTT += sinal * t * t;
+            somaTP += sinal * t * ponto.peso;
+        }
+
+        private Double tendenciaPorSemana() {
+            int n = pontos.size();
+            if (n < 2) {
+                return null;
+            }
+            double denominador = n * somaTT - somaT * somaT;
+            if (Math.abs(denominador) < 1e-9) {
+                return null;
+            }
+            return (n * somaTP - somaT * somaP) / denominador * 7;
+        }
+    }
+
+    private static class Ponto {
+
+        private final long id;
+
+        private final long instante;
+
+        private final LocalDateTime data;
+
+        private final double peso;
+
+        private final double altura;
+
+        private Ponto(AvaliacaoFisicaDTO avaliacao) {
+            this.id = avaliacao.getId();
+            this.data = avaliacao.getDataDaAvaliacao();
+            this.instante = data.toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.peso = avaliacao.getPeso();
+            this.altura = avaliacao.getAltura();
+        }
+    }
+}
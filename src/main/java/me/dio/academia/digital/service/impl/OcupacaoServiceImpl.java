@@ -0,0 +1,135 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.MapaDeCalorDTO;
+import me.dio.academia.digital.entity.dto.OcupacaoDTO;
+import me.dio.academia.digital.service.IOcupacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementação do serviço de ocupação da academia.
+ *
+ * As consultas são respondidas pelos {@link ContadoresDeOcupacao}, sem acessar o banco de dados.
+ * Os painéis inscritos em {@link #inscrever()} recebem a ocupação por Server-Sent Events: a cada
+ * <code>academia.ocupacao.intervalo-envio</code>, uma única thread lê os contadores e, se a ocupação
+ * mudou, envia o mesmo evento a todos os painéis. Assim, o custo de leitura não cresce com a
+ * quantidade de painéis abertos. Sem mudanças, a ocupação é reenviada a cada
+ * <code>academia.ocupacao.intervalo-repeticao</code>, o que mantém a conexão ativa e detecta os
+ * painéis fechados.
+ */
+@Service
+public class OcupacaoServiceImpl implements IOcupacaoService {
+
+    private static final String EVENTO = "ocupacao";
+
+    @Autowired
+    private ContadoresDeOcupacao contadores;
+
+    @Value("${academia.ocupacao.intervalo-envio:1s}")
+    private Duration intervaloEnvio;
+
+    @Value("${academia.ocupacao.intervalo-repeticao:15s}")
+    private Duration intervaloRepeticao;
+
+    @Value("${academia.ocupacao.duracao-conexao:30m}")
+    private Duration duracaoConexao;
+
+    private final List<SseEmitter> paineis = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService agendador;
+
+    private Map<String, Long> ultimaEnviada;
+
+    private long ultimoEnvio;
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ocupacao-sse");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = intervaloEnvio.toMillis();
+        agendador.scheduleWithFixedDelay(this::enviar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+        paineis.forEach(SseEmitter::complete);
+    }
+
+    @Override
+    public OcupacaoDTO getOcupacao() {
+        Map<String, Long> unidades = contadores.getPresentes();
+        long total = unidades.values().stream().mapToLong(Long::longValue).sum();
+        return new OcupacaoDTO(LocalDateTime.now(), total, unidades);
+    }
+
+    @Override
+    public MapaDeCalorDTO getMapa(String unidade) {
+        MapaDeCalorDTO mapa = contadores.getMapa(unidade);
+        if (mapa == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unidade " + unidade + " sem registros de entrada");
+        }
+        return mapa;
+    }
+
+    /**
+     * Inscreve um painel e envia a ocupação atual imediatamente. A conexão é encerrada após
+     * <code>academia.ocupacao.duracao-conexao</code>; o <code>EventSource</code> do navegador se
+     * reconecta automaticamente.
+     */
+    @Override
+    public SseEmitter inscrever() {
+        SseEmitter painel = new SseEmitter(duracaoConexao.toMillis());
+        painel.onCompletion(() -> paineis.remove(painel));
+        painel.onTimeout(painel::complete);
+        painel.onError(erro -> paineis.remove(painel));
+        try {
+            painel.send(SseEmitter.event().name(EVENTO).data(getOcupacao()));
+        } catch (IOException e) {
+            painel.completeWithError(e);
+            return painel;
+        }
+        paineis.add(painel);
+        return painel;
+    }
+
+    private void enviar() {
+        if (paineis.isEmpty()) {
+            return;
+        }
+        OcupacaoDTO ocupacao = getOcupacao();
+        long agora = System.nanoTime();
+        if (ocupacao.getUnidades().equals(ultimaEnviada) && agora - ultimoEnvio < intervaloRepeticao.toNanos()) {
+            return;
+        }
+        ultimaEnviada = ocupacao.getUnidades();
+        ultimoEnvio = agora;
+        for (SseEmitter painel : paineis) {
+            try {
+                painel.send(SseEmitter.event().name(EVENTO).data(ocupacao));
+            } catch (IOException | IllegalStateException e) {
+                // Painel fechado: deixa de receber os próximos eventos
+                paineis.remove(painel);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.HistoricoDTO;
+import me.dio.academia.digital.entity.dto.TendenciaDTO;
+
+import java.util.Arrays;
+
+/**
+ * Histórico de avaliações físicas de um aluno armazenado em colunas de tipos primitivos.
+ *
+ * Cada avaliação ocupa a mesma posição em quatro arrays paralelos (id, instante em epoch millis,
+ * peso e altura), mantidos em ordem cronológica. Consultas por período localizam os limites por
+ * busca binária e percorrem apenas o trecho correspondente, sem criar objetos por avaliação.
+ */
+class SerieHistorica {
+
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private static final double MILLIS_POR_SEMANA = 7 * 24 * 60 * 60 * 1000d;
+
+    private final Long alunoId;
+
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+
+    private long[] instantes = new long[CAPACIDADE_INICIAL];
+
+    private double[] pesos = new double[CAPACIDADE_INICIAL];
+
+    private double[] alturas = new double[CAPACIDADE_INICIAL];
+
+    private int tamanho;
+
+    SerieHistorica(Long alunoId) {
+        this.alunoId = alunoId;
+    }
+
+    /**
+     * Insere uma avaliação na posição cronológica. Avaliações já presentes são ignoradas.
+     */
+    synchronized void adicionar(long id, long instante, double peso, double altura) {
+        int posicao = posicao(instante, id);
+        if (posicao < tamanho && instantes[posicao] == instante && ids[posicao] == id) {
+            return;
+        }
+        if (tamanho == ids.length) {
+            int capacidade = tamanho * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            instantes = Arrays.copyOf(instantes, capacidade);
+            pesos = Arrays.copyOf(pesos, capacidade);
+            alturas = Arrays.copyOf(alturas, capacidade);
+        }
+        int deslocados = tamanho - posicao;
+        System.arraycopy(ids, posicao, ids, posicao + 1, deslocados);
+        System.arraycopy(instantes, posicao, instantes, posicao + 1, deslocados);
+        System.arraycopy(pesos, posicao, pesos, posicao + 1, deslocados);
+        System.arraycopy(alturas, posicao, alturas, posicao + 1, deslocados);
+        ids[posicao] = id;
+        instantes[posicao] = instante;
+        pesos[posicao] = peso;
+        alturas[posicao] = altura;
+        tamanho++;
+    }
+
+    synchronized void remover(long id) {
+        for (int i = 0; i < tamanho; i++) {
+            if (ids[i] == id) {
+                int deslocados = tamanho - i - 1;
+                System.arraycopy(ids, i + 1, ids, i, deslocados);
+                System.arraycopy(instantes, i + 1, instantes, i, deslocados);
+                System.arraycopy(pesos, i + 1, pesos, i, deslocados);
+                System.arraycopy(alturas, i + 1, alturas, i, deslocados);
+                tamanho--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove as avaliações com instante anterior ao informado.
+     */
+    synchronized void removerAnteriores(long instante) {
+        int removidas = posicao(instante, Long.MIN_VALUE);
+        if (removidas == 0) {
+            return;
+        }
+        tamanho -= removidas;
+        System.arraycopy(ids, removidas, ids, 0, tamanho);
+        System.arraycopy(instantes, removidas, instantes, 0, tamanho);
+        System.arraycopy(pesos, removidas, pesos, 0, tamanho);
+        System.arraycopy(alturas, removidas, alturas, 0, tamanho);
+    }
+
+    /**
+     * Retorna as avaliações com instante no intervalo [de, ate).
+     */
+    synchronized HistoricoDTO intervalo(long de, long ate) {
+        int inicio = posicao(de, Long.MIN_VALUE);
+        int fim = posicao(ate, Long.MIN_VALUE);
+        return new HistoricoDTO(alunoId,
+                Arrays.copyOfRange(instantes, inicio, fim),
+                Arrays.copyOfRange(pesos, inicio, fim),
+                Arrays.copyOfRange(alturas, inicio, fim));
+    }
+
+    /**
+     * Calcula a tendência do peso no intervalo [de, ate) por regressão linear.
+     */
+    synchronized TendenciaDTO tendencia(long de, long ate) {
+        int inicio = posicao(de, Long.MIN_VALUE);
+        int fim = posicao(ate, Long.MIN_VALUE);
+        int n = fim - inicio;
+        if (n == 0) {
+            return new TendenciaDTO(alunoId, 0, null, null, null);
+        }
+        long origem = instantes[inicio];
+        double somaT = 0, somaP = 0, somaTT = 0, somaTP = 0;
+        for (int i = inicio; i < fim; i++) {
+            double t = (instantes[i] - origem) / MILLIS_POR_SEMANA;
+            somaT += t;
+            somaP += pesos[i];
+            somaTT += t * t;
+            somaTP += t * pesos[i];
+        }
+        double denominador = n * somaTT - somaT * somaT;
+        Double inclinacao = n < 2 || Math.abs(denominador) < 1e-12 ? null : (n * somaTP - somaT * somaP) / denominador;
+        return new TendenciaDTO(alunoId, n, somaP / n, pesos[fim - 1] - pesos[inicio], inclinacao);
+    }
+
+    synchronized int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Posição da primeira avaliação posterior ou igual a (instante, id) na ordem cronológica.
+     */
+    private int posicao(long instante, long id) {
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (instantes[meio] < instante || (instantes[meio] == instante && ids[meio] < id)) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
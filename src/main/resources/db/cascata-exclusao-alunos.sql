@@ -0,0 +1,38 @@
+-- Recria com ON DELETE CASCADE as chaves estrangeiras de tb_avaliacoes e tb_matriculas para
+-- tb_alunos, criadas sem cascata por versões anteriores.
+--
+-- As entidades AvaliacaoFisica e Matricula declaram @OnDelete(CASCADE), mas a atualização do
+-- esquema pelo Hibernate (ddl-auto: update) não altera uma chave estrangeira existente: sem este
+-- script, a exclusão de um aluno com avaliações ou matrícula é rejeitada pelo banco de dados.
+-- Chaves estrangeiras que já excluem em cascata não são alteradas.
+--
+-- Cada chave é recriada com o mesmo nome, para que o Hibernate não crie outra. A recriação confere
+-- todas as linhas da tabela com o bloqueio exclusivo; execute o script com a aplicação parada.
+--
+-- psql -v ON_ERROR_STOP=1 -f cascata-exclusao-alunos.sql academia
+
+begin;
+
+do $$
+declare
+    fk record;
+begin
+    for fk in
+        select c.conrelid::regclass as tabela, c.conname as nome, a.attname as coluna
+        from pg_constraint c
+        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+        where c.contype = 'f'
+          and c.confrelid = 'tb_alunos'::regclass
+          and c.conrelid in ('tb_avaliacoes'::regclass, 'tb_matriculas'::regclass)
+          and c.conparentid = 0
+          and c.confdeltype <> 'c'
+    loop
+        raise notice 'Recriando % em % com on delete cascade', fk.nome, fk.tabela;
+        execute format('alter table %s drop constraint %I, add constraint %I foreign key (%I)'
+                       || ' references tb_alunos (id) on delete cascade',
+                       fk.tabela, fk.nome, fk.nome, fk.coluna);
+    end loop;
+end
+$$;
+
+commit;
@@ -0,0 +1,23 @@
+-- Recria idx_avaliacoes_aluno_data com as colunas lidas pelas consultas de avaliações por aluno
+-- (peso_atual, altura_atual e versao), para que sejam respondidas apenas pelo índice.
+--
+-- A atualização do esquema pelo Hibernate (ddl-auto: update) não altera um índice existente: sem
+-- este script, um banco criado por versões anteriores mantém o índice sem essas colunas e cada
+-- avaliação lida acessa a tabela. Vale para a tabela comum e para a particionada.
+--
+-- O índice é recriado com o mesmo nome, para que o Hibernate não crie outro. A criação percorre
+-- todas as avaliações e bloqueia as gravações em tb_avaliacoes; execute o script com a aplicação
+-- parada.
+--
+-- psql -v ON_ERROR_STOP=1 -f cobrir-idx_avaliacoes_aluno_data.sql academia
+
+begin;
+
+drop index if exists idx_avaliacoes_aluno_data;
+create index idx_avaliacoes_aluno_data on tb_avaliacoes (aluno_id, data_da_avaliacao, id)
+    include (peso_atual, altura_atual, versao);
+
+commit;
+
+-- Atualiza o mapa de visibilidade, sem o qual as leituras ainda consultariam a tabela
+vacuum analyze tb_avaliacoes;
@@ -0,0 +1,66 @@
+-- Converte uma tb_avaliacoes comum, criada pelo Hibernate, na tabela particionada por mês de
+-- data_da_avaliacao mantida por ParticoesDeAvaliacoes.
+--
+-- Deve ser executado com a aplicação parada: as avaliações são copiadas para a nova tabela em uma
+-- única transação, e a tabela original fica bloqueada até o fim. Na inicialização seguinte, o
+-- Hibernate recria a chave estrangeira para tb_alunos e a aplicação passa a manter as partições.
+--
+-- psql -v ON_ERROR_STOP=1 -f particionar-tb_avaliacoes.sql academia
+
+begin;
+
+lock table tb_avaliacoes in access exclusive mode;
+
+alter table tb_avaliacoes rename to tb_avaliacoes_antiga;
+alter index if exists idx_avaliacoes_aluno_data rename to idx_avaliacoes_antiga_aluno_data;
+alter index if exists idx_avaliacoes_data rename to idx_avaliacoes_antiga_data;
+
+create table tb_avaliacoes (
+    id int8 not null,
+    altura_atual float8 not null,
+    data_da_avaliacao timestamp not null,
+    peso_atual float8 not null,
+    versao int8 default 0 not null,
+    aluno_id int8,
+    primary key (id, data_da_avaliacao)
+) partition by range (data_da_avaliacao);
+
+-- Uma partição por mês, da avaliação mais antiga até 3 meses à frente
+-- (academia.particionamento.meses-futuros). Não há partição padrão: ela impediria o descarte de
+-- partições com detach partition ... concurrently
+do $$
+declare
+    mes date;
+begin
+    for mes in
+        select generate_series(
+            (select date_trunc('month', coalesce(min(data_da_avaliacao), now())) from tb_avaliacoes_antiga),
+            date_trunc('month', now()) + interval '3 months',
+            interval '1 month')::date
+    loop
+        execute format('create table %I partition of tb_avaliacoes for values from (%L) to (%L)',
+                       'tb_avaliacoes_p' || to_char(mes, 'YYYY_MM'), mes, mes + interval '1 month');
+    end loop;
+end
+$$;
+
+-- Avaliações sem data não são aceitas pela chave de particionamento
+insert into tb_avaliacoes (id, altura_atual, data_da_avaliacao, peso_atual, versao, aluno_id)
+select id, altura_atual, coalesce(data_da_avaliacao, now()), peso_atual, coalesce(versao, 0), aluno_id
+from tb_avaliacoes_antiga;
+
+create index idx_avaliacoes_aluno_data on tb_avaliacoes (aluno_id, data_da_avaliacao, id)
+    include (peso_atual, altura_atual, versao);
+create index idx_avaliacoes_data on tb_avaliacoes (data_da_avaliacao);
+
+drop table tb_avaliacoes_antiga;
+
+-- Os ids passam a vir de tb_avaliacoes_seq (AvaliacaoFisica), em blocos de 50; sem posicioná-la após
+-- o maior id, as novas avaliações reutilizariam ids existentes, e a chave (id, data_da_avaliacao)
+-- não impediria a duplicidade
+create sequence if not exists tb_avaliacoes_seq start 1 increment 50;
+select setval('tb_avaliacoes_seq', (select coalesce(max(id), 0) + 50 from tb_avaliacoes));
+
+commit;
+
+analyze tb_avaliacoes;
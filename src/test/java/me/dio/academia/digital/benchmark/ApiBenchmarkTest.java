@@ -0,0 +1,446 @@
+package me.dio.academia.digital.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.academia.digital.infra.gerador.GeradorDeDados;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark de ponta a ponta da API REST.
+ *
+ * Sobe a aplicação em uma porta aleatória com o perfil <code>benchmark</code> (H2 em memória, ver
+ * <code>application-benchmark.yml</code>), cria a massa de dados configurada em
+ * <code>academia.benchmark</code> e executa uma carga mista de leituras e escritas em cada nível de
+ * concorrência. Vazão e latências (p50, p95, p99) de cada nível e de cada operação são gravadas em
+ * JSON no arquivo <code>academia.benchmark.saida</code>, para comparação entre commits.
+ *
+ * Ao final, as listagens grandes são lidas em JSON, Smile e CBOR, sem concorrência, para comparar o
+ * tamanho das respostas, a latência e o tempo de leitura do corpo pelo cliente em cada formato.
+ *
+ * Não roda com os demais testes; para executá-lo:
+ * <pre>
+ * ./mvnw test -Pbenchmark
+ * ./mvnw test -Pbenchmark -Dacademia.benchmark.concorrencia=16 -Dacademia.benchmark.duracao-segundos=60
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("benchmark")
+class ApiBenchmarkTest {
+
+	/**
+	 * Operações da carga de trabalho e o peso de cada uma no sorteio.
+	 */
+	enum Operacao {
+		ALUNO_CONSULTA(15),
+		ALUNO_CONSULTA_CPF(5),
+		ALUNO_LISTAGEM(5),
+		ALUNO_BUSCA(5),
+		ALUNO_AVALIACOES(15),
+		AVALIACAO_LISTAGEM(20),
+		AVALIACAO_CONSULTA(10),
+		AVALIACAO_CRIACAO(10),
+		ALUNO_CRIACAO(5),
+		MATRICULA_CRIACAO(5),
+		CHECK_IN(5);
+
+		private final int peso;
+
+		Operacao(int peso) {
+			this.peso = peso;
+		}
+	}
+
+	/**
+	 * Formatos comparados nas listagens grandes, com o tipo enviado no cabeçalho Accept.
+	 */
+	enum Formato {
+		JSON("application/json"),
+		SMILE("application/x-jackson-smile"),
+		CBOR("application/cbor");
+
+		private final String tipo;
+
+		Formato(String tipo) {
+			this.tipo = tipo;
+		}
+	}
+
+	private static final String[] LISTAGENS = {"/alunos?tamanho=500", "/avaliacoes?tamanho=500"};
+
+	private static final String[] BUSCAS = {"ma", "joao", "ana+silva", "fer+sant", "gabr", "slva", "mariana+olivera"};
+
+	private static final long LATENCIA_MAXIMA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private GeradorDeDados gerador;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Value("${academia.benchmark.alunos}")
+	private int quantidadeAlunos;
+
+	@Value("${academia.benchmark.avaliacoes-por-aluno}")
+	private int avaliacoesPorAluno;
+
+	@Value("${academia.benchmark.concorrencia}")
+	private int[] niveisDeConcorrencia;
+
+	@Value("${academia.benchmark.aquecimento-segundos}")
+	private int aquecimentoSegundos;
+
+	@Value("${academia.benchmark.duracao-segundos}")
+	private int duracaoSegundos;
+
+	@Value("${academia.benchmark.formatos.requisicoes}")
+	private int requisicoesPorFormato;
+
+	@Value("${academia.benchmark.semente}")
+	private long semente;
+
+	@Value("${spring.datasource.url}")
+	private String urlDoBanco;
+
+	@Value("${academia.benchmark.saida}")
+	private String saida;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	// Índices de CPF dos alunos cadastrados durante as medições, após os gerados
+	private final AtomicLong proximoCpf = new AtomicLong();
+
+	private long[] alunoIds;
+
+	private long[] avaliacaoIds;
+
+	private long[] matriculaIds;
+
+	@Test
+	void benchmark() throws Exception {
+		semear();
+
+		List<Map<String, Object>> niveis = new ArrayList<>();
+		for (int concorrencia : niveisDeConcorrencia) {
+			executar(concorrencia, aquecimentoSegundos, semente - concorrencia);
+			niveis.add(executar(concorrencia, duracaoSegundos, semente + concorrencia));
+		}
+
+		Map<String, Object> resultado = new LinkedHashMap<>();
+		resultado.put("data", Instant.now().toString());
+		resultado.put("commit", System.getenv().getOrDefault("GIT_COMMIT", ""));
+		resultado.put("banco", urlDoBanco);
+		resultado.put("alunos", quantidadeAlunos);
+		resultado.put("avaliacoesPorAluno", avaliacoesPorAluno);
+		resultado.put("duracaoSegundos", duracaoSegundos);
+		resultado.put("niveis", niveis);
+		resultado.put("formatos", compararFormatos());
+
+		Path arquivo = Paths.get(saida);
+		Files.createDirectories(arquivo.toAbsolutePath().getParent());
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivo.toFile(), resultado);
+
+		for (Map<String, Object> nivel : niveis) {
+			assertTrue((long) nivel.get("requisicoes") > 0, "Nenhuma requisição concluída com concorrência " + nivel.get("concorrencia"));
+		}
+		Long alunosComMaisDeUmaMatricula = jdbcTemplate.queryForObject(
+				"select count(*) from (select aluno_id from tb_matriculas group by aluno_id having count(*) > 1) m", Long.class);
+		assertEquals(0L, alunosComMaisDeUmaMatricula, "Alunos matriculados mais de uma vez");
+	}
+
+	/**
+	 * Cria a massa de dados com o {@link GeradorDeDados}.
+	 */
+	private void semear() {
+		GeradorDeDados.Resultado resultado = gerador.gerar(quantidadeAlunos, avaliacoesPorAluno, 0.8, semente,
+				Runtime.getRuntime().availableProcessors());
+		alunoIds = LongStream.rangeClosed(1, resultado.getAlunos()).toArray();
+		avaliacaoIds = jdbcTemplate.queryForList("select id from tb_avaliacoes", Long.class).stream()
+				.mapToLong(Long::longValue)
+				.toArray();
+		matriculaIds = jdbcTemplate.queryForList("select id from tb_matriculas", Long.class).stream()
+				.mapToLong(Long::longValue)
+				.toArray();
+	}
+
+	/**
+	 * Executa a carga mista com a concorrência informada, durante o tempo informado.
+	 *
+	 * @return vazão e latências do nível, no total e por operação.
+	 */
+	private Map<String, Object> executar(int concorrencia, int segundos, long sementeDoNivel) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+		long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+		List<Future<Medicao>> futuros = new ArrayList<>();
+		for (int i = 0; i < concorrencia; i++) {
+			SplittableRandom random = new SplittableRandom(sementeDoNivel * 31 + i);
+			futuros.add(executor.submit(() -> medir(random, fim)));
+		}
+		Medicao total = new Medicao();
+		for (Future<Medicao> futuro : futuros) {
+			total.somar(futuro.get());
+		}
+		executor.shutdown();
+
+		Map<String, Object> nivel = new LinkedHashMap<>();
+		nivel.put("concorrencia", concorrencia);
+		nivel.putAll(resumo(total.geral, total.erros, segundos));
+		Map<String, Object> operacoes = new LinkedHashMap<>();
+		total.porOperacao.forEach((operacao, histograma) ->
+				operacoes.put(operacao.name(), resumo(histograma, total.errosPorOperacao.get(operacao), segundos)));
+		nivel.put("operacoes", operacoes);
+		return nivel;
+	}
+
+	/**
+	 * Lê cada listagem grande em cada formato, em sequência, e verifica que todos os formatos trazem
+	 * os mesmos dados.
+	 *
+	 * @return por listagem e formato: tamanho da resposta, latências e tempo de leitura do corpo.
+	 */
+	private Map<String, Object> compararFormatos() throws Exception {
+		Map<Formato, ObjectMapper> mappers = new EnumMap<>(Formato.class);
+		mappers.put(Formato.JSON, objectMapper);
+		mappers.put(Formato.SMILE, smileConverter.getObjectMapper());
+		mappers.put(Formato.CBOR, cborConverter.getObjectMapper());
+
+		Map<String, Object> listagens = new LinkedHashMap<>();
+		for (String listagem : LISTAGENS) {
+			Map<String, Object> formatos = new LinkedHashMap<>();
+			String referencia = null;
+			long bytesJson = 0;
+			for (Formato formato : Formato.values()) {
+				HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + listagem))
+						.header("Accept", formato.tipo)
+						.GET()
+						.build();
+				Histogram latencias = new Histogram(LATENCIA_MAXIMA_NANOS, 3);
+				Histogram leituras = new Histogram(LATENCIA_MAXIMA_NANOS, 3);
+				byte[] corpo = null;
+				// As primeiras requisições aquecem o conversor e não são medidas
+				for (int i = -requisicoesPorFormato / 10; i < requisicoesPorFormato; i++) {
+					long inicio = System.nanoTime();
+					HttpResponse<byte[]> resposta = client.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+					long fimDaResposta = System.nanoTime();
+					assertEquals(200, resposta.statusCode(), listagem + " em " + formato);
+					assertEquals(formato.tipo, resposta.headers().firstValue("Content-Type").orElse(""));
+					JsonNode arvore = mappers.get(formato).readTree(resposta.body());
+					long fimDaLeitura = System.nanoTime();
+					if (i >= 0) {
+						latencias.recordValue(Math.min(fimDaResposta - inicio, LATENCIA_MAXIMA_NANOS));
+						leituras.recordValue(Math.min(fimDaLeitura - fimDaResposta, LATENCIA_MAXIMA_NANOS));
+					}
+					if (corpo == null) {
+						corpo = resposta.body();
+						if (referencia == null) {
+							referencia = arvore.toString();
+						} else {
+							assertEquals(referencia, arvore.toString(), listagem + " em " + formato + " difere do JSON");
+						}
+					}
+				}
+				if (formato == Formato.JSON) {
+					bytesJson = corpo.length;
+				}
+				Map<String, Object> medidas = new LinkedHashMap<>();
+				medidas.put("bytes", corpo.length);
+				medidas.put("proporcaoDoJson", (double) corpo.length / bytesJson);
+				medidas.put("p50Ms", latencias.getValueAtPercentile(50) / 1e6);
+				medidas.put("p99Ms", latencias.getValueAtPercentile(99) / 1e6);
+				medidas.put("leituraP50Ms", leituras.getValueAtPercentile(50) / 1e6);
+				medidas.put("leituraP99Ms", leituras.getValueAtPercentile(99) / 1e6);
+				formatos.put(formato.name(), medidas);
+			}
+			listagens.put(listagem, formatos);
+		}
+		return listagens;
+	}
+
+	private Medicao medir(SplittableRandom random, long fim) {
+		Medicao medicao = new Medicao();
+		int pesoTotal = 0;
+		for (Operacao operacao : Operacao.values()) {
+			pesoTotal += operacao.peso;
+		}
+		while (System.nanoTime() < fim) {
+			Operacao operacao = sortear(random.nextInt(pesoTotal));
+			HttpRequest requisicao = requisicao(operacao, random);
+			long inicio = System.nanoTime();
+			int status;
+			try {
+				status = client.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+			} catch (IOException e) {
+				status = -1;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			medicao.registrar(operacao, Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA_NANOS), erro(operacao, status));
+		}
+		return medicao;
+	}
+
+	private static boolean erro(Operacao operacao, int status) {
+		// A maioria dos alunos sorteados já está matriculada: a recusa faz parte da carga
+		if (operacao == Operacao.MATRICULA_CRIACAO && status == 409) {
+			return false;
+		}
+		return status < 200 || status >= 300;
+	}
+
+	private static Operacao sortear(int valor) {
+		for (Operacao operacao : Operacao.values()) {
+			valor -= operacao.peso;
+			if (valor < 0) {
+				return operacao;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private HttpRequest requisicao(Operacao operacao, SplittableRandom random) {
+		long alunoId = alunoIds[random.nextInt(alunoIds.length)];
+		switch (operacao) {
+			case ALUNO_CONSULTA:
+				return get("/alunos/" + alunoId);
+			case ALUNO_CONSULTA_CPF:
+				// Os ids gerados são o índice do aluno mais um
+				return get("/alunos/cpf/" + GeradorDeDados.cpf(alunoId - 1));
+			case ALUNO_LISTAGEM:
+				return get("/alunos?tamanho=50");
+			case ALUNO_BUSCA:
+				return get("/alunos/busca?nome=" + BUSCAS[random.nextInt(BUSCAS.length)]);
+			case ALUNO_AVALIACOES:
+				return get("/alunos/avaliacoes/" + alunoId);
+			case AVALIACAO_LISTAGEM:
+				return get("/avaliacoes?alunoId=" + alunoId);
+			case AVALIACAO_CONSULTA:
+				return get("/avaliacoes/" + avaliacaoIds[random.nextInt(avaliacaoIds.length)]);
+			case AVALIACAO_CRIACAO:
+				return post("/avaliacoes", String.format(Locale.ROOT,
+						"{\"alunoId\":%d,\"peso\":%.1f,\"altura\":%.1f}",
+						alunoId, 50 + random.nextDouble() * 60, 150 + random.nextDouble() * 50));
+			case ALUNO_CRIACAO:
+				long indice = quantidadeAlunos + proximoCpf.getAndIncrement();
+				return post("/alunos", String.format(
+						"{\"nome\":\"Aluno %d\",\"cpf\":\"%s\",\"bairro\":\"Centro\",\"dataDeNascimento\":\"01/01/1990\"}",
+						indice, GeradorDeDados.cpf(indice)));
+			case MATRICULA_CRIACAO:
+				// A mesma chave para o mesmo aluno: as repetições entre as threads testam a idempotência
+				return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/matriculas"))
+						.header("Content-Type", "application/json")
+						.header("Idempotency-Key", "aluno-" + alunoId)
+						.POST(HttpRequest.BodyPublishers.ofString("{\"alunoId\":" + alunoId + "}"))
+						.build();
+			case CHECK_IN:
+				return post("/checkins", String.format(
+						"{\"matriculaId\":%d,\"tipo\":\"%s\",\"unidade\":\"unidade-%d\",\"catraca\":\"catraca-%d\"}",
+						matriculaIds[random.nextInt(matriculaIds.length)], random.nextBoolean() ? "ENTRADA" : "SAIDA",
+						random.nextInt(3), random.nextInt(4)));
+			default:
+				throw new IllegalArgumentException(operacao.name());
+		}
+	}
+
+	private HttpRequest get(String caminho) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho)).GET().build();
+	}
+
+	private HttpRequest post(String caminho, String json) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+
+	private static Map<String, Object> resumo(Histogram histograma, long erros, int segundos) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("requisicoes", histograma.getTotalCount());
+		resumo.put("erros", erros);
+		resumo.put("vazao", (double) histograma.getTotalCount() / segundos);
+		resumo.put("p50Ms", histograma.getValueAtPercentile(50) / 1e6);
+		resumo.put("p95Ms", histograma.getValueAtPercentile(95) / 1e6);
+		resumo.put("p99Ms", histograma.getValueAtPercentile(99) / 1e6);
+		resumo.put("maximoMs", histograma.getMaxValue() / 1e6);
+		return resumo;
+	}
+
+	/**
+	 * Latências registradas por uma thread (ou a soma de todas), em nanossegundos.
+	 */
+	private static class Medicao {
+		private final Histogram geral = new Histogram(LATENCIA_MAXIMA_NANOS, 3);
+		private final Map<Operacao, Histogram> porOperacao = new EnumMap<>(Operacao.class);
+		private final Map<Operacao, Long> errosPorOperacao = new EnumMap<>(Operacao.class);
+		private long erros;
+
+		private void registrar(Operacao operacao, long nanos, boolean erro) {
+			geral.recordValue(nanos);
+			porOperacao.computeIfAbsent(operacao, chave -> new Histogram(LATENCIA_MAXIMA_NANOS, 3)).recordValue(nanos);
+			errosPorOperacao.merge(operacao, erro ? 1L : 0L, Long::sum);
+			if (erro) {
+				erros++;
+			}
+		}
+
+		private void somar(Medicao outra) {
+			geral.add(outra.geral);
+			outra.porOperacao.forEach((operacao, histograma) ->
+					porOperacao.computeIfAbsent(operacao, chave -> new Histogram(LATENCIA_MAXIMA_NANOS, 3)).add(histograma));
+			outra.errosPorOperacao.forEach((operacao, quantidade) -> errosPorOperacao.merge(operacao, quantidade, Long::sum));
+			erros += outra.erros;
+		}
+	}
+}
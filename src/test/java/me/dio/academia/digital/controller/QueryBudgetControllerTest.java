@@ -0,0 +1,150 @@
+package me.dio.academia.digital.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.academia.digital.infra.gerador.GeradorDeDados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static me.dio.academia.digital.infra.query.QueryBudgetMatchers.noRepeatedQueries;
+import static me.dio.academia.digital.infra.query.QueryBudgetMatchers.withinDeclaredBudget;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de consultas SQL dos endpoints de alunos e matrículas que declaram {@link
+ * me.dio.academia.digital.infra.query.QueryBudget}.
+ *
+ * Usa o perfil <code>benchmark</code> (H2 em memória) com uma pequena massa de dados do {@link
+ * GeradorDeDados}. Cada endpoint é chamado com ids que ainda não passaram pelos caches, para que as
+ * consultas sejam de fato executadas, e não pode repetir o mesmo comando SQL.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+class QueryBudgetControllerTest {
+
+    private static final int ALUNOS = 30;
+
+    private static final int AVALIACOES_POR_ALUNO = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GeradorDeDados gerador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        Long alunos = jdbcTemplate.queryForObject("select count(*) from tb_alunos", Long.class);
+        if (alunos == null || alunos == 0) {
+            gerador.gerar(ALUNOS, AVALIACOES_POR_ALUNO, 1.0, 42, 1);
+        }
+    }
+
+    @Test
+    void listagemDeAlunosPorCursor() throws Exception {
+        JsonNode pagina = objectMapper.readTree(dentroDoOrcamento(get("/alunos").param("tamanho", "10"))
+                .andReturn().getResponse().getContentAsString());
+        String cursor = pagina.get("proximoCursor").asText(null);
+        assertNotNull(cursor, "A primeira página deveria indicar a próxima");
+
+        dentroDoOrcamento(get("/alunos").param("tamanho", "10").param("cursor", cursor));
+    }
+
+    @Test
+    void consultaDeAluno() throws Exception {
+        dentroDoOrcamento(get("/alunos/{id}", alunoComAvaliacoes(0)));
+    }
+
+    @Test
+    void consultaDeAlunoPorCpf() throws Exception {
+        String cpf = jdbcTemplate.queryForObject("select cpf from tb_alunos where id = ?", String.class,
+                alunoComAvaliacoes(1));
+        dentroDoOrcamento(get("/alunos/cpf/{cpf}", cpf));
+    }
+
+    @Test
+    void avaliacoesDoAluno() throws Exception {
+        dentroDoOrcamento(get("/alunos/avaliacoes/{id}", alunoComAvaliacoes(2)));
+    }
+
+    @Test
+    void avaliacoesDeAlunoSemAvaliacoes() throws Exception {
+        String aluno = "{\"nome\":\"Aluno sem avaliações\",\"cpf\":\"" + GeradorDeDados.cpf(ALUNOS)
+                + "\",\"bairro\":\"Centro\",\"dataDeNascimento\":\"01/01/1990\"}";
+        JsonNode criado = objectMapper.readTree(mockMvc.perform(post("/alunos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(aluno))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        dentroDoOrcamento(get("/alunos/avaliacoes/{id}", criado.get("id").asLong()));
+    }
+
+    @Test
+    void metricasDoAluno() throws Exception {
+        dentroDoOrcamento(get("/alunos/{id}/metricas", alunoComAvaliacoes(3)));
+    }
+
+    @Test
+    void buscaPorNome() throws Exception {
+        String nome = jdbcTemplate.queryForObject("select nome from tb_alunos where id = ?", String.class,
+                alunoComAvaliacoes(4));
+        String bairro = jdbcTemplate.queryForObject("select bairro from tb_alunos where id = ?", String.class,
+                alunoComAvaliacoes(4));
+
+        dentroDoOrcamento(get("/alunos/busca").param("nome", nome.split(" ")[0]));
+        dentroDoOrcamento(get("/alunos/busca").param("nome", nome).param("bairro", bairro));
+    }
+
+    @Test
+    void consultaDeMatricula() throws Exception {
+        Long id = jdbcTemplate.queryForObject("select min(id) from tb_matriculas", Long.class);
+        dentroDoOrcamento(get("/matriculas/{id}", id));
+    }
+
+    @Test
+    void matriculaDoAluno() throws Exception {
+        Long alunoId = jdbcTemplate.queryForObject("select max(aluno_id) from tb_matriculas", Long.class);
+        dentroDoOrcamento(get("/matriculas/aluno/{alunoId}", alunoId));
+    }
+
+    /**
+     * Executa a requisição e verifica que ela foi atendida dentro do orçamento declarado no endpoint,
+     * sem repetir comandos SQL.
+     */
+    private ResultActions dentroDoOrcamento(MockHttpServletRequestBuilder requisicao) throws Exception {
+        return mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andExpect(withinDeclaredBudget())
+                .andExpect(noRepeatedQueries(2));
+    }
+
+    /**
+     * Retorna um aluno matriculado e com avaliações, diferente para cada <code>ordem</code>, para que
+     * cada teste encontre os caches vazios para o aluno.
+     */
+    private Long alunoComAvaliacoes(int ordem) {
+        return jdbcTemplate.queryForObject("select distinct m.aluno_id from tb_matriculas m"
+                + " join tb_avaliacoes v on v.aluno_id = m.aluno_id order by m.aluno_id limit 1 offset ?",
+                Long.class, ordem);
+    }
+}
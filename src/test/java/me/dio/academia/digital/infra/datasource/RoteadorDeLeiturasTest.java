@@ -0,0 +1,136 @@
+package me.dio.academia.digital.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Roteamento entre dois bancos H2 em memória, um no papel de primário e outro no de réplica. Cada
+ * banco tem uma tabela <code>origem</code> com o próprio nome, e a réplica informa o atraso
+ * simulado na tabela <code>atraso</code>.
+ */
+class RoteadorDeLeiturasTest {
+
+	private static final String CONSULTA_ATRASO = "select segundos from atraso";
+
+	private static final String ORIGEM = "select nome from origem";
+
+	private HikariDataSource primario;
+
+	private HikariDataSource replica;
+
+	private ReplicasDeLeitura replicas;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate leitura;
+
+	private TransactionTemplate gravacao;
+
+	@BeforeEach
+	void setUp() {
+		primario = pool("primario");
+		replica = pool("replica-1");
+		new JdbcTemplate(primario).execute("create table origem (nome varchar(20)); insert into origem values ('primario')");
+		new JdbcTemplate(replica).execute("create table origem (nome varchar(20)); insert into origem values ('replica');"
+				+ "create table atraso (segundos double); insert into atraso values (0)");
+
+		replicas = new ReplicasDeLeitura(primario, List.of(replica), CONSULTA_ATRASO,
+				Duration.ofSeconds(5), Duration.ofSeconds(1));
+		DataSource dataSource = new LazyConnectionDataSourceProxy(new RoteadorDeLeituras(replicas));
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+		gravacao = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void tearDown() {
+		replicas.close();
+	}
+
+	@Test
+	void usaPrimarioAteAPrimeiraVerificacao() {
+		assertEquals("primario", ler(leitura));
+	}
+
+	@Test
+	void encaminhaSomenteLeiturasParaReplica() {
+		replicas.verificar();
+
+		assertEquals("replica", ler(leitura));
+		assertEquals("primario", ler(gravacao));
+		assertEquals("primario", jdbcTemplate.queryForObject(ORIGEM, String.class));
+	}
+
+	@Test
+	void leituraNoPrimarioIgnoraReplica() {
+		replicas.verificar();
+
+		assertEquals("primario", LeituraNoPrimario.executar(() -> ler(leitura)));
+		assertEquals("replica", ler(leitura));
+	}
+
+	@Test
+	void indicaLeituraEmReplicaSomenteNaTransacaoQueAUsou() {
+		replicas.verificar();
+
+		assertTrue(leuEmReplica(leitura));
+		assertFalse(leuEmReplica(gravacao));
+		assertFalse(RoteadorDeLeituras.isLeituraEmReplica());
+	}
+
+	@Test
+	void retiraReplicaAtrasadaAteAlcancarOPrimario() {
+		new JdbcTemplate(replica).update("update atraso set segundos = 30");
+		replicas.verificar();
+		assertEquals("primario", ler(leitura));
+
+		new JdbcTemplate(replica).update("update atraso set segundos = 1");
+		replicas.verificar();
+		assertEquals("replica", ler(leitura));
+	}
+
+	@Test
+	void usaPrimarioQuandoReplicaRecusaConexao() {
+		replicas.verificar();
+		replica.close();
+
+		assertEquals("primario", ler(leitura));
+		assertEquals("primario", ler(leitura));
+	}
+
+	private String ler(TransactionTemplate transacao) {
+		return transacao.execute(status -> jdbcTemplate.queryForObject(ORIGEM, String.class));
+	}
+
+	private boolean leuEmReplica(TransactionTemplate transacao) {
+		return Boolean.TRUE.equals(transacao.execute(status -> {
+			jdbcTemplate.queryForObject(ORIGEM, String.class);
+			return RoteadorDeLeituras.isLeituraEmReplica();
+		}));
+	}
+
+	private static HikariDataSource pool(String nome) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:" + nome + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		pool.setUsername("sa");
+		pool.setPoolName(nome);
+		pool.setConnectionTimeout(250);
+		return pool;
+	}
+}
@@ -0,0 +1,73 @@
+package me.dio.academia.digital.infra.query;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+
+/**
+ * Verificações do orçamento de consultas SQL para testes de integração com MockMvc.
+ *
+ * Exemplo, em um teste com <code>@SpringBootTest</code> e <code>@AutoConfigureMockMvc</code>:
+ * <pre>
+ * mockMvc.perform(get("/alunos/{id}", id))
+ *         .andExpect(status().isOk())
+ *         .andExpect(QueryBudgetMatchers.withinDeclaredBudget())
+ *         .andExpect(QueryBudgetMatchers.noRepeatedQueries(2));
+ * </pre>
+ */
+public final class QueryBudgetMatchers {
+
+	private QueryBudgetMatchers() {}
+
+	/**
+	 * @return as consultas registradas na requisição executada.
+	 */
+	public static QueryStats queryStats(MvcResult result) {
+		Object stats = result.getRequest().getAttribute(QueryStats.ATRIBUTO);
+		assertNotNull("A requisição não passou pelo QueryStatsFilter", stats);
+		return (QueryStats) stats;
+	}
+
+	/**
+	 * Falha se a requisição executar mais de <code>maximo</code> comandos SQL.
+	 */
+	public static ResultMatcher maxQueries(int maximo) {
+		return result -> {
+			QueryStats stats = queryStats(result);
+			assertTrue("Esperado no máximo " + maximo + " comandos SQL, executados " + stats.getConsultas(),
+					stats.getConsultas() <= maximo);
+		};
+	}
+
+	/**
+	 * Falha se a requisição exceder o {@link QueryBudget} declarado no método do controller,
+	 * ou se o método não declarar um orçamento.
+	 */
+	public static ResultMatcher withinDeclaredBudget() {
+		return result -> {
+			if (!(result.getHandler() instanceof HandlerMethod)) {
+				fail("A requisição não foi atendida por um método de controller");
+			}
+			HandlerMethod handler = (HandlerMethod) result.getHandler();
+			QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+			assertNotNull(handler.getShortLogMessage() + " não declara @QueryBudget", budget);
+			maxQueries(budget.value()).match(result);
+		};
+	}
+
+	/**
+	 * Falha se algum comando SQL for executado <code>limite</code> vezes ou mais na mesma requisição.
+	 */
+	public static ResultMatcher noRepeatedQueries(int limite) {
+		return result -> {
+			Map<String, Integer> repetidas = queryStats(result).getRepetidas(limite);
+			assertTrue("Comandos SQL repetidos na requisição (possível N+1): " + repetidas, repetidas.isEmpty());
+		};
+	}
+}
@@ -0,0 +1,126 @@
+package me.dio.academia.digital.infra.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Operações do {@link LongHashSet} comparadas às de um <code>HashSet&lt;Long&gt;</code>, inclusive
+ * com sequências de sondagem que passam do fim para o início do vetor.
+ */
+class LongHashSetTest {
+
+	// Capacidade inicial mínima do vetor; o conjunto é redimensionado ao passar de 11 elementos
+	private static final int CAPACIDADE = 16;
+
+	@Test
+	void adicionaConsultaERemove() {
+		LongHashSet conjunto = new LongHashSet(1);
+
+		assertTrue(conjunto.add(52998224725L));
+		assertFalse(conjunto.add(52998224725L));
+		assertTrue(conjunto.contains(52998224725L));
+		assertFalse(conjunto.contains(11144477735L));
+		assertEquals(1, conjunto.size());
+
+		assertTrue(conjunto.remove(52998224725L));
+		assertFalse(conjunto.remove(52998224725L));
+		assertFalse(conjunto.contains(52998224725L));
+		assertEquals(0, conjunto.size());
+	}
+
+	@Test
+	void rejeitaValoresNaoPositivos() {
+		LongHashSet conjunto = new LongHashSet(1);
+
+		assertThrows(IllegalArgumentException.class, () -> conjunto.add(0));
+		assertThrows(IllegalArgumentException.class, () -> conjunto.add(-1));
+		assertFalse(conjunto.contains(0));
+		assertFalse(conjunto.remove(-1));
+	}
+
+	@Test
+	void mantemElementosAoRedimensionar() {
+		LongHashSet conjunto = new LongHashSet(1);
+		for (long valor = 1; valor <= 10_000; valor++) {
+			assertTrue(conjunto.add(valor * 7919));
+		}
+
+		assertEquals(10_000, conjunto.size());
+		for (long valor = 1; valor <= 10_000; valor++) {
+			assertTrue(conjunto.contains(valor * 7919));
+			assertFalse(conjunto.contains(valor * 7919 + 1));
+		}
+	}
+
+	@Test
+	void removeNaSondagemQuePassaDoFimParaOInicio() {
+		// Três valores cuja posição ideal é a última do vetor ocupam as posições 15, 0 e 1;
+		// um quarto, com posição ideal 0, é deslocado para a posição 2
+		List<Long> ultimaPosicao = valoresComPosicao(CAPACIDADE - 1, 3);
+		long primeiraPosicao = valoresComPosicao(0, 1).get(0);
+
+		LongHashSet conjunto = new LongHashSet(1);
+		ultimaPosicao.forEach(conjunto::add);
+		conjunto.add(primeiraPosicao);
+
+		// Ao remover o valor da posição 15, os seguintes voltam uma posição, inclusive pelo início do vetor
+		assertTrue(conjunto.remove(ultimaPosicao.get(0)));
+		assertFalse(conjunto.contains(ultimaPosicao.get(0)));
+		assertTrue(conjunto.contains(ultimaPosicao.get(1)));
+		assertTrue(conjunto.contains(ultimaPosicao.get(2)));
+		assertTrue(conjunto.contains(primeiraPosicao));
+
+		// O valor com posição ideal 0 não pode ser movido para antes dela
+		assertTrue(conjunto.remove(ultimaPosicao.get(2)));
+		assertTrue(conjunto.contains(ultimaPosicao.get(1)));
+		assertTrue(conjunto.contains(primeiraPosicao));
+		assertEquals(2, conjunto.size());
+	}
+
+	@Test
+	void equivaleAoHashSetEmOperacoesAleatorias() {
+		SplittableRandom random = new SplittableRandom(42);
+		LongHashSet conjunto = new LongHashSet(1);
+		Set<Long> esperado = new HashSet<>();
+
+		for (int i = 0; i < 200_000; i++) {
+			// Valores em um intervalo pequeno, para que as remoções encontrem elementos existentes
+			long valor = 1 + random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(esperado.remove(valor), conjunto.remove(valor));
+			} else {
+				assertEquals(esperado.add(valor), conjunto.add(valor));
+			}
+		}
+
+		assertEquals(esperado.size(), conjunto.size());
+		for (long valor = 1; valor <= 5_000; valor++) {
+			assertEquals(esperado.contains(valor), conjunto.contains(valor), "valor " + valor);
+		}
+	}
+
+	/**
+	 * Encontra valores cuja posição ideal, em um vetor com a capacidade inicial mínima, é a informada.
+	 * Reproduz a função de espalhamento do {@link LongHashSet}.
+	 */
+	private static List<Long> valoresComPosicao(int posicao, int quantidade) {
+		List<Long> valores = new ArrayList<>();
+		for (long valor = 1; valores.size() < quantidade; valor++) {
+			long h = valor * 0x9E3779B97F4A7C15L;
+			if (((int) (h ^ (h >>> 32)) & (CAPACIDADE - 1)) == posicao) {
+				valores.add(valor);
+			}
+		}
+		return valores;
+	}
+}
@@ -0,0 +1,110 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import me.dio.academia.digital.repository.AvaliacaoFisicaRepository;
+import me.dio.academia.digital.service.event.AvaliacaoFisicaAlteradaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga, atualização incremental e descarte do estado dos indicadores pelo
+ * {@link AlunoMetricasServiceImpl}, com o histórico de avaliações lido de um repositório simulado.
+ */
+class AlunoMetricasServiceImplTest {
+
+    private static final long ALUNO_ID = 3L;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 3, 1, 7, 30);
+
+    private final List<AvaliacaoFisicaDTO> historico = new ArrayList<>();
+
+    private AvaliacaoFisicaRepository repository;
+
+    private AlunoMetricasServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AvaliacaoFisicaRepository.class);
+        when(repository.findAllByAluno(ALUNO_ID)).thenAnswer(invocation -> new ArrayList<>(historico));
+
+        service = new AlunoMetricasServiceImpl();
+        ReflectionTestUtils.setField(service, "avaliacaoFisicaRepository", repository);
+        ReflectionTestUtils.setField(service, "maxAlunos", 100L);
+        service.inicializar();
+
+        historico.add(avaliacao(1, 0, 90.0));
+        historico.add(avaliacao(2, 15, 87.0));
+        historico.add(avaliacao(3, 30, 88.0));
+    }
+
+    @Test
+    void aplicaAlteracoesSemReler() {
+        assertEquals(3, service.get(ALUNO_ID).getTotalAvaliacoes());
+
+        AvaliacaoFisicaDTO nova = avaliacao(4, 45, 85.0);
+        historico.add(nova);
+        service.onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent.criada(nova));
+        service.onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent.removida(historico.remove(2)));
+
+        AlunoMetricasDTO resumo = service.get(ALUNO_ID);
+        assertEquals(3, resumo.getTotalAvaliacoes());
+        assertEquals(85.0, resumo.getPesoAtual());
+        assertEquals(-5.0, resumo.getVariacaoPeso());
+        verify(repository, times(1)).findAllByAluno(ALUNO_ID);
+    }
+
+    @Test
+    void releHistoricoAoRemoverAvaliacaoExtrema() {
+        assertEquals(90.0, service.get(ALUNO_ID).getPesoMaximo());
+
+        service.onAvaliacaoFisicaAlterada(AvaliacaoFisicaAlteradaEvent.removida(historico.remove(0)));
+
+        AlunoMetricasDTO resumo = service.get(ALUNO_ID);
+        assertEquals(2, resumo.getTotalAvaliacoes());
+        assertEquals(88.0, resumo.getPesoMaximo());
+        assertEquals(1.0, resumo.getVariacaoPeso());
+        verify(repository, times(2)).findAllByAluno(ALUNO_ID);
+    }
+
+    @Test
+    void releHistoricoAposGeracaoDeDados() {
+        assertEquals(3, service.get(ALUNO_ID).getTotalAvaliacoes());
+
+        // O gerador grava diretamente no banco de dados, sem eventos de avaliação
+        historico.clear();
+        historico.add(avaliacao(10, 0, 70.0));
+        service.onDadosGerados();
+
+        AlunoMetricasDTO resumo = service.get(ALUNO_ID);
+        assertEquals(1, resumo.getTotalAvaliacoes());
+        assertEquals(70.0, resumo.getPesoAtual());
+        verify(repository, times(2)).findAllByAluno(ALUNO_ID);
+    }
+
+    @Test
+    void releHistoricoAposDescarteDeParticoes() {
+        assertEquals(3, service.get(ALUNO_ID).getTotalAvaliacoes());
+
+        historico.remove(0);
+        service.onAvaliacoesDescartadas();
+
+        assertEquals(2, service.get(ALUNO_ID).getTotalAvaliacoes());
+        verify(repository, times(2)).findAllByAluno(ALUNO_ID);
+    }
+
+    private static AvaliacaoFisicaDTO avaliacao(long id, int dia, double peso) {
+        return new AvaliacaoFisicaDTO(id, ALUNO_ID, INICIO.plusDays(dia), peso, 180, 0L);
+    }
+}
@@ -0,0 +1,128 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga do índice de nomes pelo {@link BuscaAlunosServiceImpl} com alunos alterados enquanto as
+ * linhas de <code>tb_alunos</code> são lidas, a partir de uma leitura simulada.
+ */
+class BuscaAlunosServiceImplTest {
+
+    private final List<Object[]> linhas = new ArrayList<>();
+
+    // Eventos publicados antes da leitura da linha de índice correspondente
+    private final Map<Integer, AlunoAlteradoEvent> eventosDuranteCarga = new HashMap<>();
+
+    private BuscaAlunosServiceImpl service;
+
+    private IndiceDeNomes indice;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < linhas.size(); i++) {
+                if (eventosDuranteCarga.containsKey(i)) {
+                    service.onAlunoAlterado(eventosDuranteCarga.get(i));
+                }
+                handler.processRow(linha(linhas.get(i)));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new BuscaAlunosServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        indice = (IndiceDeNomes) ReflectionTestUtils.getField(service, "indice");
+
+        linhas.add(new Object[]{1L, "Carla Mendes", "Centro"});
+        linhas.add(new Object[]{2L, "Bruno Lima", "Centro"});
+        linhas.add(new Object[]{3L, "Ana Souza", "Moema"});
+    }
+
+    @Test
+    void mantemAlteracoesFeitasDuranteACarga() {
+        // A leitura já havia começado e ainda traz os dados anteriores dos alunos 1 e 3
+        eventosDuranteCarga.put(0, AlunoAlteradoEvent.atualizado(aluno(1, "Carla Mendes", "Centro"),
+                aluno(1, "Carolina Mendes", "Moema")));
+        eventosDuranteCarga.put(2, AlunoAlteradoEvent.removido(aluno(3, "Ana Souza", "Moema")));
+
+        service.carregar();
+
+        assertEquals(2, indice.tamanho());
+        assertEquals(List.of(1L), indice.buscar("carolina", "moema", 10));
+        assertEquals(List.of(), indice.buscar("carla", null, 10));
+        assertEquals(List.of(), indice.buscar("ana", null, 10));
+        assertEquals(List.of(2L), indice.buscar("bruno", null, 10));
+    }
+
+    @Test
+    void recarregaAlunosAlteradosNaCargaAnterior() {
+        eventosDuranteCarga.put(1, AlunoAlteradoEvent.atualizado(aluno(2, "Bruno Lima", "Centro"),
+                aluno(2, "Bruno Costa", "Centro")));
+        service.carregar();
+        assertEquals(List.of(2L), indice.buscar("costa", null, 10));
+
+        // Na carga seguinte, a linha do aluno 2 já traz o nome atual e volta a ser considerada
+        eventosDuranteCarga.clear();
+        linhas.set(1, new Object[]{2L, "Bruno Pereira", "Centro"});
+        service.carregar();
+
+        assertEquals(List.of(2L), indice.buscar("pereira", null, 10));
+        assertEquals(List.of(), indice.buscar("costa", null, 10));
+    }
+
+    @Test
+    void aplicaEventosAposACarga() {
+        service.carregar();
+
+        service.onAlunoAlterado(AlunoAlteradoEvent.criado(aluno(4, "Ana Lima", "Centro")));
+        service.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(1, "Carla Mendes", "Centro")));
+
+        assertEquals(List.of(3L, 4L), indice.buscar("ana", null, 10));
+        assertEquals(List.of(), indice.buscar("carla", null, 10));
+    }
+
+    private static ResultSet linha(Object[] linha) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn((Long) linha[0]);
+        when(rs.getString(2)).thenReturn((String) linha[1]);
+        when(rs.getString(3)).thenReturn((String) linha[2]);
+        return rs;
+    }
+
+    private static AlunoDTO aluno(long id, String nome, String bairro) {
+        return new AlunoDTO(id, nome, "52998224725", bairro, LocalDate.of(1990, 1, 1), 0L);
+    }
+}
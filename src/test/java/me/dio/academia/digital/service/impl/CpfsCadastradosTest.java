@@ -0,0 +1,174 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoDTO;
+import me.dio.academia.digital.service.event.AlunoAlteradoEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga do {@link CpfsCadastrados} a partir de um banco H2 em memória e alterações de alunos
+ * notificadas durante e após a carga.
+ */
+class CpfsCadastradosTest {
+
+    private static final String CPF_1 = "529.982.247-25";
+
+    private static final String CPF_2 = "111.444.777-35";
+
+    private static final String CPF_3 = "390.533.447-05";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CpfsCadastrados cpfs;
+
+    // Executado pela carga após a leitura de cada linha, com o número de linhas já lidas
+    private final List<Consumer<Integer>> durante = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:cpfs-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new CargaObservada(dataSource);
+        jdbcTemplate.execute("create table tb_alunos (id bigint primary key, cpf varchar(14), cpf_numero bigint unique)");
+
+        cpfs = new CpfsCadastrados();
+        ReflectionTestUtils.setField(cpfs, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(cpfs, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(cpfs, "habilitado", true);
+    }
+
+    @Test
+    void carregaCpfsENormalizaPendentes() {
+        jdbcTemplate.update("insert into tb_alunos values (1, ?, 52998224725)", CPF_1);
+        jdbcTemplate.update("insert into tb_alunos values (2, ?, null)", CPF_2);
+
+        assertFalse(cpfs.isCarregado());
+        cpfs.carregar();
+
+        assertTrue(cpfs.isCarregado());
+        assertEquals(2, cpfs.tamanho());
+        assertTrue(cpfs.contem(52998224725L));
+        assertTrue(cpfs.contem(11144477735L));
+        assertFalse(cpfs.contem(39053344705L));
+        assertEquals(11144477735L, jdbcTemplate.queryForObject("select cpf_numero from tb_alunos where id = 2", Long.class));
+    }
+
+    @Test
+    void acompanhaAlteracoesAposCarga() {
+        jdbcTemplate.update("insert into tb_alunos values (1, ?, 52998224725)", CPF_1);
+        cpfs.carregar();
+
+        cpfs.onAlunoAlterado(AlunoAlteradoEvent.criado(aluno(2L, CPF_2)));
+        cpfs.onAlunoAlterado(AlunoAlteradoEvent.atualizado(aluno(1L, CPF_1), aluno(1L, CPF_3)));
+
+        assertFalse(cpfs.contem(52998224725L));
+        assertTrue(cpfs.contem(11144477735L));
+        assertTrue(cpfs.contem(39053344705L));
+
+        cpfs.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(2L, CPF_2)));
+
+        assertFalse(cpfs.contem(11144477735L));
+        assertEquals(1, cpfs.tamanho());
+    }
+
+    @Test
+    void descartaCpfRemovidoDuranteCarga() {
+        jdbcTemplate.update("insert into tb_alunos values (1, ?, 52998224725)", CPF_1);
+        jdbcTemplate.update("insert into tb_alunos values (2, ?, 11144477735)", CPF_2);
+        jdbcTemplate.update("insert into tb_alunos values (3, ?, 39053344705)", CPF_3);
+        // Após a primeira linha, os alunos 1 e 3 são removidos; a carga já leu um deles e ainda lerá o
+        // outro, pois a remoção é notificada antes de a leitura alcançá-lo
+        durante.add(lidas -> {
+            if (lidas == 1) {
+                cpfs.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(1L, CPF_1)));
+                cpfs.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(3L, CPF_3)));
+            }
+        });
+
+        cpfs.carregar();
+
+        assertTrue(cpfs.isCarregado());
+        assertFalse(cpfs.contem(52998224725L));
+        assertTrue(cpfs.contem(11144477735L));
+        assertFalse(cpfs.contem(39053344705L));
+        assertEquals(1, cpfs.tamanho());
+    }
+
+    @Test
+    void mantemCpfRecadastradoDuranteCarga() {
+        jdbcTemplate.update("insert into tb_alunos values (1, ?, 52998224725)", CPF_1);
+        jdbcTemplate.update("insert into tb_alunos values (2, ?, 11144477735)", CPF_2);
+        durante.add(lidas -> {
+            if (lidas == 1) {
+                cpfs.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(1L, CPF_1)));
+                cpfs.onAlunoAlterado(AlunoAlteradoEvent.criado(aluno(3L, CPF_1)));
+            }
+        });
+
+        cpfs.carregar();
+
+        assertTrue(cpfs.contem(52998224725L));
+        assertTrue(cpfs.contem(11144477735L));
+    }
+
+    @Test
+    void recargaDescartaCpfRemovidoDuranteEla() {
+        jdbcTemplate.update("insert into tb_alunos values (1, ?, 52998224725)", CPF_1);
+        jdbcTemplate.update("insert into tb_alunos values (2, ?, 11144477735)", CPF_2);
+        cpfs.carregar();
+
+        durante.add(lidas -> {
+            if (lidas == 1) {
+                cpfs.onAlunoAlterado(AlunoAlteradoEvent.removido(aluno(2L, CPF_2)));
+            }
+        });
+        cpfs.recarregar();
+
+        assertTrue(cpfs.isCarregado());
+        assertTrue(cpfs.contem(52998224725L));
+        assertFalse(cpfs.contem(11144477735L));
+    }
+
+    private static AlunoDTO aluno(Long id, String cpf) {
+        return new AlunoDTO(id, "Aluno " + id, cpf, "Centro", null, 0L);
+    }
+
+    /**
+     * JdbcTemplate que executa as ações de {@link #durante} a cada linha lida pela carga dos CPFs,
+     * ordenada pelo id para que a ordem das linhas seja conhecida.
+     */
+    private class CargaObservada extends JdbcTemplate {
+
+        CargaObservada(DriverManagerDataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) throws DataAccessException {
+            int[] lidas = {0};
+            super.query(con -> con.prepareStatement(
+                    "select cpf_numero from tb_alunos where cpf_numero is not null order by id"), (RowCallbackHandler) rs -> {
+                rch.processRow(rs);
+                lidas[0]++;
+                durante.forEach(acao -> acao.accept(lidas[0]));
+            });
+        }
+    }
+}
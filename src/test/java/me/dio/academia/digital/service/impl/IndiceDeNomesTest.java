@@ -0,0 +1,203 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.infra.utils.TextoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Buscas no {@link IndiceDeNomes}: ordem das correspondências, normalização dos textos, filtro por
+ * bairro, alterações de alunos já indexados e comparação com uma busca exaustiva.
+ */
+class IndiceDeNomesTest {
+
+    @Test
+    void ordenaExataPrefixoEAproximada() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        indice.adicionar(1, "Marcol Souza", "Centro");
+        indice.adicionar(2, "Marcelino Souza", "Centro");
+        indice.adicionar(3, "Marcela Souza", "Centro");
+        indice.adicionar(4, "Marcel Souza", "Centro");
+        indice.adicionar(5, "Marcos Souza", "Centro");
+
+        // Exata (4), prefixo (2 e 3, por id) e aproximada por uma letra (1); "marcos" difere por duas
+        assertEquals(List.of(4L, 2L, 3L, 1L), indice.buscar("marcel", null, 10));
+        assertEquals(List.of(4L, 2L), indice.buscar("marcel", null, 2));
+        // Sem palavra exata nem com o prefixo: uma letra de diferença (2, 3 e 4, por id) antes de duas (1)
+        assertEquals(List.of(2L, 3L, 4L, 1L), indice.buscar("marcelo", null, 10));
+    }
+
+    @Test
+    void desempataPorIdEntreEtapasDaBusca() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        // "silva" conduz a busca: 2 é encontrado pela palavra exata e 1 só depois, pelo prefixo,
+        // ambos com 7 pontos
+        indice.adicionar(1, "Silvana Joao", "Centro");
+        indice.adicionar(2, "Silva Joaozinho", "Centro");
+
+        assertEquals(List.of(1L), indice.buscar("silva joao", null, 1));
+        assertEquals(List.of(1L, 2L), indice.buscar("silva joao", null, 2));
+
+        // Empate com 6 pontos entre a palavra exata (4) e a aproximada (2) de "silva"
+        indice.adicionar(1, "Silvo Joao", "Centro");
+        indice.adicionar(2, "Silva Joana", "Centro");
+
+        assertEquals(List.of(1L), indice.buscar("silva joao", null, 1));
+    }
+
+    @Test
+    void notasDasCorrespondencias() {
+        assertEquals(4, IndiceDeNomes.nota("silva", "silva"));
+        assertEquals(3, IndiceDeNomes.nota("sil", "silva"));
+        assertEquals(2, IndiceDeNomes.nota("slva", "silva"));
+        assertEquals(2, IndiceDeNomes.nota("slva", "silvana"));
+        assertEquals(2, IndiceDeNomes.nota("silav", "silva"));
+        // Duas diferenças só a partir de 7 letras
+        assertEquals(0, IndiceDeNomes.nota("sulvu", "silva"));
+        assertEquals(2, IndiceDeNomes.nota("mariama", "mariana"));
+        assertEquals(1, IndiceDeNomes.nota("mraiama", "mariana"));
+        // Termos curtos e primeira letra diferente não são aproximados
+        assertEquals(0, IndiceDeNomes.nota("sla", "silva"));
+        assertEquals(0, IndiceDeNomes.nota("cilva", "silva"));
+    }
+
+    @Test
+    void ignoraAcentosEMaiusculas() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        indice.adicionar(1, "João D'Ávila", "São Cristóvão");
+        indice.adicionar(2, "Joao Davila", "Sao Cristovao");
+
+        assertEquals(List.of(1L, 2L), indice.buscar("JOÃO", null, 10));
+        assertEquals(List.of(1L), indice.buscar("joao avila", "sao cristóvão", 10));
+        assertEquals(List.of(1L, 2L), indice.buscar("joão", "SÃO  CRISTOVAO", 10));
+    }
+
+    @Test
+    void filtraPorBairro() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        indice.adicionar(1, "Ana Lima", "Centro");
+        indice.adicionar(2, "Ana Costa", "Vila Mariana");
+        indice.adicionar(3, "Ana Souza", "Centro");
+
+        assertEquals(List.of(1L, 3L), indice.buscar("ana", "centro", 10));
+        assertEquals(List.of(2L), indice.buscar("ana", "Vila Mariana", 10));
+        assertEquals(List.of(), indice.buscar("ana", "Moema", 10));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("ana", " ", 10));
+    }
+
+    @Test
+    void exigeTodosOsTermos() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        indice.adicionar(1, "Ana Silva", "Centro");
+        indice.adicionar(2, "Ana Santos", "Centro");
+        indice.adicionar(3, "Bruno Silva", "Centro");
+        indice.adicionar(4, "Silvana Ana Pereira", "Centro");
+
+        // Termos em qualquer ordem; 4 tem "ana" exata e "silvana" como prefixo de "silva"
+        assertEquals(List.of(1L, 4L), indice.buscar("silva ana", null, 10));
+        assertEquals(List.of(2L), indice.buscar("ana sant", null, 10));
+        assertEquals(List.of(1L, 4L), indice.buscar("an slva", null, 10));
+        assertEquals(List.of(), indice.buscar("ana bruno", null, 10));
+        // Termo curto sem palavra que comece por ele
+        assertEquals(List.of(), indice.buscar("ana xy", null, 10));
+        assertEquals(List.of(), indice.buscar("  ", null, 10));
+        assertEquals(List.of(), indice.buscar("ana", null, 0));
+    }
+
+    @Test
+    void substituiNomeEBairroAoReadicionar() {
+        IndiceDeNomes indice = new IndiceDeNomes();
+        indice.adicionar(1, "Carla Mendes", "Centro");
+        indice.adicionar(2, "Carla Nunes", "Centro");
+
+        indice.adicionar(1, "Carolina Mendes", "Moema");
+
+        assertEquals(2, indice.tamanho());
+        assertEquals(List.of(2L), indice.buscar("carla", null, 10));
+        assertEquals(List.of(1L), indice.buscar("carolina", null, 10));
+        assertEquals(List.of(2L), indice.buscar("c", "centro", 10));
+        assertEquals(List.of(1L), indice.buscar("mendes", "moema", 10));
+        assertEquals(List.of(), indice.buscar("mendes", "centro", 10));
+
+        indice.remover(2);
+        indice.remover(2);
+        assertEquals(1, indice.tamanho());
+        assertEquals(List.of(), indice.buscar("carla", null, 10));
+        assertEquals(List.of(), indice.buscar("nunes", "centro", 10));
+    }
+
+    @Test
+    void equivaleABuscaExaustiva() {
+        String[] nomes = {"Ana", "Mariana", "Marina", "Mario", "Marcos", "Joao", "Joana", "José", "Silva", "Silvana",
+                "Souza", "Santos", "Santana", "Costa", "Oliveira", "Olivia", "Fernanda", "Fernando", "Pereira", "Lima"};
+        String[] bairros = {"Centro", "Moema", "Vila Mariana", "Pinheiros"};
+        String[] buscas = {"ma", "mari", "mariama", "mraio", "ana silva", "slva", "sant", "olivera", "fern sant",
+                "jo", "joana lima", "santna costa", "marcos pereira", "z", "xavier"};
+        SplittableRandom random = new SplittableRandom(7);
+        IndiceDeNomes indice = new IndiceDeNomes();
+        Map<Long, String[]> alunos = new HashMap<>();
+
+        for (int i = 0; i < 3_000; i++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(5) == 0) {
+                indice.remover(id);
+                alunos.remove(id);
+                continue;
+            }
+            String nome = nomes[random.nextInt(nomes.length)] + " " + nomes[random.nextInt(nomes.length)]
+                    + (random.nextBoolean() ? " " + nomes[random.nextInt(nomes.length)] : "");
+            String bairro = bairros[random.nextInt(bairros.length)];
+            indice.adicionar(id, nome, bairro);
+            alunos.put(id, new String[]{nome, bairro});
+        }
+
+        assertEquals(alunos.size(), indice.tamanho());
+        for (String busca : buscas) {
+            for (String bairro : new String[]{null, "Moema", "vila mariana"}) {
+                for (int limite : new int[]{1, 5, 20, 1_000}) {
+                    assertEquals(buscarExaustivamente(alunos, busca, bairro, limite), indice.buscar(busca, bairro, limite),
+                            busca + " / " + bairro + " / " + limite);
+                }
+            }
+        }
+    }
+
+    /**
+     * Confere todos os alunos, somando a melhor nota de cada termo entre as palavras do nome.
+     */
+    private static List<Long> buscarExaustivamente(Map<Long, String[]> alunos, String busca, String bairro, int limite) {
+        String[] termos = TextoUtils.palavras(busca);
+        Map<Long, Integer> pontos = new HashMap<>();
+        alunos.forEach((id, aluno) -> {
+            if (bairro != null && !TextoUtils.normalizar(bairro).equals(TextoUtils.normalizar(aluno[1]))) {
+                return;
+            }
+            String[] palavras = TextoUtils.palavras(aluno[0]);
+            int total = 0;
+            for (String termo : termos) {
+                int melhor = 0;
+                for (String palavra : palavras) {
+                    melhor = Math.max(melhor, IndiceDeNomes.nota(termo, palavra));
+                }
+                if (melhor == 0) {
+                    return;
+                }
+                total += melhor;
+            }
+            pontos.put(id, total);
+        });
+        return pontos.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Long, Integer>>comparingInt(entrada -> -entrada.getValue())
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+}
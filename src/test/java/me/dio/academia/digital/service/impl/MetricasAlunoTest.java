@@ -0,0 +1,257 @@
+package me.dio.academia.digital.service.impl;
+
+import me.dio.academia.digital.entity.dto.AlunoMetricasDTO;
+import me.dio.academia.digital.entity.dto.AvaliacaoFisicaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Indicadores mantidos incrementalmente pelo {@link MetricasAluno} comparados aos recalculados a
+ * partir de todas as avaliações do aluno a cada alteração.
+ */
+class MetricasAlunoTest {
+
+    private static final long ALUNO_ID = 7L;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private static final double TOLERANCIA = 1e-6;
+
+    @Test
+    void semAvaliacoes() {
+        AlunoMetricasDTO resumo = new MetricasAluno(ALUNO_ID).getResumo();
+
+        assertEquals(ALUNO_ID, resumo.getAlunoId());
+        assertEquals(0, resumo.getTotalAvaliacoes());
+        assertNull(resumo.getPesoAtual());
+        assertNull(resumo.getImcAtual());
+    }
+
+    @Test
+    void avaliacoesForaDeOrdem() {
+        List<AvaliacaoFisicaDTO> avaliacoes = List.of(
+                avaliacao(1, 40, 82.0),
+                avaliacao(2, 0, 85.0),
+                avaliacao(3, 75, 80.5),
+                avaliacao(4, 20, 83.2),
+                avaliacao(5, 60, 81.0),
+                avaliacao(6, 75, 80.1));
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        List<AvaliacaoFisicaDTO> incluidas = new ArrayList<>();
+
+        for (AvaliacaoFisicaDTO avaliacao : avaliacoes) {
+            estado.adicionar(avaliacao);
+            incluidas.add(avaliacao);
+            assertResumo(recalcular(incluidas), estado.getResumo());
+        }
+
+        AlunoMetricasDTO resumo = estado.getResumo();
+        assertEquals(6, resumo.getTotalAvaliacoes());
+        // Mesma data: a avaliação de maior id é a mais recente
+        assertEquals(80.1, resumo.getPesoAtual());
+        assertEquals(80.1 - 85.0, resumo.getVariacaoPeso(), TOLERANCIA);
+        assertEquals(80.1, resumo.getPesoMinimo());
+        assertEquals(85.0, resumo.getPesoMaximo());
+    }
+
+    @Test
+    void ignoraAvaliacaoRepetida() {
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        estado.adicionar(avaliacao(1, 0, 80.0));
+        estado.adicionar(avaliacao(2, 10, 79.0));
+        estado.adicionar(avaliacao(2, 10, 79.0));
+
+        assertEquals(2, estado.getResumo().getTotalAvaliacoes());
+        assertResumo(recalcular(List.of(avaliacao(1, 0, 80.0), avaliacao(2, 10, 79.0))), estado.getResumo());
+    }
+
+    @Test
+    void janelasAcompanhamAAvaliacaoMaisRecente() {
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        estado.adicionar(avaliacao(1, 0, 90.0));
+        estado.adicionar(avaliacao(2, 10, 89.0));
+        estado.adicionar(avaliacao(3, 20, 88.0));
+        assertNotNull(estado.getResumo().getTendenciaPeso30Dias());
+        assertEquals(-0.7, estado.getResumo().getTendenciaPeso30Dias(), TOLERANCIA);
+
+        // A avaliação do dia 100 deixa somente ela na janela de 30 dias, e as dos dias 10 (no limite),
+        // 20 e 100 na de 90 dias
+        estado.adicionar(avaliacao(4, 100, 85.0));
+        assertNull(estado.getResumo().getTendenciaPeso30Dias());
+        assertResumo(recalcular(List.of(avaliacao(1, 0, 90.0), avaliacao(2, 10, 89.0), avaliacao(3, 20, 88.0),
+                avaliacao(4, 100, 85.0))), estado.getResumo());
+
+        // Uma avaliação anterior às janelas só altera o total e os extremos
+        estado.adicionar(avaliacao(5, 5, 95.0));
+        assertEquals(95.0, estado.getResumo().getPesoMaximo());
+        assertResumo(recalcular(List.of(avaliacao(1, 0, 90.0), avaliacao(2, 10, 89.0), avaliacao(3, 20, 88.0),
+                avaliacao(4, 100, 85.0), avaliacao(5, 5, 95.0))), estado.getResumo());
+    }
+
+    @Test
+    void removeAvaliacaoIntermediaria() {
+        List<AvaliacaoFisicaDTO> avaliacoes = new ArrayList<>(List.of(
+                avaliacao(1, 0, 90.0),
+                avaliacao(2, 70, 84.0),
+                avaliacao(3, 80, 86.0),
+                avaliacao(4, 85, 83.5),
+                avaliacao(5, 90, 80.0)));
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        avaliacoes.forEach(estado::adicionar);
+
+        assertTrue(estado.remover(avaliacoes.get(2)));
+        avaliacoes.remove(2);
+        assertResumo(recalcular(avaliacoes), estado.getResumo());
+
+        // Avaliação desconhecida: nada a fazer
+        assertTrue(estado.remover(avaliacao(99, 50, 70.0)));
+        assertResumo(recalcular(avaliacoes), estado.getResumo());
+    }
+
+    @Test
+    void pedeRecargaAoRemoverAvaliacaoExtrema() {
+        AvaliacaoFisicaDTO primeira = avaliacao(1, 0, 85.0);
+        AvaliacaoFisicaDTO maiorPeso = avaliacao(2, 10, 92.0);
+        AvaliacaoFisicaDTO intermediaria = avaliacao(3, 20, 86.0);
+        AvaliacaoFisicaDTO menorPeso = avaliacao(4, 30, 79.0);
+        AvaliacaoFisicaDTO ultima = avaliacao(5, 40, 81.0);
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        List.of(primeira, maiorPeso, intermediaria, menorPeso, ultima).forEach(estado::adicionar);
+        AlunoMetricasDTO antes = estado.getResumo();
+
+        assertFalse(estado.remover(primeira));
+        assertFalse(estado.remover(ultima));
+        assertFalse(estado.remover(menorPeso));
+        assertFalse(estado.remover(maiorPeso));
+        // O estado não é alterado pelas remoções recusadas
+        assertEquals(antes, estado.getResumo());
+        assertTrue(estado.remover(intermediaria));
+    }
+
+    @Test
+    void equivaleAoRecalculoEmAlteracoesAleatorias() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<AvaliacaoFisicaDTO> atuais = new ArrayList<>();
+        MetricasAluno estado = new MetricasAluno(ALUNO_ID);
+        int recargas = 0;
+
+        for (long id = 1; id <= 3_000; id++) {
+            if (!atuais.isEmpty() && random.nextInt(3) == 0) {
+                AvaliacaoFisicaDTO removida = atuais.remove(random.nextInt(atuais.size()));
+                if (!estado.remover(removida)) {
+                    // Como no AlunoMetricasServiceImpl: o estado é descartado e recalculado do histórico
+                    estado = new MetricasAluno(ALUNO_ID);
+                    atuais.forEach(estado::adicionar);
+                    recargas++;
+                }
+            } else {
+                // Datas em um período maior que as janelas, fora de ordem, com repetições
+                AvaliacaoFisicaDTO avaliacao = avaliacao(id, random.nextInt(400 * 24) / 24.0,
+                        60 + random.nextInt(4_000) / 100.0);
+                atuais.add(avaliacao);
+                estado.adicionar(avaliacao);
+            }
+            assertResumo(recalcular(atuais), estado.getResumo());
+        }
+
+        assertTrue(recargas > 0, "Nenhuma remoção atingiu uma avaliação extrema");
+    }
+
+    /**
+     * Calcula os indicadores a partir de todas as avaliações, sem estado incremental.
+     */
+    private static AlunoMetricasDTO recalcular(List<AvaliacaoFisicaDTO> avaliacoes) {
+        if (avaliacoes.isEmpty()) {
+            return AlunoMetricasDTO.semAvaliacoes(ALUNO_ID);
+        }
+        List<AvaliacaoFisicaDTO> ordenadas = avaliacoes.stream()
+                .sorted(Comparator.comparing(AvaliacaoFisicaDTO::getDataDaAvaliacao).thenComparing(AvaliacaoFisicaDTO::getId))
+                .collect(Collectors.toList());
+        AvaliacaoFisicaDTO primeira = ordenadas.get(0);
+        AvaliacaoFisicaDTO ultima = ordenadas.get(ordenadas.size() - 1);
+        double alturaEmMetros = ultima.getAltura() / 100;
+        return new AlunoMetricasDTO(
+                ALUNO_ID,
+                ordenadas.size(),
+                ultima.getDataDaAvaliacao(),
+                ultima.getPeso(),
+                ultima.getAltura(),
+                ultima.getPeso() / (alturaEmMetros * alturaEmMetros),
+                ultima.getPeso() - primeira.getPeso(),
+                tendenciaPorSemana(ordenadas, ultima.getDataDaAvaliacao().minusDays(30)),
+                tendenciaPorSemana(ordenadas, ultima.getDataDaAvaliacao().minusDays(90)),
+                ordenadas.stream().mapToDouble(AvaliacaoFisicaDTO::getPeso).min().getAsDouble(),
+                ordenadas.stream().mapToDouble(AvaliacaoFisicaDTO::getPeso).max().getAsDouble());
+    }
+
+    /**
+     * Inclinação da regressão linear do peso pelo tempo, em kg por semana, das avaliações a partir de
+     * <code>inicio</code>.
+     */
+    private static Double tendenciaPorSemana(List<AvaliacaoFisicaDTO> ordenadas, LocalDateTime inicio) {
+        List<AvaliacaoFisicaDTO> janela = ordenadas.stream()
+                .filter(avaliacao -> !avaliacao.getDataDaAvaliacao().isBefore(inicio))
+                .collect(Collectors.toList());
+        if (janela.size() < 2) {
+            return null;
+        }
+        double[] t = janela.stream()
+                .mapToDouble(avaliacao -> Duration.between(inicio, avaliacao.getDataDaAvaliacao()).toMillis()
+                        / (double) Duration.ofDays(1).toMillis())
+                .toArray();
+        double mediaT = 0;
+        double mediaP = 0;
+        for (int i = 0; i < t.length; i++) {
+            mediaT += t[i] / t.length;
+            mediaP += janela.get(i).getPeso() / t.length;
+        }
+        double covariancia = 0;
+        double variancia = 0;
+        for (int i = 0; i < t.length; i++) {
+            covariancia += (t[i] - mediaT) * (janela.get(i).getPeso() - mediaP);
+            variancia += (t[i] - mediaT) * (t[i] - mediaT);
+        }
+        return variancia < 1e-9 ? null : covariancia / variancia * 7;
+    }
+
+    private static void assertResumo(AlunoMetricasDTO esperado, AlunoMetricasDTO atual) {
+        assertEquals(esperado.getAlunoId(), atual.getAlunoId());
+        assertEquals(esperado.getTotalAvaliacoes(), atual.getTotalAvaliacoes());
+        assertEquals(esperado.getUltimaAvaliacao(), atual.getUltimaAvaliacao());
+        assertEquals(esperado.getPesoAtual(), atual.getPesoAtual());
+        assertEquals(esperado.getAlturaAtual(), atual.getAlturaAtual());
+        assertProximo(esperado.getImcAtual(), atual.getImcAtual(), "IMC");
+        assertProximo(esperado.getVariacaoPeso(), atual.getVariacaoPeso(), "variação de peso");
+        assertProximo(esperado.getTendenciaPeso30Dias(), atual.getTendenciaPeso30Dias(), "tendência de 30 dias");
+        assertProximo(esperado.getTendenciaPeso90Dias(), atual.getTendenciaPeso90Dias(), "tendência de 90 dias");
+        assertEquals(esperado.getPesoMinimo(), atual.getPesoMinimo());
+        assertEquals(esperado.getPesoMaximo(), atual.getPesoMaximo());
+    }
+
+    private static void assertProximo(Double esperado, Double atual, String indicador) {
+        if (esperado == null || atual == null) {
+            assertEquals(esperado, atual, indicador);
+        } else {
+            assertEquals(esperado, atual, TOLERANCIA, indicador);
+        }
+    }
+
+    private static AvaliacaoFisicaDTO avaliacao(long id, double dia, double peso) {
+        LocalDateTime data = INICIO.plusMinutes(Math.round(dia * 24 * 60));
+        return new AvaliacaoFisicaDTO(id, ALUNO_ID, data, peso, 175, 0L);
+    }
+}